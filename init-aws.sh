@@ -30,4 +30,14 @@ awslocal dynamodb create-table --cli-input-json file:///docker/schemas/participa
 echo "Criando tabela orders..."
 awslocal dynamodb create-table --cli-input-json file:///docker/schemas/orders_schema.json
 
+# Tabela build_jobs (jobs assíncronos de build-orders, expiram via TTL)
+echo "Criando tabela build_jobs..."
+awslocal dynamodb create-table --cli-input-json file:///docker/schemas/build_jobs_schema.json
+awslocal dynamodb update-time-to-live --table-name build_jobs --time-to-live-specification Enabled=true,AttributeName=expiresAt
+
+# Tabela key_migration (checkpoints e leases da migração para chaves naturais, expiram via TTL)
+echo "Criando tabela key_migration..."
+awslocal dynamodb create-table --cli-input-json file:///docker/schemas/key_migration_schema.json
+awslocal dynamodb update-time-to-live --table-name key_migration --time-to-live-specification Enabled=true,AttributeName=expiresAt
+
 echo "Inicialização concluída com sucesso!"
\ No newline at end of file
@@ -1,10 +1,15 @@
 package com.maal.certifiedbuilderapi.api.certified;
 
+import com.maal.certifiedbuilderapi.business.dto.BatchBuildOrdersRequest;
+import com.maal.certifiedbuilderapi.business.dto.BatchBuildOrdersResponse;
+import com.maal.certifiedbuilderapi.business.dto.BuildJobResponse;
 import com.maal.certifiedbuilderapi.business.dto.BuildOrdersRequest;
 import com.maal.certifiedbuilderapi.business.dto.BuildOrdersResponse;
 import com.maal.certifiedbuilderapi.business.dto.CertificateStatisticsResponse;
 import com.maal.certifiedbuilderapi.business.dto.DeleteProductResponse;
 import com.maal.certifiedbuilderapi.business.dto.RecoverCertificatesResponse;
+import com.maal.certifiedbuilderapi.business.usecase.certificate.construction.BatchBuildOrders;
+import com.maal.certifiedbuilderapi.business.usecase.certificate.construction.BuildOrdersJob;
 import com.maal.certifiedbuilderapi.business.usecase.certificate.construction.CertificateConstructionOrder;
 import com.maal.certifiedbuilderapi.business.usecase.certificate.DeleteProduct;
 import com.maal.certifiedbuilderapi.business.usecase.certificate.GetCertificateStatistics;
@@ -12,6 +17,7 @@ import com.maal.certifiedbuilderapi.business.usecase.certificate.RecoverCertific
 import com.maal.certifiedbuilderapi.infrastructure.client.TechFloripa;
 import com.maal.certifiedbuilderapi.infrastructure.client.response.TechOrdersResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -25,6 +31,8 @@ import java.util.Map;
 public class Certified {
 
     private final CertificateConstructionOrder certificateConstructionOrder;
+    private final BuildOrdersJob buildOrdersJob;
+    private final BatchBuildOrders batchBuildOrders;
     private final RecoverCertificates recoverCertificates;
     private final DeleteProduct deleteProduct;
     private final GetCertificateStatistics getCertificateStatistics;
@@ -40,6 +48,39 @@ public class Certified {
         return ResponseEntity.ok(certificateConstructionOrder.execute(request));
     }
 
+    /**
+     * Build-orders de vários produtos em uma chamada, com resultado por produto
+     * A resposta só é enviada quando todos os produtos terminam; para poucos produtos pequenos.
+     * Lotes maiores devem usar POST /build-orders/batch/jobs
+     */
+    @PostMapping("/build-orders/batch")
+    public ResponseEntity<BatchBuildOrdersResponse> buildOrdersBatch(@RequestBody BatchBuildOrdersRequest request) {
+        return ResponseEntity.ok(batchBuildOrders.execute(request));
+    }
+
+    /**
+     * Inicia o build-orders de vários produtos em segundo plano e retorna o ID do job imediatamente
+     * O progresso e o resultado de cada produto são consultados em GET /build-orders/jobs/{jobId}
+     */
+    @PostMapping("/build-orders/batch/jobs")
+    public ResponseEntity<BuildJobResponse> submitBuildOrdersBatchJob(@RequestBody BatchBuildOrdersRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(buildOrdersJob.submitBatch(request));
+    }
+
+    /**
+     * Inicia o build-orders em segundo plano e retorna o ID do job imediatamente
+     * O progresso é consultado em GET /build-orders/jobs/{jobId}
+     */
+    @PostMapping("/build-orders/jobs")
+    public ResponseEntity<BuildJobResponse> submitBuildOrdersJob(@RequestBody BuildOrdersRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(buildOrdersJob.submit(request));
+    }
+
+    @GetMapping("/build-orders/jobs/{jobId}")
+    public ResponseEntity<BuildJobResponse> getBuildOrdersJob(@PathVariable String jobId) {
+        return ResponseEntity.of(buildOrdersJob.findById(jobId));
+    }
+
 
     @GetMapping("/recover-certificates")
     public ResponseEntity<List<RecoverCertificatesResponse>> recoverCertificates(@RequestParam Integer productId) {
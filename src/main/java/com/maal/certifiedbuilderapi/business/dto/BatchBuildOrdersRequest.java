@@ -0,0 +1,19 @@
+package com.maal.certifiedbuilderapi.business.dto;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchBuildOrdersRequest {
+    List<Integer> productIds;
+    // Ignora o watermark dos produtos e reprocessa todas as ordens
+    Boolean fullResync;
+}
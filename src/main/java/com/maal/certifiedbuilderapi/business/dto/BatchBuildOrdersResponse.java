@@ -0,0 +1,15 @@
+package com.maal.certifiedbuilderapi.business.dto;
+
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchBuildOrdersResponse {
+    private List<ProductBuildOrdersResponse> products;
+}
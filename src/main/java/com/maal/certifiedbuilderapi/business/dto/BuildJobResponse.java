@@ -0,0 +1,29 @@
+package com.maal.certifiedbuilderapi.business.dto;
+
+
+import com.maal.certifiedbuilderapi.domain.entity.BuildJobStatus;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BuildJobResponse {
+    private String jobId;
+    private Integer productId;
+    // Jobs de vários produtos: produtos solicitados e resultados dos já concluídos
+    private List<Integer> productIds;
+    private List<ProductBuildJobResponse> products;
+    private BuildJobStatus status;
+    private Long processedOrders;
+    private Long newOrders;
+    private Long existingOrders;
+    private Long failedOrders;
+    private String errorMessage;
+    private String createdAt;
+    private String updatedAt;
+    private String completedAt;
+}
@@ -12,4 +12,14 @@ import lombok.Setter;
 @AllArgsConstructor
 public class BuildOrdersRequest {
     Integer productId;
+    // Ignora o watermark do produto e reprocessa todas as ordens
+    Boolean fullResync;
+
+    public BuildOrdersRequest(Integer productId) {
+        this.productId = productId;
+    }
+
+    public boolean fullResyncRequested() {
+        return Boolean.TRUE.equals(fullResync);
+    }
 }
@@ -0,0 +1,17 @@
+package com.maal.certifiedbuilderapi.business.dto;
+
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductBuildJobResponse {
+    private Integer productId;
+    private boolean success;
+    private Integer newOrders;
+    private Integer existingOrders;
+    private String errorMessage;
+}
@@ -0,0 +1,16 @@
+package com.maal.certifiedbuilderapi.business.dto;
+
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductBuildOrdersResponse {
+    private Integer productId;
+    private boolean success;
+    private String errorMessage;
+    private BuildOrdersResponse result;
+}
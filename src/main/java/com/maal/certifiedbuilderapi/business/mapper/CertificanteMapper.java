@@ -34,7 +34,7 @@ public interface CertificanteMapper {
     /**
      * Método privado que faz a conversão usando campos desnormalizados
      * Não precisa mais navegar por objetos aninhados (Order -> Product)
-     * Agora converte String para LocalDateTime conforme necessário
+     * As datas já chegam como LocalDateTime (atributos numéricos convertidos pelo DynamoDB Enhanced)
      * @param certificateEntity Entidade com dados desnormalizados
      * @return Response construído
      */
@@ -44,8 +44,7 @@ public interface CertificanteMapper {
                 // === DADOS DO CERTIFICADO ===
                 .certificateId(certificateEntity.getId())
                 .certificateUrl(certificateEntity.getCertificateUrl())
-                // Converte String para LocalDateTime usando método utilitário
-                .generetedDate(certificateEntity.getGeneratedDateAsLocalDateTime())
+                .generetedDate(certificateEntity.getGeneratedDate())
                 .success(certificateEntity.getSuccess())
                 
                 // === DADOS DESNORMALIZADOS DO PRODUTO ===
@@ -54,8 +53,7 @@ public interface CertificanteMapper {
                 
                 // === DADOS DESNORMALIZADOS DO PEDIDO ===
                 .orderId(certificateEntity.getOrderId())             // Direto do campo desnormalizado
-                // Converte String para LocalDateTime usando método utilitário
-                .orderDate(certificateEntity.getOrderDateAsLocalDateTime())
+                .orderDate(certificateEntity.getOrderDate())
                 
                 .build();
     }
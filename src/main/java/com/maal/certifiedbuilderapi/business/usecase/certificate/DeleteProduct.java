@@ -2,7 +2,7 @@ package com.maal.certifiedbuilderapi.business.usecase.certificate;
 
 import com.maal.certifiedbuilderapi.business.dto.DeleteProductResponse;
 import com.maal.certifiedbuilderapi.business.exception.ProductNotFoundException;
-import com.maal.certifiedbuilderapi.domain.entity.CertificateEntity;
+import com.maal.certifiedbuilderapi.business.usecase.certificate.construction.ProductParticipantCacheService;
 import com.maal.certifiedbuilderapi.infrastructure.aws.s3.S3ClientCustomer;
 import com.maal.certifiedbuilderapi.infrastructure.repository.CertificateRepository;
 import com.maal.certifiedbuilderapi.infrastructure.repository.OrderRepository;
@@ -12,7 +12,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 /**
  * Use case responsible for deleting a product and all its associated data.
@@ -30,6 +29,7 @@ public class DeleteProduct {
     private final ProductRepository productRepository;
     private final CertificateRepository certificateRepository;
     private final S3ClientCustomer s3ClientCustomer;
+    private final ProductParticipantCacheService cacheService;
 
     /**
      * Deletes a product and all its associated data.
@@ -54,9 +54,10 @@ public class DeleteProduct {
      * @throws ProductNotFoundException if the product is not found
      */
     private void validateProductExists(Integer productId) {
-        productRepository.findByProductId(productId)
-                .orElseThrow(() -> new ProductNotFoundException(
-                    String.format("Product with ID %d not found.", productId)));
+        if (!productRepository.existsByProductId(productId)) {
+            throw new ProductNotFoundException(
+                    String.format("Product with ID %d not found.", productId));
+        }
     }
 
     /**
@@ -77,6 +78,8 @@ public class DeleteProduct {
      */
     private void deleteProduct(Integer productId) {
         productRepository.deleteByProductId(productId);
+        // Evita que uma nova sincronização reutilize o produto removido a partir do cache
+        cacheService.invalidateProduct(productId);
     }
 
     /**
@@ -100,7 +103,7 @@ public class DeleteProduct {
         // Deleta todos os certificados do diretório no S3
         s3ClientCustomer.deleteProductCertificatesDirectory(productId);
         
-        // Método atualizado para DynamoDB - busca direta por productId desnormalizado
+        // Percorre o ProductIdIndex página a página removendo os registros do produto
         certificateRepository.deleteByProductId(productId);
     }
 
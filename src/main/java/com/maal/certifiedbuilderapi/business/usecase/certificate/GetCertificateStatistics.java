@@ -1,8 +1,6 @@
 package com.maal.certifiedbuilderapi.business.usecase.certificate;
 
 import com.maal.certifiedbuilderapi.business.dto.CertificateStatisticsResponse;
-import com.maal.certifiedbuilderapi.domain.entity.CertificateEntity;
-import com.maal.certifiedbuilderapi.domain.entity.OrderEntity;
 import com.maal.certifiedbuilderapi.domain.entity.ProductEntity;
 import com.maal.certifiedbuilderapi.infrastructure.repository.CertificateRepository;
 import com.maal.certifiedbuilderapi.infrastructure.repository.OrderRepository;
@@ -12,6 +10,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * Use case para obter estatísticas de certificados
@@ -25,6 +26,12 @@ public class GetCertificateStatistics {
     private final CertificateRepository certificateRepository;
     private final ProductRepository productRepository;
 
+    // Projeções: apenas os atributos exibidos nas estatísticas
+    private static final List<String> PRODUCT_ATTRIBUTES = List.of("productId", "productName");
+    // "id" garante um item não vazio para certificados pendentes (sem success); uma projeção vazia
+    // seria convertida em bean nulo pelo Enhanced Client
+    private static final List<String> CERTIFICATE_ATTRIBUTES = List.of("id", "success");
+
     /**
      * Gets statistics about certificate processing for a specific product.
      * Agora usa dados desnormalizados para melhor performance
@@ -34,29 +41,24 @@ public class GetCertificateStatistics {
      */
     @Transactional(readOnly = true)
     public CertificateStatisticsResponse execute(Integer productId) {
-        ProductEntity product = productRepository.findByProductId(productId)
+        ProductEntity product = productRepository.findByProductId(productId, PRODUCT_ATTRIBUTES)
                 .orElseThrow(() -> new IllegalArgumentException("Product not found: " + productId));
 
-        // Usa métodos desnormalizados - busca direta por productId
-        List<CertificateEntity> certificates = certificateRepository.findByProductId(productId);
-        List<OrderEntity> orderEntities = orderRepository.findByProductId(productId);
-
-        long successfulCount = certificates.stream()
-                .filter(cert -> Boolean.TRUE.equals(cert.getSuccess()))
-                .count();
+        // Usa métodos desnormalizados - conta os pedidos do produto sem ler os itens (Select.COUNT)
+        long totalOrders = orderRepository.countByProductId(productId);
 
-        long failedCount = certificates.stream()
-                .filter(cert -> Boolean.FALSE.equals(cert.getSuccess()))
-                .count();
+        // Conta em uma única passada sobre o stream paginado do ProductIdIndex, lendo apenas id e success
+        Map<Optional<Boolean>, Long> countsBySuccess = certificateRepository.findByProductId(productId, CERTIFICATE_ATTRIBUTES)
+                .collect(Collectors.groupingBy(cert -> Optional.ofNullable(cert.getSuccess()), Collectors.counting()));
 
-        long pendingCertificates = certificates.stream()
-                .filter(cert -> cert.getSuccess() == null)
-                .count();
+        long successfulCount = countsBySuccess.getOrDefault(Optional.of(Boolean.TRUE), 0L);
+        long failedCount = countsBySuccess.getOrDefault(Optional.of(Boolean.FALSE), 0L);
+        long pendingCertificates = countsBySuccess.getOrDefault(Optional.<Boolean>empty(), 0L);
 
         return CertificateStatisticsResponse.builder()
                 .productId(product.getProductId())
                 .productName(product.getProductName())
-                .totalCertificates(orderEntities.size())
+                .totalCertificates((int) totalOrders)
                 .successfulCertificates((int) successfulCount)
                 .failedCertificates((int) failedCount)
                 .pendingCertificates((int) pendingCertificates)
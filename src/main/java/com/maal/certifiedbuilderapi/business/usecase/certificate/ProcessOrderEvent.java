@@ -7,8 +7,10 @@ import com.maal.certifiedbuilderapi.domain.entity.CertificateEntity;
 import com.maal.certifiedbuilderapi.domain.entity.OrderEntity;
 import com.maal.certifiedbuilderapi.infrastructure.aws.s3.S3ClientCustomer;
 import com.maal.certifiedbuilderapi.infrastructure.client.TechFloripa;
+import com.maal.certifiedbuilderapi.infrastructure.repository.CertificateAsyncRepository;
 import com.maal.certifiedbuilderapi.infrastructure.repository.CertificateRepository;
-import com.maal.certifiedbuilderapi.infrastructure.repository.OrderRepository;
+import com.maal.certifiedbuilderapi.infrastructure.repository.OrderAsyncRepository;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,11 +18,28 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Use case responsible for processing order events and managing certificates.
  * Adaptado para trabalhar com dados desnormalizados do DynamoDB
+ *
+ * Os acessos ao DynamoDB usam os repositórios assíncronos; chamadas bloqueantes
+ * (S3 e notificação à TechFloripa) rodam em virtual threads para não ocupar
+ * as threads de resposta do SDK
+ *
+ * executeAll processa os eventos de vários pedidos de uma vez: pedidos e certificados são
+ * buscados em lote e os certificados gravados com BatchWriteItem
  */
 @Service
 @RequiredArgsConstructor
@@ -28,24 +47,120 @@ public class ProcessOrderEvent {
 
     private static final Logger logger = LoggerFactory.getLogger(ProcessOrderEvent.class);
 
-    private final OrderRepository orderRepository;
+    private final OrderAsyncRepository orderAsyncRepository;
+    private final CertificateAsyncRepository certificateAsyncRepository;
     private final CertificateRepository certificateRepository;
     private final S3ClientCustomer s3ClientCustomer;
     private final CertificanteMapper certificanteMapper;
     private final TechFloripa techFloripa;
 
+    // Virtual threads das chamadas bloqueantes; encerrado junto com o contexto (shutdown)
+    private final ExecutorService blockingExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("order-event-io-", 0).factory());
+
+    /**
+     * Aguarda as chamadas bloqueantes em andamento e encerra o executor
+     */
+    @PreDestroy
+    void closeBlockingExecutor() {
+        blockingExecutor.close();
+    }
+
     /**
      * Processes an order event and updates or creates the associated certificate.
+     * Blocks until the asynchronous processing completes.
      *
      * @param orderEvent The order event to process
      */
     @Transactional
     public void execute(OrderEvent orderEvent) {
-        OrderEntity order = orderRepository.findByOrderId(orderEvent.getOrderId())
-                .orElseThrow(() -> new IllegalArgumentException("Order not found: " + orderEvent.getOrderId()));
+        try {
+            executeAsync(orderEvent).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
 
-        logger.info("Processing order: {}", orderEvent.getOrderId());
-        processCertificate(order, orderEvent);
+    /**
+     * Processes an order event without blocking the calling thread.
+     *
+     * @param orderEvent The order event to process
+     * @return Future completed when the certificate is saved and the notification is sent
+     */
+    public CompletableFuture<Void> executeAsync(OrderEvent orderEvent) {
+        return orderAsyncRepository.findByOrderId(orderEvent.getOrderId())
+                .thenApply(order -> order.orElseThrow(
+                        () -> new IllegalArgumentException("Order not found: " + orderEvent.getOrderId())))
+                .thenCompose(order -> {
+                    logger.info("Processing order: {}", orderEvent.getOrderId());
+                    return processCertificate(order, orderEvent);
+                });
+    }
+
+    /**
+     * Processes the events of several orders at once.
+     * Orders and certificates are looked up in bulk, the certificates of all events are
+     * written with BatchWriteItem and TechFloripa is notified for each saved certificate.
+     * Events of the same order are applied in sequence to the same certificate.
+     * Events whose order does not exist are logged and skipped, as in the single-event flow.
+     *
+     * @param events Events to process
+     * @return IDs of the orders whose certificate could not be processed or saved
+     */
+    public Set<Integer> executeAll(Collection<OrderEvent> events) {
+        Map<Integer, List<OrderEvent>> eventsByOrder = new LinkedHashMap<>();
+        events.forEach(event -> eventsByOrder.computeIfAbsent(event.getOrderId(), id -> new ArrayList<>()).add(event));
+        if (eventsByOrder.isEmpty()) {
+            return Set.of();
+        }
+
+        CompletableFuture<Map<Integer, OrderEntity>> ordersFuture = orderAsyncRepository.findByOrderIds(eventsByOrder.keySet());
+        CompletableFuture<Map<Integer, CertificateEntity>> certificatesFuture = certificateAsyncRepository.findByOrderIds(eventsByOrder.keySet());
+        Map<Integer, OrderEntity> orders = ordersFuture.join();
+        Map<Integer, CertificateEntity> certificates = certificatesFuture.join();
+
+        Set<Integer> failed = new HashSet<>();
+        Map<Integer, CompletableFuture<CertificateEntity>> applied = new LinkedHashMap<>();
+        eventsByOrder.forEach((orderId, orderEvents) -> {
+            OrderEntity order = orders.get(orderId);
+            if (order == null) {
+                logger.error("Order not found: {}", orderId);
+                return;
+            }
+            // Chamadas ao S3 em virtual threads, um pedido por vez em cada thread
+            applied.put(orderId, CompletableFuture.supplyAsync(() -> {
+                CertificateEntity certificate = certificates.get(orderId);
+                for (OrderEvent event : orderEvents) {
+                    certificate = applyEvent(certificate, order, event);
+                }
+                return certificate;
+            }, blockingExecutor));
+        });
+
+        Map<Integer, CertificateEntity> toSave = new LinkedHashMap<>();
+        applied.forEach((orderId, future) -> {
+            try {
+                toSave.put(orderId, future.join());
+            } catch (CompletionException e) {
+                logger.error("Error processing events of order {}: {}", orderId, e.getCause().getMessage(), e.getCause());
+                failed.add(orderId);
+            }
+        });
+
+        certificateRepository.saveAll(toSave.values())
+                .forEach(certificate -> failed.add(certificate.getOrderId()));
+
+        CompletableFuture.allOf(toSave.values().stream()
+                        .filter(certificate -> !failed.contains(certificate.getOrderId()))
+                        .map(certificate -> CompletableFuture.runAsync(() -> notifiesCertificateGeneration(certificate), blockingExecutor))
+                        .toArray(CompletableFuture[]::new))
+                .join();
+
+        logger.info("Processed events of {} orders ({} failed)", eventsByOrder.size(), failed.size());
+        return failed;
     }
 
     /**
@@ -55,12 +170,26 @@ public class ProcessOrderEvent {
      * @param order The order entity
      * @param event The order event
      */
-    private void processCertificate(OrderEntity order, OrderEvent event) {
+    private CompletableFuture<Void> processCertificate(OrderEntity order, OrderEvent event) {
         // Busca certificado usando orderId (dados desnormalizados)
-        Optional<CertificateEntity> existingCertificate = certificateRepository.findByOrderId(order.getOrderId());
-        existingCertificate.ifPresentOrElse(
-                certificateEntity -> updateExistingCertificate(certificateEntity, event),
-                () -> createNewCertificate(order, event));
+        return certificateAsyncRepository.findByOrderId(order.getOrderId())
+                .thenApplyAsync(existingCertificate -> applyEvent(existingCertificate.orElse(null), order, event), blockingExecutor)
+                .thenCompose(this::saveAndNotify);
+    }
+
+    /**
+     * Applies an event to the order's certificate, creating it when it does not exist yet.
+     * The certificate is not persisted.
+     *
+     * @param certificate The existing certificate, or null
+     * @param order The order entity
+     * @param event The order event
+     * @return The updated or created certificate
+     */
+    private CertificateEntity applyEvent(CertificateEntity certificate, OrderEntity order, OrderEvent event) {
+        return certificate != null
+                ? updateExistingCertificate(certificate, event)
+                : createNewCertificate(order, event);
     }
 
     /**
@@ -69,18 +198,17 @@ public class ProcessOrderEvent {
      * @param certificate The existing certificate
      * @param event       The order event
      */
-    private void updateExistingCertificate(CertificateEntity certificate, OrderEvent event) {
+    private CertificateEntity updateExistingCertificate(CertificateEntity certificate, OrderEvent event) {
         Boolean eventSuccess = event.getSuccess();
         if (eventSuccess != null && eventSuccess) {
             s3ClientCustomer.deleteCertificate(certificate.getCertificateKey());
             certificate.setCertificateKey(event.getCertificateKey());
             certificate.setCertificateUrl(s3ClientCustomer.getUrl(event.getCertificateKey()));
             certificate.setSuccess(true);
-            certificate.setGeneratedDateFromLocalDateTime(LocalDateTime.now());
+            certificate.setGeneratedDate(LocalDateTime.now());
         }
         logger.info("Update register certificate by order {} with status success {}", event.getOrderId(), event.getSuccess());
-        certificateRepository.save(certificate);
-        notifiesCertificateGeneration(certificate);
+        return certificate;
     }
 
     /**
@@ -90,7 +218,7 @@ public class ProcessOrderEvent {
      * @param order The order entity
      * @param event The order event
      */
-    private void createNewCertificate(OrderEntity order, OrderEvent event) {
+    private CertificateEntity createNewCertificate(OrderEntity order, OrderEvent event) {
         CertificateEntity certificate = new CertificateEntity();
         
         // === DADOS DESNORMALIZADOS DO PEDIDO ===
@@ -118,12 +246,19 @@ public class ProcessOrderEvent {
         if (Boolean.TRUE.equals(event.getSuccess())) {
             certificate.setCertificateKey(event.getCertificateKey());
             certificate.setCertificateUrl(s3ClientCustomer.getUrl(event.getCertificateKey()));
-            certificate.setGeneratedDateFromLocalDateTime(LocalDateTime.now());
+            certificate.setGeneratedDate(LocalDateTime.now());
         }
         
         logger.info("Create register certificate by order {} with status success {}", event.getOrderId(), event.getSuccess());
-        certificateRepository.save(certificate);
-        notifiesCertificateGeneration(certificate);
+        return certificate;
+    }
+
+    /**
+     * Saves the certificate and notifies TechFloripa once the write completes.
+     */
+    private CompletableFuture<Void> saveAndNotify(CertificateEntity certificate) {
+        return certificateAsyncRepository.save(certificate)
+                .thenAcceptAsync(this::notifiesCertificateGeneration, blockingExecutor);
     }
 
     private void notifiesCertificateGeneration(CertificateEntity certificate) {
@@ -4,13 +4,19 @@ import com.maal.certifiedbuilderapi.business.dto.RecoverCertificatesResponse;
 import com.maal.certifiedbuilderapi.business.mapper.CertificanteMapper;
 import com.maal.certifiedbuilderapi.domain.entity.CertificateEntity;
 import com.maal.certifiedbuilderapi.infrastructure.aws.s3.S3ClientCustomer;
+import com.maal.certifiedbuilderapi.infrastructure.repository.BatchWriteSupport;
 import com.maal.certifiedbuilderapi.infrastructure.repository.CertificateRepository;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 /**
  * Use case responsible for recovering and updating certificate URLs.
@@ -19,11 +25,17 @@ import java.util.List;
  * - Retrieving certificates for a specific product
  * - Updating certificate URLs if they are older than 7 days
  * - Mapping certificates to response DTOs
+ * Certificates are streamed page by page from the ProductIdIndex, so only one page
+ * of entities is held in memory while the response is built.
+ * Refreshed certificates are persisted with BatchWriteItem every BatchWriteSupport.MAX_BATCH_SIZE
+ * items, so the pending writes never grow beyond a single batch.
  */
 @Service
 @RequiredArgsConstructor
 public class RecoverCertificates {
 
+    private static final Logger logger = LoggerFactory.getLogger(RecoverCertificates.class);
+
     private static final int CERTIFICATE_EXPIRY_DAYS = 7;
 
     private final CertificateRepository certificateRepository;
@@ -38,9 +50,22 @@ public class RecoverCertificates {
      */
     @Transactional(readOnly = true)
     public List<RecoverCertificatesResponse> execute(Integer productId) {
-        List<CertificateEntity> certificates = findCertificates(productId);
-        updateExpiredCertificates(certificates);
-        return mapToResponse(certificates);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiryDate = now.minusDays(CERTIFICATE_EXPIRY_DAYS);
+        List<CertificateEntity> refreshedCertificates = new ArrayList<>(BatchWriteSupport.MAX_BATCH_SIZE);
+        AtomicInteger failedWrites = new AtomicInteger();
+
+        List<RecoverCertificatesResponse> responses = findCertificates(productId)
+                .map(certificate -> updateIfExpired(certificate, expiryDate, now, refreshedCertificates, failedWrites))
+                .map(this::mapToResponse)
+                .toList();
+
+        saveRefreshedCertificates(refreshedCertificates, failedWrites);
+        if (failedWrites.get() > 0) {
+            logger.warn("{} refreshed certificate URLs could not be persisted and will be renewed on the next request",
+                    failedWrites.get());
+        }
+        return responses;
     }
 
     /**
@@ -48,26 +73,48 @@ public class RecoverCertificates {
      * Agora usa dados desnormalizados: busca diretamente por productId
      *
      * @param productId The ID of the product
-     * @return List of certificates
+     * @return Lazy stream of certificates
      */
-    private List<CertificateEntity> findCertificates(Integer productId) {
-        // Método atualizado para DynamoDB - busca direta por productId desnormalizado
+    private Stream<CertificateEntity> findCertificates(Integer productId) {
+        // Consulta o ProductIdIndex - páginas são lidas conforme o stream é consumido
         return certificateRepository.findByProductId(productId);
     }
 
     /**
-     * Updates certificates that are older than the expiry period.
+     * Updates the certificate if it is valid and older than the expiry period.
      *
-     * @param certificates List of certificates to check and update
+     * @param certificate The certificate to check and update
+     * @param expiryDate The date after which certificates are considered expired
+     * @param now The current timestamp
+     * @param refreshedCertificates Collects the certificates that must be persisted, flushed when a batch is full
+     * @param failedWrites Counts the certificates that could not be persisted
+     * @return The same certificate, updated when needed
      */
-    private void updateExpiredCertificates(List<CertificateEntity> certificates) {
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime expiryDate = now.minusDays(CERTIFICATE_EXPIRY_DAYS);
+    private CertificateEntity updateIfExpired(CertificateEntity certificate, LocalDateTime expiryDate, LocalDateTime now,
+                                              List<CertificateEntity> refreshedCertificates, AtomicInteger failedWrites) {
+        if (isValidCertificate(certificate) && isExpired(certificate, expiryDate)) {
+            updateCertificate(certificate, now);
+            refreshedCertificates.add(certificate);
+            if (refreshedCertificates.size() >= BatchWriteSupport.MAX_BATCH_SIZE) {
+                saveRefreshedCertificates(refreshedCertificates, failedWrites);
+            }
+        }
+        return certificate;
+    }
 
-        certificates.stream()
-                .filter(this::isValidCertificate)
-                .filter(certificate -> isExpired(certificate, expiryDate))
-                .forEach(certificate -> updateCertificate(certificate, now));
+    /**
+     * Persists the pending refreshed certificates with batch writes and clears the buffer.
+     *
+     * @param refreshedCertificates Certificates whose URL was renewed
+     * @param failedWrites Incremented with the certificates that could not be persisted
+     */
+    private void saveRefreshedCertificates(List<CertificateEntity> refreshedCertificates, AtomicInteger failedWrites) {
+        if (refreshedCertificates.isEmpty()) {
+            return;
+        }
+        List<CertificateEntity> failed = certificateRepository.saveAll(List.copyOf(refreshedCertificates));
+        failedWrites.addAndGet(failed.size());
+        refreshedCertificates.clear();
     }
 
     /**
@@ -77,20 +124,19 @@ public class RecoverCertificates {
      * @return true if the certificate is valid
      */
     private boolean isValidCertificate(CertificateEntity certificate) {
-        return certificate.getSuccess();
+        return Boolean.TRUE.equals(certificate.getSuccess());
     }
 
     /**
      * Checks if a certificate has expired based on the given expiry date.
-     * Agora usa o método utilitário para converter String para LocalDateTime
+     * The generation date is read from a numeric attribute, no parsing involved
      *
      * @param certificate The certificate to check
      * @param expiryDate The date after which certificates are considered expired
      * @return true if the certificate has expired
      */
     private boolean isExpired(CertificateEntity certificate, LocalDateTime expiryDate) {
-        // Usa método utilitário para converter String para LocalDateTime
-        LocalDateTime generatedDateTime = certificate.getGeneratedDateAsLocalDateTime();
+        LocalDateTime generatedDateTime = certificate.getGeneratedDate();
         if (generatedDateTime == null) {
             return true; // Se não tem data de geração, considera expirado
         }
@@ -98,8 +144,7 @@ public class RecoverCertificates {
     }
 
     /**
-     * Updates a certificate's URL and generation date.
-     * Agora usa método utilitário para converter LocalDateTime para String
+     * Updates a certificate's URL and generation date (persisted later in batch).
      *
      * @param certificate The certificate to update
      * @param now The current timestamp
@@ -107,18 +152,16 @@ public class RecoverCertificates {
     private void updateCertificate(CertificateEntity certificate, LocalDateTime now) {
         String newUrl = s3ClientCustomer.getUrl(certificate.getCertificateKey());
         certificate.setCertificateUrl(newUrl);
-        // Usa método utilitário para converter LocalDateTime para String compatível com DynamoDB
-        certificate.setGeneratedDateFromLocalDateTime(now);
-        certificateRepository.save(certificate);
+        certificate.setGeneratedDate(now);
     }
 
     /**
-     * Maps certificates to response DTOs.
+     * Maps a certificate to its response DTO.
      *
-     * @param certificates List of certificates to map
-     * @return List of RecoverCertificatesResponse
+     * @param certificate The certificate to map
+     * @return RecoverCertificatesResponse
      */
-    private List<RecoverCertificatesResponse> mapToResponse(List<CertificateEntity> certificates) {
-        return certificanteMapper.certificateEntityListToResponseList(certificates);
+    private RecoverCertificatesResponse mapToResponse(CertificateEntity certificate) {
+        return certificanteMapper.certificateEntityToResponse(certificate);
     }
 }
@@ -0,0 +1,125 @@
+package com.maal.certifiedbuilderapi.business.usecase.certificate.construction;
+
+import com.maal.certifiedbuilderapi.business.dto.BatchBuildOrdersRequest;
+import com.maal.certifiedbuilderapi.business.dto.BatchBuildOrdersResponse;
+import com.maal.certifiedbuilderapi.business.dto.BuildOrdersRequest;
+import com.maal.certifiedbuilderapi.business.dto.ProductBuildOrdersResponse;
+import com.maal.certifiedbuilderapi.infrastructure.concurrency.BoundedVirtualThreadExecutor;
+import com.maal.certifiedbuilderapi.infrastructure.concurrency.FairRoundRobinExecutor;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Use case for building the orders of several products in one call.
+ * The feeds of all products are downloaded concurrently (batch-feeds executor) and
+ * every chunk read is processed on the batch-build executor, which applies one global
+ * concurrency limit and takes chunks from the products in round-robin order.
+ * A product with many orders therefore shares the budget with the small ones instead
+ * of holding it until it finishes, and the total time follows the largest product.
+ */
+@Service
+@RequiredArgsConstructor
+public class BatchBuildOrders {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchBuildOrders.class);
+
+    private final CertificateConstructionOrder certificateConstructionOrder;
+    private final FairRoundRobinExecutor batchBuildExecutor;
+    private final BoundedVirtualThreadExecutor batchFeedExecutor;
+
+    /**
+     * Builds the orders of all requested products.
+     * A failure in one product does not interrupt the others; it is reported in its result.
+     *
+     * @param request The product IDs to build
+     * @return BatchBuildOrdersResponse with one result per product, in request order
+     */
+    public BatchBuildOrdersResponse execute(BatchBuildOrdersRequest request) {
+        return execute(request, progress -> { }, result -> { });
+    }
+
+    /**
+     * Builds the orders of all requested products, reporting progress as it happens.
+     * Used by batch build jobs; both listeners may be called concurrently by different products.
+     *
+     * @param request The product IDs to build
+     * @param progressListener Receives the counts of each processed chunk, of any product
+     * @param productListener Receives the result of each product as soon as it finishes
+     * @return BatchBuildOrdersResponse with one result per product, in request order
+     */
+    public BatchBuildOrdersResponse execute(BatchBuildOrdersRequest request, Consumer<IngestionProgress> progressListener,
+                                            Consumer<ProductBuildOrdersResponse> productListener) {
+        if (CollectionUtils.isEmpty(request.getProductIds())) {
+            return BatchBuildOrdersResponse.builder().products(List.of()).build();
+        }
+
+        List<Integer> productIds = request.getProductIds().stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        logger.info("Executing batch construction order for {} products (max concurrency {})",
+                productIds.size(), batchBuildExecutor.getMaxConcurrency());
+        long start = System.nanoTime();
+
+        List<CompletableFuture<ProductBuildOrdersResponse>> futures = productIds.stream()
+                .map(productId -> batchFeedExecutor.submit(() -> {
+                    ProductBuildOrdersResponse result = buildProduct(productId, request.getFullResync(), progressListener);
+                    productListener.accept(result);
+                    return result;
+                }))
+                .toList();
+        List<ProductBuildOrdersResponse> results = futures.stream()
+                .map(CompletableFuture::join)
+                .toList();
+
+        logger.info("Batch construction order finished in {} ms - products: {}, failed: {}",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), results.size(),
+                results.stream().filter(result -> !result.isSuccess()).count());
+        return BatchBuildOrdersResponse.builder().products(results).build();
+    }
+
+    /**
+     * Builds one product, sending each chunk to the fair executor under the product key.
+     */
+    private ProductBuildOrdersResponse buildProduct(Integer productId, Boolean fullResync,
+                                                    Consumer<IngestionProgress> progressListener) {
+        BuildOrdersRequest productRequest = new BuildOrdersRequest(productId, fullResync);
+        try {
+            return ProductBuildOrdersResponse.builder()
+                    .productId(productId)
+                    .success(true)
+                    .result(certificateConstructionOrder.executeChunked(productRequest, progressListener,
+                            batch -> runFairly(productId, batch)))
+                    .build();
+        } catch (Exception e) {
+            logger.error("Batch construction order failed for productId {}: {}", productId, e.getMessage(), e);
+            return ProductBuildOrdersResponse.builder()
+                    .productId(productId)
+                    .success(false)
+                    .errorMessage(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName())
+                    .build();
+        }
+    }
+
+    private ProcessingResult runFairly(Integer productId, Supplier<ProcessingResult> batch) {
+        try {
+            return batchBuildExecutor.submit(productId, batch::get).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Falha no lote do produto " + productId, e.getCause());
+        }
+    }
+}
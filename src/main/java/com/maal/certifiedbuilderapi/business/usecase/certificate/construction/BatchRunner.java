@@ -0,0 +1,22 @@
+package com.maal.certifiedbuilderapi.business.usecase.certificate.construction;
+
+import java.util.function.Supplier;
+
+/**
+ * Define onde cada lote do pipeline de ingestão é executado
+ * O build-orders de um produto executa os lotes na própria thread (DIRECT);
+ * o build-orders de vários produtos os envia ao executor com rodízio entre produtos
+ */
+@FunctionalInterface
+public interface BatchRunner {
+
+    BatchRunner DIRECT = Supplier::get;
+
+    /**
+     * Executa o lote e aguarda seu resultado
+     *
+     * @param batch Pipeline de um lote de ordens
+     * @return Resultado do lote
+     */
+    ProcessingResult run(Supplier<ProcessingResult> batch);
+}
@@ -0,0 +1,309 @@
+package com.maal.certifiedbuilderapi.business.usecase.certificate.construction;
+
+import com.maal.certifiedbuilderapi.business.dto.BatchBuildOrdersRequest;
+import com.maal.certifiedbuilderapi.business.dto.BatchBuildOrdersResponse;
+import com.maal.certifiedbuilderapi.business.dto.BuildJobResponse;
+import com.maal.certifiedbuilderapi.business.dto.BuildOrdersRequest;
+import com.maal.certifiedbuilderapi.business.dto.BuildOrdersResponse;
+import com.maal.certifiedbuilderapi.business.dto.ProductBuildJobResponse;
+import com.maal.certifiedbuilderapi.business.dto.ProductBuildOrdersResponse;
+import com.maal.certifiedbuilderapi.domain.entity.BuildJobEntity;
+import com.maal.certifiedbuilderapi.domain.entity.BuildJobProductResult;
+import com.maal.certifiedbuilderapi.domain.entity.BuildJobStatus;
+import com.maal.certifiedbuilderapi.infrastructure.concurrency.BoundedVirtualThreadExecutor;
+import com.maal.certifiedbuilderapi.infrastructure.repository.BuildJobRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Use case for running build-orders as a background job.
+ * The job is registered in the build_jobs table and answered immediately with its ID;
+ * the build runs on the build-jobs executor and adds the counts of every processed
+ * batch to the job, so any instance can report its progress.
+ * Multi-product jobs run BatchBuildOrders and also record the result of each product as it finishes.
+ *
+ * Jobs exist only in the memory of the instance that accepted them, so that instance renews
+ * their updatedAt every certified.build-jobs.heartbeat-seconds while they are PENDING or RUNNING.
+ * A job whose updatedAt is older than certified.build-jobs.stale-after-seconds lost its instance
+ * (restart or deploy) and is reported, and stored, as FAILED when queried.
+ */
+@Service
+public class BuildOrdersJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(BuildOrdersJob.class);
+
+    static final String STALE_JOB_MESSAGE = "Job interrompido: a instância que o executava foi encerrada";
+
+    private final CertificateConstructionOrder certificateConstructionOrder;
+    private final BatchBuildOrders batchBuildOrders;
+    private final BuildJobRepository buildJobRepository;
+    private final BoundedVirtualThreadExecutor buildJobExecutor;
+    private final Duration staleAfter;
+
+    // Jobs desta instância ainda não concluídos, renovados pelo heartbeat
+    private final Set<String> activeJobs = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService heartbeats =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("build-job-heartbeat").factory());
+
+    public BuildOrdersJob(CertificateConstructionOrder certificateConstructionOrder,
+                          BatchBuildOrders batchBuildOrders,
+                          BuildJobRepository buildJobRepository,
+                          BoundedVirtualThreadExecutor buildJobExecutor,
+                          @Value("${certified.build-jobs.heartbeat-seconds:30}") long heartbeatSeconds,
+                          @Value("${certified.build-jobs.stale-after-seconds:120}") long staleAfterSeconds) {
+        this.certificateConstructionOrder = certificateConstructionOrder;
+        this.batchBuildOrders = batchBuildOrders;
+        this.buildJobRepository = buildJobRepository;
+        this.buildJobExecutor = buildJobExecutor;
+        long interval = Math.max(1, heartbeatSeconds);
+        // Pelo menos dois heartbeats perdidos antes de considerar o job abandonado
+        this.staleAfter = Duration.ofSeconds(Math.max(staleAfterSeconds, 2 * interval + 1));
+        heartbeats.scheduleWithFixedDelay(this::renewActiveJobs, interval, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Registers a build job and starts it in the background.
+     *
+     * @param request The build orders request containing the product ID
+     * @return BuildJobResponse with the job ID and its initial state
+     */
+    public BuildJobResponse submit(BuildOrdersRequest request) {
+        BuildJobEntity job = newJob();
+        job.setProductId(request.getProductId());
+        buildJobRepository.save(job);
+
+        String jobId = job.getId();
+        start(jobId, () -> {
+            BuildOrdersResponse response = certificateConstructionOrder.execute(request,
+                    progress -> recordProgress(jobId, progress));
+            return "new orders: " + response.getCertificateQuantity();
+        });
+
+        logger.info("Build job {} submitted for productId: {}", jobId, request.getProductId());
+        return toResponse(job);
+    }
+
+    /**
+     * Registers a multi-product build job and starts it in the background.
+     * The products share the batch-build executor as in the synchronous batch, and the result
+     * of each product is added to the job as soon as it finishes.
+     *
+     * @param request The product IDs to build
+     * @return BuildJobResponse with the job ID and its initial state
+     */
+    public BuildJobResponse submitBatch(BatchBuildOrdersRequest request) {
+        List<Integer> productIds = request.getProductIds() == null ? List.of()
+                : request.getProductIds().stream().filter(Objects::nonNull).distinct().toList();
+
+        BuildJobEntity job = newJob();
+        job.setProductIds(productIds);
+        job.setProducts(new HashMap<>());
+        buildJobRepository.save(job);
+
+        String jobId = job.getId();
+        BatchBuildOrdersRequest jobRequest = new BatchBuildOrdersRequest(productIds, request.getFullResync());
+        start(jobId, () -> {
+            BatchBuildOrdersResponse response = batchBuildOrders.execute(jobRequest,
+                    progress -> recordProgress(jobId, progress),
+                    result -> recordProductResult(jobId, result));
+            return "failed products: " + response.getProducts().stream().filter(result -> !result.isSuccess()).count();
+        });
+
+        logger.info("Build job {} submitted for {} products", jobId, productIds.size());
+        return toResponse(job);
+    }
+
+    /**
+     * Returns the current state of a build job.
+     * An active job without a recent heartbeat is marked as FAILED first.
+     *
+     * @param jobId The job ID returned by submit
+     * @return BuildJobResponse, or empty when the job does not exist (or has expired)
+     */
+    public Optional<BuildJobResponse> findById(String jobId) {
+        return buildJobRepository.findById(jobId)
+                .map(job -> isStale(job) ? failStale(job) : job)
+                .map(this::toResponse);
+    }
+
+    /**
+     * Stops the heartbeat; jobs still running here become stale and are reported as FAILED.
+     */
+    @PreDestroy
+    void stopHeartbeats() {
+        heartbeats.shutdownNow();
+    }
+
+    private BuildJobEntity newJob() {
+        String now = LocalDateTime.now().toString();
+
+        BuildJobEntity job = new BuildJobEntity();
+        job.setStatus(BuildJobStatus.PENDING);
+        job.setProcessedOrders(0L);
+        job.setNewOrders(0L);
+        job.setExistingOrders(0L);
+        job.setFailedOrders(0L);
+        job.setCreatedAt(now);
+        job.setUpdatedAt(now);
+        return job;
+    }
+
+    /**
+     * Queues the build on the build-jobs executor, renewing its heartbeat until it finishes.
+     */
+    private void start(String jobId, Supplier<String> build) {
+        activeJobs.add(jobId);
+        buildJobExecutor.submit(() -> {
+            run(jobId, build);
+            return null;
+        });
+    }
+
+    /**
+     * Runs the build and records the final state.
+     *
+     * @param build Runs the build and returns a summary for the log
+     */
+    private void run(String jobId, Supplier<String> build) {
+        try {
+            buildJobRepository.updateStatus(jobId, BuildJobStatus.RUNNING, null);
+            String summary = build.get();
+            buildJobRepository.updateStatus(jobId, BuildJobStatus.COMPLETED, null);
+            logger.info("Build job {} completed - {}", jobId, summary);
+        } catch (Exception e) {
+            logger.error("Build job {} failed: {}", jobId, e.getMessage(), e);
+            buildJobRepository.updateStatus(jobId, BuildJobStatus.FAILED,
+                    e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        } finally {
+            activeJobs.remove(jobId);
+        }
+    }
+
+    /**
+     * Renews the updatedAt of the jobs owned by this instance.
+     */
+    private void renewActiveJobs() {
+        for (String jobId : activeJobs) {
+            try {
+                if (!buildJobRepository.heartbeat(jobId)) {
+                    activeJobs.remove(jobId);
+                }
+            } catch (Exception e) {
+                logger.warn("Could not renew heartbeat of build job {}: {}", jobId, e.getMessage());
+            }
+        }
+    }
+
+    private boolean isStale(BuildJobEntity job) {
+        if (job.getStatus() != BuildJobStatus.PENDING && job.getStatus() != BuildJobStatus.RUNNING) {
+            return false;
+        }
+        if (activeJobs.contains(job.getId()) || job.getUpdatedAt() == null) {
+            return false;
+        }
+        try {
+            return LocalDateTime.parse(job.getUpdatedAt()).isBefore(LocalDateTime.now().minus(staleAfter));
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Marks a stale job as FAILED; if it changed meanwhile (heartbeat or completion), returns the new state.
+     */
+    private BuildJobEntity failStale(BuildJobEntity job) {
+        if (buildJobRepository.markFailedIfStale(job.getId(), job.getUpdatedAt(), STALE_JOB_MESSAGE)) {
+            logger.warn("Build job {} marked as FAILED: no heartbeat since {}", job.getId(), job.getUpdatedAt());
+        }
+        return buildJobRepository.findById(job.getId()).orElse(job);
+    }
+
+    /**
+     * Adds the batch counts to the job; a failure here must not interrupt the build.
+     */
+    private void recordProgress(String jobId, IngestionProgress progress) {
+        try {
+            buildJobRepository.addProgress(jobId, progress.processedOrders(), progress.newOrders(),
+                    progress.existingOrders(), progress.failedOrders());
+        } catch (Exception e) {
+            logger.warn("Could not record progress of build job {}: {}", jobId, e.getMessage());
+        }
+    }
+
+    /**
+     * Adds the result of a finished product to a multi-product job; a failure here must not interrupt the build.
+     */
+    private void recordProductResult(String jobId, ProductBuildOrdersResponse product) {
+        BuildJobProductResult result = new BuildJobProductResult();
+        result.setProductId(product.getProductId());
+        result.setSuccess(product.isSuccess());
+        result.setErrorMessage(product.getErrorMessage());
+        if (product.getResult() != null) {
+            result.setNewOrders(product.getResult().getCertificateQuantity());
+            result.setExistingOrders(product.getResult().getExistingOrders().size());
+        }
+        try {
+            buildJobRepository.addProductResult(jobId, result);
+        } catch (Exception e) {
+            logger.warn("Could not record result of productId {} in build job {}: {}",
+                    product.getProductId(), jobId, e.getMessage());
+        }
+    }
+
+    private BuildJobResponse toResponse(BuildJobEntity job) {
+        return BuildJobResponse.builder()
+                .jobId(job.getId())
+                .productId(job.getProductId())
+                .productIds(job.getProductIds())
+                .products(toProductResponses(job))
+                .status(job.getStatus())
+                .processedOrders(job.getProcessedOrders())
+                .newOrders(job.getNewOrders())
+                .existingOrders(job.getExistingOrders())
+                .failedOrders(job.getFailedOrders())
+                .errorMessage(job.getErrorMessage())
+                .createdAt(job.getCreatedAt())
+                .updatedAt(job.getUpdatedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+
+    /**
+     * Results of the finished products, in the order they were requested
+     */
+    private static List<ProductBuildJobResponse> toProductResponses(BuildJobEntity job) {
+        if (job.getProductIds() == null) {
+            return null;
+        }
+        Map<String, BuildJobProductResult> results = job.getProducts() != null ? job.getProducts() : Map.of();
+        return job.getProductIds().stream()
+                .map(productId -> results.get(productId.toString()))
+                .filter(Objects::nonNull)
+                .map(result -> ProductBuildJobResponse.builder()
+                        .productId(result.getProductId())
+                        .success(Boolean.TRUE.equals(result.getSuccess()))
+                        .newOrders(result.getNewOrders())
+                        .existingOrders(result.getExistingOrders())
+                        .errorMessage(result.getErrorMessage())
+                        .build())
+                .toList();
+    }
+}
@@ -4,13 +4,21 @@ import com.maal.certifiedbuilderapi.business.dto.BuildOrdersRequest;
 import com.maal.certifiedbuilderapi.business.dto.BuildOrdersResponse;
 import com.maal.certifiedbuilderapi.infrastructure.aws.sqs.OrderEventPublisher;
 import com.maal.certifiedbuilderapi.infrastructure.client.TechFloripa;
+import com.maal.certifiedbuilderapi.infrastructure.client.TechOrdersStreamReader;
 import com.maal.certifiedbuilderapi.infrastructure.client.response.TechOrdersResponse;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 
 
@@ -19,7 +27,11 @@ import org.slf4j.Logger;
  * Refatorado para usar separação de responsabilidades e melhor organização
  * 
  * Responsabilidades:
- * - Coordenar o fluxo principal de processamento
+ * - Coordenar o fluxo principal de processamento como um pipeline em etapas:
+ *   dedupe -> check-existing -> resolve-references -> write-orders -> publish
+ *   (cada etapa agrupa seu I/O e tem seu tempo registrado no timer certified.ingestion.stage)
+ * - Com certified.ingestion.streaming.enabled, processar as ordens em blocos durante o download
+ * - Sincronização incremental: ordens até o watermark do produto são descartadas antes do I/O
  * - Integrar com TechFloripa para buscar ordens
  * - Publicar eventos para novas ordens
  * - Construir resposta final
@@ -31,8 +43,11 @@ public class CertificateConstructionOrder {
     private static final Logger logger = LoggerFactory.getLogger(CertificateConstructionOrder.class);
 
     private final TechFloripa techFloripa;
+    private final TechOrdersStreamReader techOrdersStreamReader;
     private final OrderEventPublisher orderEventPublisher;
     private final OrderProcessingService orderProcessingService;
+    private final IngestionWatermarkService ingestionWatermarkService;
+    private final MeterRegistry meterRegistry;
 
     /**
      * Processes orders from TechFloripa and creates certificates for new orders.
@@ -41,6 +56,22 @@ public class CertificateConstructionOrder {
      * @return BuildOrdersResponse with processing results
      */
     public BuildOrdersResponse execute(List<TechOrdersResponse> orders) {
+        return execute(orders, progress -> { });
+    }
+
+    /**
+     * Processes orders and reports the progress of each processed batch.
+     *
+     * @param orders The list of TechOrdersResponse containing the product ID
+     * @param progressListener Receives the counts of each processed batch
+     * @return BuildOrdersResponse with processing results
+     */
+    public BuildOrdersResponse execute(List<TechOrdersResponse> orders, Consumer<IngestionProgress> progressListener) {
+        return executeOrders(orders, IngestionWatermark.none(), progressListener);
+    }
+
+    private BuildOrdersResponse executeOrders(List<TechOrdersResponse> orders, IngestionWatermark watermark,
+                                              Consumer<IngestionProgress> progressListener) {
         logger.info("Executing construction order for {} orders", orders.size());
 
         if (CollectionUtils.isEmpty(orders)) {
@@ -52,13 +83,13 @@ public class CertificateConstructionOrder {
                     .build();
         }
         
-        // Processa ordens usando o serviço especializado
-        ProcessingResult result = orderProcessingService.processOrdersParallel(orders);
-        
-        // Publica eventos para novas ordens
-        publishNewOrdersIfNeeded(result.getNewOrders());
+        long start = System.nanoTime();
+        ProcessingResult result = runPipeline(orders, new HashSet<>(), watermark, progressListener);
 
-        return buildResponse(result.getExistingOrders(), result.getNewOrders());
+        logger.info("Ingestion finished in {} ms - received: {}, existing: {}, new: {}",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), orders.size(),
+                result.getExistingOrders().size(), result.getNewOrders().size());
+        return buildResponse(result.getExistingOrders(), orderIds(result.getNewOrders()));
     }
     
     /**
@@ -68,22 +99,173 @@ public class CertificateConstructionOrder {
      * @return BuildOrdersResponse with processing results
      */
     public BuildOrdersResponse execute(BuildOrdersRequest request) {
+        return execute(request, progress -> { });
+    }
+
+    /**
+     * Processes orders from TechFloripa and reports the progress of each processed batch.
+     * Used by asynchronous build jobs to expose progress while the build runs.
+     * Orders up to the product watermark are skipped unless a full resync is requested;
+     * the watermark is advanced once the build finishes.
+     *
+     * @param request The build orders request containing the product ID
+     * @param progressListener Receives the counts of each processed batch
+     * @return BuildOrdersResponse with processing results
+     */
+    public BuildOrdersResponse execute(BuildOrdersRequest request, Consumer<IngestionProgress> progressListener) {
         logger.info("Executing construction order for productId: {}", request.getProductId());
         
-        // Busca ordens da TechFloripa
-        List<TechOrdersResponse> orders = techFloripa.getOrders(request.getProductId());
+        IngestionWatermark watermark = ingestionWatermarkService.start(request.getProductId(), request.fullResyncRequested());
+        BuildOrdersResponse response;
         
-        if (CollectionUtils.isEmpty(orders)) {
-            logger.info("No orders found for productId: {}", request.getProductId());
-            return BuildOrdersResponse.builder()
-                    .certificateQuantity(0)
-                    .existingOrders(List.of())
-                    .newOrders(List.of())
-                    .build();
+        if (techOrdersStreamReader.isEnabled()) {
+            response = executeStreaming(request, watermark, progressListener, BatchRunner.DIRECT);
+        } else {
+            // Busca ordens da TechFloripa
+            List<TechOrdersResponse> orders = techFloripa.getOrders(request.getProductId());
+            
+            if (CollectionUtils.isEmpty(orders)) {
+                logger.info("No orders found for productId: {}", request.getProductId());
+                return BuildOrdersResponse.builder()
+                        .certificateQuantity(0)
+                        .existingOrders(List.of())
+                        .newOrders(List.of())
+                        .build();
+            }
+            
+            // Delega para o método que processa lista de ordens
+            response = executeOrders(orders, watermark, progressListener);
         }
         
-        // Delega para o método que processa lista de ordens
-        return execute(orders);
+        ingestionWatermarkService.advance(request.getProductId(), watermark);
+        return response;
+    }
+
+    /**
+     * Streams the orders of a product and runs every chunk through the given runner.
+     * Used by the multi-product build, which schedules the chunks of all products
+     * under one concurrency budget.
+     *
+     * @param request The build orders request containing the product ID
+     * @param batchRunner Runs each chunk pipeline and waits for its result
+     * @return BuildOrdersResponse with processing results
+     */
+    public BuildOrdersResponse executeChunked(BuildOrdersRequest request, BatchRunner batchRunner) {
+        return executeChunked(request, progress -> { }, batchRunner);
+    }
+
+    /**
+     * Streams the orders of a product through the given runner and reports the progress of each chunk.
+     * Used by multi-product build jobs.
+     *
+     * @param request The build orders request containing the product ID
+     * @param progressListener Receives the counts of each processed chunk
+     * @param batchRunner Runs each chunk pipeline and waits for its result
+     * @return BuildOrdersResponse with processing results
+     */
+    public BuildOrdersResponse executeChunked(BuildOrdersRequest request, Consumer<IngestionProgress> progressListener,
+                                              BatchRunner batchRunner) {
+        logger.info("Executing chunked construction order for productId: {}", request.getProductId());
+        
+        IngestionWatermark watermark = ingestionWatermarkService.start(request.getProductId(), request.fullResyncRequested());
+        BuildOrdersResponse response = executeStreaming(request, watermark, progressListener, batchRunner);
+        
+        ingestionWatermarkService.advance(request.getProductId(), watermark);
+        return response;
+    }
+
+    /**
+     * Processa as ordens do produto enquanto elas são baixadas
+     * Cada bloco lido da TechFloripa passa pelo pipeline completo (inclusive a publicação)
+     * enquanto o download do próximo continua; apenas os orderIds são acumulados para a resposta
+     *
+     * @param request The build orders request containing the product ID
+     * @param watermark Watermark do produto, atualizado com o resultado de cada bloco
+     * @param progressListener Receives the counts of each processed chunk
+     * @param batchRunner Executa o pipeline de cada bloco
+     * @return BuildOrdersResponse with processing results
+     */
+    private BuildOrdersResponse executeStreaming(BuildOrdersRequest request, IngestionWatermark watermark,
+                                                 Consumer<IngestionProgress> progressListener, BatchRunner batchRunner) {
+        long start = System.nanoTime();
+        Set<Integer> seenOrderIds = new HashSet<>();
+        List<Integer> existingOrders = new ArrayList<>();
+        List<Integer> newOrders = new ArrayList<>();
+
+        int received = techOrdersStreamReader.streamOrders(request.getProductId(), chunk -> {
+            ProcessingResult result = batchRunner.run(
+                    () -> runPipeline(chunk, seenOrderIds, watermark, progressListener));
+            existingOrders.addAll(result.getExistingOrders());
+            newOrders.addAll(orderIds(result.getNewOrders()));
+        });
+
+        logger.info("Streaming ingestion for productId {} finished in {} ms - received: {}, existing: {}, new: {}",
+                request.getProductId(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), received,
+                existingOrders.size(), newOrders.size());
+        return buildResponse(existingOrders, newOrders);
+    }
+
+    /**
+     * Executa as etapas do pipeline para um lote de ordens
+     *
+     * @param orders Ordens do lote
+     * @param seenOrderIds orderIds já processados em lotes anteriores da mesma execução
+     * @param watermark Watermark do produto (descarta ordens já ingeridas e registra o resultado do lote)
+     * @param progressListener Recebe as contagens do lote ao final do pipeline
+     * @return ProcessingResult com ordens existentes e novas do lote
+     */
+    private ProcessingResult runPipeline(List<TechOrdersResponse> orders, Set<Integer> seenOrderIds,
+                                         IngestionWatermark watermark, Consumer<IngestionProgress> progressListener) {
+        // Descarta ordens já ingeridas (watermark), sem check-in e orderIds repetidos
+        List<TechOrdersResponse> validOrders = stage("dedupe",
+                () -> OrderProcessingService.dedupeOrders(watermark.skipIngested(orders), seenOrderIds));
+        
+        // Verifica em lote quais ordens já existem
+        Set<Integer> existingOrderIds = stage("check-existing",
+                () -> orderProcessingService.checkExistingOrders(validOrders));
+        List<TechOrdersResponse> newOrders = OrderProcessingService.filterNewOrders(validOrders, existingOrderIds);
+        
+        // Resolve em lote produtos e participantes distintos das ordens novas
+        ReferenceData references = stage("resolve-references",
+                () -> orderProcessingService.resolveReferences(newOrders));
+        
+        // Grava em lote as ordens novas
+        ProcessingResult result = stage("write-orders",
+                () -> orderProcessingService.writeNewOrders(newOrders, references));
+        existingOrderIds.forEach(result::addExistingOrder);
+        
+        // Publica eventos para novas ordens
+        stage("publish", () -> {
+            publishNewOrdersIfNeeded(result.getNewOrders());
+            return null;
+        });
+        
+        watermark.observe(orders, validOrders, result);
+        
+        // Existentes incluem as detectadas na gravação condicional; o restante das válidas falhou
+        int created = result.getNewOrders().size();
+        int existing = result.getExistingOrders().size();
+        progressListener.accept(new IngestionProgress(orders.size(), created, existing,
+                validOrders.size() - created - existing));
+        return result;
+    }
+
+    /**
+     * Executa uma etapa do pipeline registrando sua duração
+     * 
+     * @param name Nome da etapa (tag stage do timer certified.ingestion.stage)
+     * @param step Etapa a executar
+     * @return Resultado da etapa
+     */
+    private <T> T stage(String name, Supplier<T> step) {
+        long start = System.nanoTime();
+        try {
+            return step.get();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            meterRegistry.timer("certified.ingestion.stage", "stage", name).record(elapsed, TimeUnit.NANOSECONDS);
+            logger.info("Stage {} finished in {} ms", name, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
     }
 
     /**
@@ -105,15 +287,19 @@ public class CertificateConstructionOrder {
      * Constrói resposta final com estatísticas do processamento
      * 
      * @param existingOrders Lista de IDs de ordens que já existiam
-     * @param newOrders Lista de novas ordens processadas
+     * @param newOrders Lista de IDs das novas ordens processadas
      * @return BuildOrdersResponse com resultados
      */
     private BuildOrdersResponse buildResponse(List<Integer> existingOrders,
-                                            List<TechOrdersResponse> newOrders) {
+                                            List<Integer> newOrders) {
         return BuildOrdersResponse.builder()
                 .certificateQuantity(newOrders.size())
                 .existingOrders(existingOrders)
-                .newOrders(newOrders.stream().map(TechOrdersResponse::getOrderId).toList())
+                .newOrders(newOrders)
                 .build();
     }
+
+    private static List<Integer> orderIds(List<TechOrdersResponse> orders) {
+        return orders.stream().map(TechOrdersResponse::getOrderId).toList();
+    }
 } 
\ No newline at end of file
@@ -37,6 +37,16 @@ public class EntityCreationService {
      * @return Produto criado e salvo
      */
     public ProductEntity createAndSaveProduct(TechOrdersResponse order) {
+        return productRepository.save(createProduct(order));
+    }
+    
+    /**
+     * Cria um novo produto a partir dos dados da ordem, sem persistir
+     * 
+     * @param order Ordem contendo dados do produto
+     * @return Produto criado (não persistido)
+     */
+    public ProductEntity createProduct(TechOrdersResponse order) {
         logger.debug("Criando novo produto para productId: {}", order.getProductId());
         
         ProductEntity newProduct = new ProductEntity();
@@ -49,7 +59,7 @@ public class EntityCreationService {
         newProduct.setCheckinLongitude(order.getCheckinLongitude());
         newProduct.setTimeCheckin(order.getTimeCheckin());
         
-        return productRepository.save(newProduct);
+        return newProduct;
     }
     
     /**
@@ -59,6 +69,16 @@ public class EntityCreationService {
      * @return Participante criado e salvo
      */
     public ParticipantEntity createAndSaveParticipant(TechOrdersResponse order) {
+        return participantRespository.save(createParticipant(order));
+    }
+    
+    /**
+     * Cria um novo participante a partir dos dados da ordem, sem persistir
+     * 
+     * @param order Ordem contendo dados do participante
+     * @return Participante criado (não persistido)
+     */
+    public ParticipantEntity createParticipant(TechOrdersResponse order) {
         logger.debug("Criando novo participante para email: {}", order.getEmail());
         
         ParticipantEntity newParticipant = new ParticipantEntity();
@@ -69,12 +89,11 @@ public class EntityCreationService {
         newParticipant.setCpf(order.getCpf());
         newParticipant.setCity(order.getCity());
         
-        return participantRespository.save(newParticipant);
+        return newParticipant;
     }
     
     /**
      * Cria e salva uma nova ordem com dados desnormalizados
-     * Preenche campos individuais em vez de setar objetos aninhados para DynamoDB
      * 
      * @param order Ordem original da TechFloripa
      * @param product Produto associado
@@ -82,14 +101,28 @@ public class EntityCreationService {
      * @return Ordem criada e salva
      */
     public OrderEntity createAndSaveOrder(TechOrdersResponse order, ProductEntity product, ParticipantEntity participant) {
+        return orderRepository.save(createOrder(order, product, participant));
+    }
+    
+    /**
+     * Cria uma nova ordem com dados desnormalizados, sem persistir
+     * Preenche campos individuais em vez de setar objetos aninhados para DynamoDB
+     * Usado pelo processamento em lote, que grava as ordens com BatchWriteItem
+     * 
+     * @param order Ordem original da TechFloripa
+     * @param product Produto associado
+     * @param participant Participante associado
+     * @return Ordem criada (não persistida)
+     */
+    public OrderEntity createOrder(TechOrdersResponse order, ProductEntity product, ParticipantEntity participant) {
         logger.debug("Criando nova ordem para orderId: {}", order.getOrderId());
         
         OrderEntity newOrder = new OrderEntity();
         
         // === DADOS BÁSICOS DO PEDIDO ===
         newOrder.setOrderId(order.getOrderId());
-        // Usa método utilitário para converter LocalDateTime para String compatível com DynamoDB
-        newOrder.setOrderDateFromLocalDateTime(LocalDateTime.parse(order.getOrderDate(), DATE_FORMATTER));
+        // Data da TechFloripa convertida uma única vez; gravada como epoch pelo conversor da entidade
+        newOrder.setOrderDate(LocalDateTime.parse(order.getOrderDate(), DATE_FORMATTER));
         
         // === DADOS DESNORMALIZADOS DO PRODUTO ===
         newOrder.setProductId(product.getProductId());
@@ -109,6 +142,6 @@ public class EntityCreationService {
         newOrder.setParticipantPhone(participant.getPhone());
         newOrder.setParticipantCity(participant.getCity());
         
-        return orderRepository.save(newOrder);
+        return newOrder;
     }
 } 
\ No newline at end of file
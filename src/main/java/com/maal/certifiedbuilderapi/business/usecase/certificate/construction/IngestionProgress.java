@@ -0,0 +1,12 @@
+package com.maal.certifiedbuilderapi.business.usecase.certificate.construction;
+
+/**
+ * Progresso de um lote processado pelo pipeline de ingestão
+ *
+ * @param processedOrders Ordens recebidas no lote (inclusive descartadas na deduplicação)
+ * @param newOrders Ordens novas gravadas
+ * @param existingOrders Ordens que já existiam
+ * @param failedOrders Ordens novas que não puderam ser gravadas
+ */
+public record IngestionProgress(int processedOrders, int newOrders, int existingOrders, int failedOrders) {
+}
@@ -0,0 +1,149 @@
+package com.maal.certifiedbuilderapi.business.usecase.certificate.construction;
+
+import com.maal.certifiedbuilderapi.infrastructure.client.response.TechOrdersResponse;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Watermark da sincronização incremental de um produto durante um build-orders
+ * Ordens com orderId menor ou igual ao watermark atual já foram ingeridas e são
+ * descartadas antes de qualquer acesso ao DynamoDB, exceto as pendentes
+ *
+ * Ao longo da execução acompanha o maior orderId recebido e o menor orderId cuja
+ * gravação falhou; o próximo watermark não ultrapassa a falha, para que a ordem seja
+ * lida de novo na sincronização seguinte
+ *
+ * Ordens sem check-in não seguram o watermark (participantes que não compareceram o
+ * prenderiam para sempre): o watermark passa por elas e seus orderIds ficam pendentes,
+ * gravados junto ao watermark. Apenas as pendentes são lidas de novo nas sincronizações
+ * seguintes e deixam o conjunto quando o check-in aparece
+ *
+ * Não é thread-safe: os lotes de uma execução são processados em sequência
+ */
+public class IngestionWatermark {
+
+    private final Integer current;
+    private final Set<Integer> pending;
+    private final Set<Integer> stillPending = new HashSet<>();
+    private Integer highestReceived;
+    private Integer lowestFailed;
+
+    public IngestionWatermark(Integer current) {
+        this(current, Set.of());
+    }
+
+    /**
+     * @param current Watermark gravado (null se nunca sincronizado)
+     * @param pending orderIds pendentes gravados junto ao watermark
+     */
+    public IngestionWatermark(Integer current, Collection<Integer> pending) {
+        this.current = current;
+        this.pending = pending == null ? Set.of() : Set.copyOf(pending);
+    }
+
+    /**
+     * Watermark vazio: nenhuma ordem é descartada (primeira sincronização ou fullResync)
+     */
+    public static IngestionWatermark none() {
+        return new IngestionWatermark(null);
+    }
+
+    public Optional<Integer> current() {
+        return Optional.ofNullable(current);
+    }
+
+    /**
+     * orderIds pendentes lidos no início da execução
+     */
+    public Set<Integer> currentPending() {
+        return pending;
+    }
+
+    /**
+     * Remove as ordens já ingeridas (orderId menor ou igual ao watermark atual e não pendente)
+     */
+    public List<TechOrdersResponse> skipIngested(List<TechOrdersResponse> orders) {
+        if (current == null) {
+            return orders;
+        }
+        return orders.stream()
+            .filter(order -> order.getOrderId() == null || !isIngested(order.getOrderId()))
+            .toList();
+    }
+
+    /**
+     * Registra o resultado de um lote
+     *
+     * @param received Ordens recebidas no lote
+     * @param validOrders Ordens que passaram pela deduplicação
+     * @param result Ordens novas e existentes após a gravação
+     */
+    public void observe(List<TechOrdersResponse> received, List<TechOrdersResponse> validOrders, ProcessingResult result) {
+        received.stream()
+            .map(TechOrdersResponse::getOrderId)
+            .filter(Objects::nonNull)
+            .max(Integer::compare)
+            .ifPresent(orderId -> highestReceived = highestReceived == null ? orderId : Math.max(highestReceived, orderId));
+
+        received.stream()
+            .filter(order -> !OrderProcessingService.hasCheckin(order))
+            .map(TechOrdersResponse::getOrderId)
+            .filter(orderId -> orderId != null && !isIngested(orderId))
+            .forEach(stillPending::add);
+
+        Set<Integer> settled = new HashSet<>(result.getExistingOrders());
+        result.getNewOrders().forEach(order -> settled.add(order.getOrderId()));
+        validOrders.stream()
+            .map(TechOrdersResponse::getOrderId)
+            .filter(orderId -> orderId != null && !settled.contains(orderId))
+            .forEach(orderId -> {
+                if (current != null && orderId <= current) {
+                    // Pendente que ganhou check-in mas não foi gravada: continua pendente
+                    stillPending.add(orderId);
+                } else {
+                    lowestFailed = lowestFailed == null ? orderId : Math.min(lowestFailed, orderId);
+                }
+            });
+    }
+
+    /**
+     * Próximo watermark a gravar, se avançar em relação ao atual
+     */
+    public Optional<Integer> next() {
+        if (highestReceived == null) {
+            return Optional.empty();
+        }
+        int candidate = highestReceived;
+        if (lowestFailed != null) {
+            candidate = Math.min(candidate, lowestFailed - 1);
+        }
+        if (current != null && candidate <= current) {
+            return Optional.empty();
+        }
+        return Optional.of(candidate);
+    }
+
+    /**
+     * orderIds pendentes a gravar junto ao próximo watermark (ou ao atual, se não avançar)
+     * Ordens acima do watermark ficam de fora: serão lidas de novo de qualquer forma
+     */
+    public SortedSet<Integer> nextPending() {
+        Integer watermark = next().orElse(current);
+        SortedSet<Integer> next = new TreeSet<>();
+        if (watermark != null) {
+            stillPending.stream().filter(orderId -> orderId <= watermark).forEach(next::add);
+        }
+        return next;
+    }
+
+    private boolean isIngested(Integer orderId) {
+        return current != null && orderId <= current && !pending.contains(orderId);
+    }
+}
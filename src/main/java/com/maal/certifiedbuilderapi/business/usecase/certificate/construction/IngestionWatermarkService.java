@@ -0,0 +1,90 @@
+package com.maal.certifiedbuilderapi.business.usecase.certificate.construction;
+
+import com.maal.certifiedbuilderapi.domain.entity.ProductEntity;
+import com.maal.certifiedbuilderapi.infrastructure.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Serviço de leitura e avanço do watermark de ingestão por produto
+ * O watermark (maior orderId já ingerido) fica no próprio item do produto (lastIngestedOrderId)
+ * e permite que sincronizações periódicas processem apenas as ordens novas
+ *
+ * Ordens sem check-in até o watermark ficam em pendingCheckinOrderIds, limitado a
+ * certified.ingestion.max-pending-checkins; acima do limite as mais antigas são descartadas
+ * e só voltam a ser lidas com fullResync
+ */
+@Service
+public class IngestionWatermarkService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestionWatermarkService.class);
+
+    private final ProductRepository productRepository;
+    private final int maxPendingCheckins;
+
+    public IngestionWatermarkService(ProductRepository productRepository,
+                                     @Value("${certified.ingestion.max-pending-checkins:1000}") int maxPendingCheckins) {
+        this.productRepository = productRepository;
+        this.maxPendingCheckins = Math.max(0, maxPendingCheckins);
+    }
+
+    /**
+     * Inicia o acompanhamento do watermark para um build-orders
+     *
+     * @param productId ID do produto
+     * @param fullResync true ignora o watermark gravado e reprocessa todas as ordens
+     * @return Watermark atual do produto (vazio na primeira sincronização ou em fullResync)
+     */
+    public IngestionWatermark start(Integer productId, boolean fullResync) {
+        if (fullResync) {
+            logger.info("Full resync requested for productId: {}", productId);
+            return IngestionWatermark.none();
+        }
+        Optional<ProductEntity> product = productRepository.findIngestionWatermark(productId);
+        IngestionWatermark watermark = new IngestionWatermark(
+            product.map(ProductEntity::getLastIngestedOrderId).orElse(null),
+            product.map(ProductEntity::getPendingCheckinOrderIds).orElse(null));
+        watermark.current().ifPresent(orderId ->
+            logger.info("Incremental sync for productId {}: skipping orders up to {} ({} pending check-ins)",
+                productId, orderId, watermark.currentPending().size()));
+        return watermark;
+    }
+
+    /**
+     * Grava o novo watermark do produto e os orderIds pendentes, quando mudaram
+     * A gravação é condicional e nunca faz o watermark retroceder
+     */
+    public void advance(Integer productId, IngestionWatermark watermark) {
+        Optional<Integer> next = watermark.next();
+        List<Integer> pending = new ArrayList<>(watermark.nextPending());
+        if (next.isEmpty() && watermark.currentPending().equals(Set.copyOf(pending))) {
+            return;
+        }
+        Integer orderId = next.or(watermark::current).orElse(null);
+        if (orderId == null) {
+            return;
+        }
+
+        if (pending.size() > maxPendingCheckins) {
+            // Mantém as mais recentes, com mais chance de receber o check-in
+            int dropped = pending.size() - maxPendingCheckins;
+            pending = pending.subList(dropped, pending.size());
+            logger.warn("Dropping {} oldest pending check-ins of productId {}; use fullResync to read them again",
+                dropped, productId);
+        }
+
+        if (productRepository.saveIngestionWatermark(productId, orderId, pending)) {
+            logger.info("Watermark of productId {} at {} with {} pending check-ins", productId, orderId, pending.size());
+        } else {
+            logger.debug("Watermark of productId {} not saved at {} (product missing or newer watermark)",
+                productId, orderId);
+        }
+    }
+}
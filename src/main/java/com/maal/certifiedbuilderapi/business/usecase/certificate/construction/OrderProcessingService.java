@@ -1,22 +1,41 @@
 package com.maal.certifiedbuilderapi.business.usecase.certificate.construction;
 
+import com.maal.certifiedbuilderapi.business.usecase.certificate.construction.ProductParticipantCacheService.ReferenceFailures;
 import com.maal.certifiedbuilderapi.domain.entity.OrderEntity;
 import com.maal.certifiedbuilderapi.domain.entity.ParticipantEntity;
 import com.maal.certifiedbuilderapi.domain.entity.ProductEntity;
 import com.maal.certifiedbuilderapi.infrastructure.client.response.TechOrdersResponse;
+import com.maal.certifiedbuilderapi.infrastructure.concurrency.BoundedVirtualThreadExecutor;
+import com.maal.certifiedbuilderapi.infrastructure.repository.AsyncWriteSupport.CreateOutcome;
+import com.maal.certifiedbuilderapi.infrastructure.repository.EntityKeyStrategy;
+import com.maal.certifiedbuilderapi.infrastructure.repository.OrderAsyncRepository;
 import com.maal.certifiedbuilderapi.infrastructure.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 /**
- * Serviço responsável pelo processamento paralelo de ordens
- * Coordena o processamento usando cache e criação de entidades
+ * Serviço responsável pelas etapas de I/O do pipeline de ingestão de ordens
+ * Cada etapa trabalha sobre o lote inteiro e agrupa seu acesso ao banco:
+ * - dedupeOrders: descarta ordens sem check-in e orderIds repetidos (sem I/O)
+ * - checkExistingOrders: verificação de existência em lote
+ * - resolveReferences: busca em lote de produtos e participantes, criando os que faltam
+ * - writeNewOrders: gravação das ordens novas em lotes de BatchWriteItem
+ *
+ * Com chaves naturais, a verificação de existência é feita pela própria gravação
+ * condicional (attribute_not_exists) e as referências são garantidas antes da gravação
  */
 @Service
 @RequiredArgsConstructor
@@ -24,72 +43,256 @@ public class OrderProcessingService {
     
     private static final Logger logger = LoggerFactory.getLogger(OrderProcessingService.class);
     
+    // Ordens por tarefa de gravação: vários lotes de 25 por tarefa, tarefas em paralelo
+    private static final int WRITE_CHUNK_SIZE = 250;
+    
     private final OrderRepository orderRepository;
+    private final OrderAsyncRepository orderAsyncRepository;
     private final ProductParticipantCacheService cacheService;
     private final EntityCreationService entityCreationService;
+    private final EntityKeyStrategy keyStrategy;
+    private final BoundedVirtualThreadExecutor orderProcessingExecutor;
     
     /**
-     * Processa lista de ordens de forma paralela usando streams
-     * Utiliza cache local para otimizar performance
+     * Executa todas as etapas em sequência
      * 
      * @param orders Lista de ordens a serem processadas
      * @return ProcessingResult com ordens existentes e novas
      */
     public ProcessingResult processOrdersParallel(List<TechOrdersResponse> orders) {
-        logger.info("Processing {} orders using parallel streams", orders.size());
-        
-        // Cria caches thread-safe para esta sessão de processamento
-        ConcurrentHashMap<Integer, ProductEntity> productCache = new ConcurrentHashMap<>();
-        ConcurrentHashMap<String, ParticipantEntity> participantCache = new ConcurrentHashMap<>();
+        List<TechOrdersResponse> validOrders = dedupeOrders(orders);
+        Set<Integer> existingOrderIds = checkExistingOrders(validOrders);
+        List<TechOrdersResponse> newOrders = filterNewOrders(validOrders, existingOrderIds);
         
-        ProcessingResult result = new ProcessingResult();
+        ProcessingResult result = writeNewOrders(newOrders, resolveReferences(newOrders));
+        existingOrderIds.forEach(result::addExistingOrder);
+        return result;
+    }
+    
+    /**
+     * Etapa de deduplicação: mantém apenas ordens com timeCheckin, email e productId preenchidos
+     * e a primeira ocorrência de cada orderId, preservando a ordem de entrada
+     * (email e productId são as chaves das referências, em mapas que não aceitam null)
+     * 
+     * @param orders Ordens recebidas
+     * @return Ordens válidas e distintas
+     */
+    public static List<TechOrdersResponse> dedupeOrders(List<TechOrdersResponse> orders) {
+        return dedupeOrders(orders, new HashSet<>());
+    }
+    
+    /**
+     * Deduplicação que considera orderIds já vistos em blocos anteriores (ingestão em streaming)
+     * 
+     * @param orders Ordens recebidas
+     * @param seenOrderIds orderIds já processados; recebe os orderIds aceitos neste bloco
+     * @return Ordens válidas e ainda não vistas
+     */
+    public static List<TechOrdersResponse> dedupeOrders(List<TechOrdersResponse> orders, Set<Integer> seenOrderIds) {
+        return orders.stream()
+            .filter(OrderProcessingService::hasCheckin)
+            .filter(OrderProcessingService::hasReferenceKeys)
+            .filter(order -> seenOrderIds.add(order.getOrderId()))
+            .toList();
+    }
+    
+    /**
+     * Ordem com check-in realizado (timeCheckin preenchido)
+     */
+    public static boolean hasCheckin(TechOrdersResponse order) {
+        return order.getTimeCheckin() != null && !order.getTimeCheckin().isEmpty();
+    }
+    
+    /**
+     * Ordem com email e productId, necessários para resolver participante e produto
+     */
+    private static boolean hasReferenceKeys(TechOrdersResponse order) {
+        if (order.getEmail() == null || order.getProductId() == null) {
+            logger.warn("Ordem {} ignorada: email ou productId ausente", order.getOrderId());
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Etapa de verificação de existência: consulta em lote quais orderIds já estão gravados
+     * Com chaves naturais não há leitura: a gravação condicional identifica as existentes
+     * 
+     * @param orders Ordens do lote
+     * @return orderIds que já existem no banco
+     */
+    public Set<Integer> checkExistingOrders(List<TechOrdersResponse> orders) {
+        if (orders.isEmpty() || keyStrategy.isNatural()) {
+            return Set.of();
+        }
+        return orderAsyncRepository.findExistingOrderIds(
+            orders.stream().map(TechOrdersResponse::getOrderId).toList()).join();
+    }
+    
+    /**
+     * Etapa de resolução de referências: produtos e participantes distintos das ordens novas
+     * Os já cadastrados são buscados em lote e de forma assíncrona (produtos e participantes em paralelo);
+     * somente os que faltam são criados, em virtual threads (executor order-processing)
+     * 
+     * Com chaves naturais as referências são montadas com os dados das próprias ordens,
+     * sem I/O; elas são gravadas condicionalmente na etapa de escrita
+     * 
+     * @param newOrders Ordens novas do lote
+     * @return Produtos e participantes das ordens
+     */
+    public ReferenceData resolveReferences(List<TechOrdersResponse> newOrders) {
+        if (newOrders.isEmpty()) {
+            return ReferenceData.empty();
+        }
         
-        // Filtra ordens válidas (com timeCheckin não vazio) e processa em paralelo
-        orders.parallelStream()
-            .filter(order -> !order.getTimeCheckin().isEmpty())
-            .forEach(order -> {
-                try {
-                    // Busca ou cria produto usando cache local
-                    ProductEntity product = cacheService.getOrCreateProductWithCache(order, productCache);
-                    
-                    // Busca ou cria participante usando cache local
-                    ParticipantEntity participant = cacheService.getOrCreateParticipantWithCache(order, participantCache);
-                    
-                    // Processa a ordem individual
-                    processIndividualOrder(order, product, participant, result);
-                    
-                } catch (Exception e) {
-                    logger.error("Erro ao processar ordem {}: {}", order.getOrderId(), e.getMessage(), e);
-                }
+        if (keyStrategy.isNatural()) {
+            Map<Integer, ProductEntity> products = new LinkedHashMap<>();
+            Map<String, ParticipantEntity> participants = new LinkedHashMap<>();
+            newOrders.forEach(order -> {
+                products.computeIfAbsent(order.getProductId(), id -> entityCreationService.createProduct(order));
+                participants.computeIfAbsent(order.getEmail(), email -> entityCreationService.createParticipant(order));
             });
+            return new ReferenceData(products, participants);
+        }
         
-        logger.info("Finished processing orders - New: {}, Existing: {}", 
-                   result.getNewOrders().size(), result.getExistingOrders().size());
+        CompletableFuture<Map<Integer, ProductEntity>> productsFuture = cacheService.findExistingProductsAsync(newOrders);
+        CompletableFuture<Map<String, ParticipantEntity>> participantsFuture = cacheService.findExistingParticipantsAsync(newOrders);
         
-        return result;
+        // Referências deste lote, pré-carregadas com as existentes (cache compartilhado + banco)
+        ConcurrentHashMap<Integer, ProductEntity> products = new ConcurrentHashMap<>(productsFuture.join());
+        ConcurrentHashMap<String, ParticipantEntity> participants = new ConcurrentHashMap<>(participantsFuture.join());
+        
+        // Cria em paralelo apenas as referências ausentes
+        orderProcessingExecutor.mapAll(newOrders, order -> {
+            try {
+                if (!products.containsKey(order.getProductId())) {
+                    products.put(order.getProductId(), cacheService.getOrCreateProductWithCache(order));
+                }
+                if (!participants.containsKey(order.getEmail())) {
+                    participants.put(order.getEmail(), cacheService.getOrCreateParticipantWithCache(order));
+                }
+            } catch (Exception e) {
+                logger.error("Erro ao resolver referências da ordem {}: {}", order.getOrderId(), e.getMessage(), e);
+            }
+            return null;
+        });
+        
+        return new ReferenceData(products, participants);
     }
     
     /**
-     * Processa uma ordem individual de forma thread-safe
-     * Verifica se a ordem já existe antes de criar uma nova
+     * Etapa de escrita: monta e grava as ordens novas
+     * As ordens são gravadas com BatchWriteItem, em blocos processados em paralelo
+     * pelo executor order-processing. Ordens cujas referências não foram resolvidas
+     * ou cuja gravação falhou ficam fora do resultado e serão novas na próxima sincronização
+     * 
+     * Com chaves naturais usa gravações condicionais: as referências são garantidas antes
+     * e ordens já existentes são registradas como existentes
      * 
-     * @param order Ordem a ser processada
-     * @param product Produto associado
-     * @param participant Participante associado
-     * @param result Resultado compartilhado thread-safe
+     * @param newOrders Ordens novas do lote
+     * @param references Produtos e participantes resolvidos
+     * @return ProcessingResult com as ordens gravadas (e as existentes detectadas na gravação)
      */
-    private void processIndividualOrder(TechOrdersResponse order, ProductEntity product, 
-                                      ParticipantEntity participant, ProcessingResult result) {
-
-        Optional<OrderEntity> existingOrder = orderRepository.findByOrderId(order.getOrderId());
+    public ProcessingResult writeNewOrders(List<TechOrdersResponse> newOrders, ReferenceData references) {
+        ProcessingResult result = new ProcessingResult();
+        if (newOrders.isEmpty()) {
+            return result;
+        }
+        
+        Map<Integer, TechOrdersResponse> ordersById = new LinkedHashMap<>();
+        List<OrderEntity> orderEntities = new ArrayList<>();
+        for (TechOrdersResponse order : newOrders) {
+            // Mapas concorrentes não aceitam chave null: a ordem é ignorada, não o lote
+            ProductEntity product = order.getProductId() != null ? references.products().get(order.getProductId()) : null;
+            ParticipantEntity participant = order.getEmail() != null ? references.participants().get(order.getEmail()) : null;
+            if (product == null || participant == null) {
+                logger.warn("Ordem {} ignorada: referências não resolvidas", order.getOrderId());
+                continue;
+            }
+            try {
+                orderEntities.add(entityCreationService.createOrder(order, product, participant));
+                ordersById.put(order.getOrderId(), order);
+            } catch (Exception e) {
+                logger.error("Erro ao processar ordem {}: {}", order.getOrderId(), e.getMessage(), e);
+            }
+        }
         
-        if (existingOrder.isPresent()) {
-            logger.debug("Order {} already exists", order.getOrderId());
-            result.addExistingOrder(order.getOrderId());
+        if (keyStrategy.isNatural()) {
+            writeWithConditionalPuts(orderEntities, ordersById, result);
         } else {
-            logger.debug("Creating new order {}", order.getOrderId());
-            entityCreationService.createAndSaveOrder(order, product, participant);
-            result.addNewOrder(order);
+            writeWithBatches(orderEntities, ordersById, result);
+        }
+        
+        logger.info("Finished writing orders - New: {}, Existing: {}", 
+                   result.getNewOrders().size(), result.getExistingOrders().size());
+        return result;
+    }
+    
+    /**
+     * Grava as ordens com BatchWriteItem em blocos paralelos e registra apenas as persistidas
+     */
+    private void writeWithBatches(List<OrderEntity> orderEntities, Map<Integer, TechOrdersResponse> ordersById,
+                                  ProcessingResult result) {
+        List<List<OrderEntity>> chunks = new ArrayList<>();
+        for (int start = 0; start < orderEntities.size(); start += WRITE_CHUNK_SIZE) {
+            chunks.add(orderEntities.subList(start, Math.min(start + WRITE_CHUNK_SIZE, orderEntities.size())));
         }
+        
+        logger.debug("Saving {} new orders with batch writes in {} chunks", orderEntities.size(), chunks.size());
+        Set<Integer> failedOrderIds = orderProcessingExecutor.mapAll(chunks, orderRepository::saveAll).stream()
+            .flatMap(List::stream)
+            .map(OrderEntity::getOrderId)
+            .collect(Collectors.toSet());
+        
+        orderEntities.stream()
+            .map(OrderEntity::getOrderId)
+            .filter(orderId -> !failedOrderIds.contains(orderId))
+            .map(ordersById::get)
+            .filter(Objects::nonNull)
+            .forEach(result::addNewOrder);
+    }
+    
+    /**
+     * Garante as referências e grava as ordens com PutItem condicional (attribute_not_exists)
+     * As referências são gravadas primeiro (gravações idempotentes): uma ordem só é criada
+     * quando seu produto e participante existem. Ordens com referência ou gravação com falha
+     * ficam fora do resultado e continuam novas na próxima sincronização, já que a ordem
+     * gravada é o que a marca como existente
+     * Chamadas concorrentes (inclusive em outras instâncias) nunca duplicam ordens
+     */
+    private void writeWithConditionalPuts(List<OrderEntity> orderEntities, Map<Integer, TechOrdersResponse> ordersById,
+                                          ProcessingResult result) {
+        ReferenceFailures referenceFailures = cacheService.createMissingReferencesAsync(
+                new ArrayList<>(ordersById.values())).join();
+        
+        List<OrderEntity> writable = orderEntities.stream()
+            .filter(entity -> {
+                if (referenceFailures.affects(ordersById.get(entity.getOrderId()))) {
+                    logger.warn("Ordem {} ignorada: produto ou participante não gravado", entity.getOrderId());
+                    return false;
+                }
+                return true;
+            })
+            .toList();
+        
+        CreateOutcome<Integer> outcome = orderAsyncRepository.createAll(writable).join();
+        
+        // Ordens com falha na gravação ficam fora do resultado e serão novas na próxima sincronização
+        writable.stream().map(OrderEntity::getOrderId).distinct().forEach(orderId -> {
+            if (outcome.created().contains(orderId)) {
+                result.addNewOrder(ordersById.get(orderId));
+            } else if (outcome.existing().contains(orderId)) {
+                result.addExistingOrder(orderId);
+            }
+        });
+    }
+    
+    /**
+     * Mantém apenas as ordens cujo orderId ainda não existe no banco
+     */
+    public static List<TechOrdersResponse> filterNewOrders(List<TechOrdersResponse> orders, Set<Integer> existingOrderIds) {
+        return orders.stream()
+            .filter(order -> !existingOrderIds.contains(order.getOrderId()))
+            .toList();
     }
-} 
\ No newline at end of file
+}
@@ -1,20 +1,43 @@
 package com.maal.certifiedbuilderapi.business.usecase.certificate.construction;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import com.maal.certifiedbuilderapi.domain.entity.ParticipantEntity;
 import com.maal.certifiedbuilderapi.domain.entity.ProductEntity;
+import com.maal.certifiedbuilderapi.infrastructure.cache.SingleFlightLoader;
 import com.maal.certifiedbuilderapi.infrastructure.client.response.TechOrdersResponse;
+import com.maal.certifiedbuilderapi.infrastructure.repository.AsyncWriteSupport.CreateOutcome;
+import com.maal.certifiedbuilderapi.infrastructure.repository.ParticipantAsyncRepository;
 import com.maal.certifiedbuilderapi.infrastructure.repository.ParticipantRespository;
+import com.maal.certifiedbuilderapi.infrastructure.repository.ProductAsyncRepository;
 import com.maal.certifiedbuilderapi.infrastructure.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
- * Serviço responsável por gerenciar cache local de produtos e participantes
- * Otimiza performance evitando consultas repetidas ao banco durante processamento paralelo
+ * Serviço responsável por gerenciar o cache de produtos e participantes
+ * Os caches (ReferenceCacheConfig) são compartilhados por todas as requisições do processo,
+ * com tamanho máximo e expiração; sincronizações repetidas do mesmo produto praticamente
+ * não leem referências do banco
+ *
+ * Alterações feitas fora deste serviço (ex.: remoção de produto) devem invalidar as entradas
+ * (invalidateProduct, invalidateParticipant, invalidateAll). A invalidação é local: para que um
+ * produto removido em outra instância não seja reutilizado, os produtos servidos pelo cache às
+ * etapas em lote (findExistingProductsAsync, createMissingReferencesAsync) têm a existência
+ * verificada com uma leitura só da chave por produto e lote; os ausentes saem do cache e são recriados
+ *
+ * Falhas de cache são carregadas via SingleFlightLoader: buscas/criações concorrentes da mesma
+ * chave (inclusive de requisições build-orders diferentes) compartilham uma única chamada ao
+ * DynamoDB, e nenhum lock do mapa do cache é mantido durante o I/O
  */
 @Service
 @RequiredArgsConstructor
@@ -24,50 +47,240 @@ public class ProductParticipantCacheService {
     
     private final ProductRepository productRepository;
     private final ParticipantRespository participantRespository;
+    private final ProductAsyncRepository productAsyncRepository;
+    private final ParticipantAsyncRepository participantAsyncRepository;
     private final EntityCreationService entityCreationService;
+    private final Cache<Integer, ProductEntity> productCache;
+    private final Cache<String, ParticipantEntity> participantCache;
+    
+    private final SingleFlightLoader<Integer, ProductEntity> productLoader = new SingleFlightLoader<>();
+    private final SingleFlightLoader<String, ParticipantEntity> participantLoader = new SingleFlightLoader<>();
     
     /**
-     * Busca ou cria produto usando cache local thread-safe
-     * Evita consultas duplicadas para o mesmo productId durante processamento paralelo
+     * Busca ou cria produto usando o cache compartilhado
+     * Evita consultas duplicadas para o mesmo productId entre ordens e requisições
      * 
      * @param order Ordem contendo dados do produto
-     * @param productCache Cache local de produtos
      * @return Produto encontrado ou criado
      */
-    public ProductEntity getOrCreateProductWithCache(TechOrdersResponse order, 
-                                                   ConcurrentHashMap<Integer, ProductEntity> productCache) {
-        return productCache.computeIfAbsent(order.getProductId(), productId -> {
-            logger.debug("Buscando produto {} no banco (não encontrado no cache)", productId);
-            return getOrCreateProduct(order);
+    public ProductEntity getOrCreateProductWithCache(TechOrdersResponse order) {
+        ProductEntity cached = productCache.getIfPresent(order.getProductId());
+        if (cached != null) {
+            return cached;
+        }
+        return productLoader.load(order.getProductId(), productId -> {
+            // Outra carga pode ter terminado entre a consulta ao cache e o registro desta
+            ProductEntity loaded = productCache.getIfPresent(productId);
+            if (loaded == null) {
+                logger.debug("Buscando produto {} no banco (não encontrado no cache)", productId);
+                loaded = getOrCreateProduct(order);
+                productCache.put(productId, loaded);
+            }
+            return loaded;
         });
     }
     
     /**
-     * Busca ou cria participante usando cache local thread-safe
-     * Evita consultas duplicadas para o mesmo email durante processamento paralelo
+     * Busca ou cria participante usando o cache compartilhado
+     * Evita consultas duplicadas para o mesmo email entre ordens e requisições
      * 
      * @param order Ordem contendo dados do participante
-     * @param participantCache Cache local de participantes
      * @return Participante encontrado ou criado
      */
-    public ParticipantEntity getOrCreateParticipantWithCache(TechOrdersResponse order,
-                                                          ConcurrentHashMap<String, ParticipantEntity> participantCache) {
-        return participantCache.computeIfAbsent(order.getEmail(), email -> {
-            logger.debug("Buscando participante {} no banco (não encontrado no cache)", email);
-            return getOrCreateParticipant(order);
+    public ParticipantEntity getOrCreateParticipantWithCache(TechOrdersResponse order) {
+        ParticipantEntity cached = participantCache.getIfPresent(order.getEmail());
+        if (cached != null) {
+            return cached;
+        }
+        return participantLoader.load(order.getEmail(), email -> {
+            ParticipantEntity loaded = participantCache.getIfPresent(email);
+            if (loaded == null) {
+                logger.debug("Buscando participante {} no banco (não encontrado no cache)", email);
+                loaded = getOrCreateParticipant(order);
+                participantCache.put(email, loaded);
+            }
+            return loaded;
         });
     }
     
     /**
-     * Cria caches thread-safe para nova sessão de processamento
-     * 
-     * @return Array com [productCache, participantCache]
+     * Busca em lote, de forma assíncrona, os participantes já cadastrados com os emails das ordens
+     * Emails presentes no cache não são consultados; os encontrados no banco entram no cache,
+     * de modo que o processamento individual só consulta o banco para participantes novos
+     *
+     * @param orders Ordens a serem processadas
+     * @return Future com o mapa email -> participante existente
+     */
+    public CompletableFuture<Map<String, ParticipantEntity>> findExistingParticipantsAsync(List<TechOrdersResponse> orders) {
+        List<String> emails = orders.stream()
+                .map(TechOrdersResponse::getEmail)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+
+        Map<String, ParticipantEntity> cached = new HashMap<>(participantCache.getAllPresent(emails));
+        List<String> missing = emails.stream().filter(email -> !cached.containsKey(email)).toList();
+        if (missing.isEmpty()) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        return participantAsyncRepository.findByEmails(missing)
+                .thenApply(found -> {
+                    participantCache.putAll(found);
+                    logger.debug("Participantes pré-carregados: {} do cache, {} de {} encontrados no banco",
+                            cached.size(), found.size(), missing.size());
+                    cached.putAll(found);
+                    return cached;
+                });
+    }
+
+    /**
+     * Busca em lote, de forma assíncrona, os produtos já cadastrados das ordens
+     * Produtos presentes no cache não são consultados; os encontrados no banco entram no cache
+     *
+     * @param orders Ordens a serem processadas
+     * @return Future com o mapa productId -> produto existente
+     */
+    public CompletableFuture<Map<Integer, ProductEntity>> findExistingProductsAsync(List<TechOrdersResponse> orders) {
+        List<Integer> productIds = orders.stream()
+                .map(TechOrdersResponse::getProductId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+
+        return evictDeletedProducts(productIds).thenCompose(ignored -> {
+            Map<Integer, ProductEntity> cached = new HashMap<>(productCache.getAllPresent(productIds));
+            List<Integer> missing = productIds.stream().filter(productId -> !cached.containsKey(productId)).toList();
+            if (missing.isEmpty()) {
+                return CompletableFuture.completedFuture(cached);
+            }
+
+            return productAsyncRepository.findByProductIds(missing)
+                    .thenApply(found -> {
+                        productCache.putAll(found);
+                        cached.putAll(found);
+                        return cached;
+                    });
+        });
+    }
+
+    /**
+     * Remove do cache os produtos que não existem mais no banco (ex.: removidos por outra instância)
+     * Lê apenas a chave dos produtos presentes no cache; se a verificação falhar, o cache é mantido
+     *
+     * @param productIds Produtos do lote
+     * @return Future concluído após a verificação; nunca completa com erro
+     */
+    private CompletableFuture<Void> evictDeletedProducts(List<Integer> productIds) {
+        List<Integer> cachedIds = List.copyOf(productCache.getAllPresent(productIds).keySet());
+        if (cachedIds.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return productAsyncRepository.findExistingProductIds(cachedIds)
+                .thenAccept(existing -> cachedIds.stream()
+                        .filter(productId -> !existing.contains(productId))
+                        .forEach(productId -> {
+                            logger.info("Produto {} não existe mais no banco; removido do cache", productId);
+                            productCache.invalidate(productId);
+                        }))
+                .exceptionally(e -> {
+                    logger.warn("Falha ao verificar produtos do cache {}: {}", cachedIds, e.getMessage());
+                    return null;
+                });
+    }
+
+    /**
+     * Referências que não puderam ser gravadas por createMissingReferencesAsync
+     * As ordens que dependem delas não devem ser gravadas, para serem tentadas de novo
+     *
+     * @param productIds Produtos com falha na gravação
+     * @param emails Participantes com falha na gravação
+     */
+    public record ReferenceFailures(Set<Integer> productIds, Set<String> emails) {
+
+        public boolean affects(TechOrdersResponse order) {
+            return productIds.contains(order.getProductId()) || emails.contains(order.getEmail());
+        }
+    }
+
+    /**
+     * Garante que produtos e participantes das ordens existam, sem leitura prévia
+     * Usa gravações condicionais (attribute_not_exists): a falha da condição significa que a
+     * referência já existe. Idempotente entre requisições e instâncias com chaves naturais,
+     * por isso deve ser chamado antes de gravar as ordens
+     *
+     * Referências criadas ou já existentes entram no cache (com chaves naturais o id é o mesmo
+     * do item gravado); as com falha são devolvidas e não entram no cache. Produtos do cache
+     * têm a existência verificada antes, e os removidos são gravados de novo
+     *
+     * @param orders Ordens a gravar
+     * @return Future com as referências cuja gravação falhou; nunca completa com erro
+     */
+    public CompletableFuture<ReferenceFailures> createMissingReferencesAsync(List<TechOrdersResponse> orders) {
+        Map<String, ParticipantEntity> participantsByEmail = new LinkedHashMap<>();
+        orders.stream()
+                .filter(order -> order.getEmail() != null && participantCache.getIfPresent(order.getEmail()) == null)
+                .forEach(order -> participantsByEmail.computeIfAbsent(order.getEmail(),
+                        email -> entityCreationService.createParticipant(order)));
+
+        // Referências presentes no cache já existem no banco; produtos removidos em outra instância saem antes
+        List<Integer> productIds = orders.stream()
+                .map(TechOrdersResponse::getProductId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        CompletableFuture<CreateOutcome<Integer>> productWrites = evictDeletedProducts(productIds).thenCompose(ignored -> {
+            Map<Integer, ProductEntity> productsById = new LinkedHashMap<>();
+            orders.stream()
+                    .filter(order -> productCache.getIfPresent(order.getProductId()) == null)
+                    .forEach(order -> productsById.computeIfAbsent(order.getProductId(),
+                            productId -> entityCreationService.createProduct(order)));
+            return productAsyncRepository.createAll(productsById.values())
+                    .thenApply(outcome -> {
+                        cacheWritten(outcome, productsById, productCache);
+                        return outcome;
+                    });
+        });
+        CompletableFuture<CreateOutcome<String>> participantWrites = participantAsyncRepository.createAll(
+                participantsByEmail.values())
+                .thenApply(outcome -> {
+                    cacheWritten(outcome, participantsByEmail, participantCache);
+                    return outcome;
+                });
+
+        return productWrites.thenCombine(participantWrites, (products, participants) -> {
+            logger.debug("Referências garantidas: {} produtos e {} participantes novos, {} produtos e {} participantes com falha",
+                    products.created().size(), participants.created().size(),
+                    products.failed().size(), participants.failed().size());
+            return new ReferenceFailures(products.failed(), participants.failed());
+        });
+    }
+
+    private static <K, V> void cacheWritten(CreateOutcome<K> outcome, Map<K, V> written, Cache<K, V> cache) {
+        outcome.created().forEach(key -> cache.put(key, written.get(key)));
+        outcome.existing().forEach(key -> cache.put(key, written.get(key)));
+    }
+
+    /**
+     * Remove o produto do cache (ex.: após remoção ou alteração no banco)
+     */
+    public void invalidateProduct(Integer productId) {
+        productCache.invalidate(productId);
+    }
+    
+    /**
+     * Remove o participante do cache
+     */
+    public void invalidateParticipant(String email) {
+        participantCache.invalidate(email);
+    }
+    
+    /**
+     * Esvazia os caches de produtos e participantes
      */
-    public Object[] createCaches() {
-        return new Object[]{
-            new ConcurrentHashMap<Integer, ProductEntity>(),
-            new ConcurrentHashMap<String, ParticipantEntity>()
-        };
+    public void invalidateAll() {
+        productCache.invalidateAll();
+        participantCache.invalidateAll();
     }
     
     /**
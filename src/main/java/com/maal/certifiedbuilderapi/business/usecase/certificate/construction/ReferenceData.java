@@ -0,0 +1,20 @@
+package com.maal.certifiedbuilderapi.business.usecase.certificate.construction;
+
+import com.maal.certifiedbuilderapi.domain.entity.ParticipantEntity;
+import com.maal.certifiedbuilderapi.domain.entity.ProductEntity;
+
+import java.util.Map;
+
+/**
+ * Produtos e participantes resolvidos para um lote de ordens
+ * Resultado da etapa de resolução de referências do pipeline de ingestão
+ *
+ * @param products Produtos indexados por productId
+ * @param participants Participantes indexados por email
+ */
+public record ReferenceData(Map<Integer, ProductEntity> products, Map<String, ParticipantEntity> participants) {
+
+    public static ReferenceData empty() {
+        return new ReferenceData(Map.of(), Map.of());
+    }
+}
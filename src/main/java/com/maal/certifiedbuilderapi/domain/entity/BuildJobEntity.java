@@ -0,0 +1,60 @@
+package com.maal.certifiedbuilderapi.domain.entity;
+
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Entidade BuildJob para DynamoDB
+ * Estado e progresso de um build-orders executado em segundo plano
+ * Gravada na tabela build_jobs para que qualquer instância responda à consulta de status
+ * Jobs de um produto usam productId; jobs de vários produtos usam productIds e registram
+ * o resultado de cada produto em products (chave: productId)
+ */
+@Data
+@NoArgsConstructor
+@DynamoDbBean
+public class BuildJobEntity {
+
+    // Campos sem anotações - as anotações vão nos getters
+    private String id;
+    private Integer productId;
+    private BuildJobStatus status;
+    
+    // Jobs de vários produtos: produtos solicitados e resultado de cada um já concluído
+    private List<Integer> productIds;
+    private Map<String, BuildJobProductResult> products;
+    
+    // Contadores acumulados durante a execução (atualizados com ADD atômico)
+    private Long processedOrders;
+    private Long newOrders;
+    private Long existingOrders;
+    private Long failedOrders;
+    
+    private String errorMessage;
+    private String createdAt;
+    private String updatedAt;
+    private String completedAt;
+    
+    // Expiração do item (TTL do DynamoDB), em segundos desde a época
+    private Long expiresAt;
+    
+    // === GETTERS COM ANOTAÇÕES DYNAMODB ===
+    
+    /**
+     * Getter para ID - Chave de partição (ID do job)
+     * Gera UUID automaticamente se não estiver definido
+     */
+    @DynamoDbPartitionKey
+    public String getId() {
+        if (id == null) {
+            id = UUID.randomUUID().toString();
+        }
+        return id;
+    }
+}
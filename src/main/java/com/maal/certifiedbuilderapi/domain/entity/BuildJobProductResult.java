@@ -0,0 +1,22 @@
+package com.maal.certifiedbuilderapi.domain.entity;
+
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de um produto em um job de build-orders de vários produtos
+ * Gravado no mapa products do BuildJobEntity, sob o productId, assim que o produto termina
+ * Guarda apenas contadores: as listas de orderIds poderiam exceder o limite de tamanho do item
+ */
+@Data
+@NoArgsConstructor
+@DynamoDbBean
+public class BuildJobProductResult {
+
+    private Integer productId;
+    private Boolean success;
+    private Integer newOrders;
+    private Integer existingOrders;
+    private String errorMessage;
+}
@@ -0,0 +1,11 @@
+package com.maal.certifiedbuilderapi.domain.entity;
+
+/**
+ * Estados de um job assíncrono de build-orders
+ */
+public enum BuildJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -1,7 +1,10 @@
 package com.maal.certifiedbuilderapi.domain.entity;
 
+import com.maal.certifiedbuilderapi.domain.entity.converter.EpochMillisLocalDateTimeConverter;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbConvertedBy;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondaryPartitionKey;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -25,9 +28,9 @@ public class CertificateEntity {
     private Boolean success;
     private String certificateKey;
     private String certificateUrl;
-    private String generatedDate;
+    private LocalDateTime generatedDate;
     private Integer orderId;
-    private String orderDate;
+    private LocalDateTime orderDate;
     private Integer productId;
     private String productName;
     private String certificateDetails;
@@ -53,38 +56,36 @@ public class CertificateEntity {
         }
         return id;
     }
-    
-    // === MÉTODOS UTILITÁRIOS PARA CONVERSÃO DE DATAS ===
-    
+
     /**
-     * Converte o generatedDate (String) para LocalDateTime
-     * Facilita o uso em lógicas que precisam trabalhar com LocalDateTime
+     * Getter para OrderId - Índice secundário para consultas
      */
-    public LocalDateTime getGeneratedDateAsLocalDateTime() {
-        return generatedDate != null ? LocalDateTime.parse(generatedDate) : null;
+    @DynamoDbSecondaryPartitionKey(indexNames = "OrderIdIndex")
+    public Integer getOrderId() {
+        return orderId;
     }
-    
+
     /**
-     * Define o generatedDate a partir de um LocalDateTime
-     * Converte automaticamente para String para compatibilidade com DynamoDB
+     * Getter para ProductId - Índice secundário para consultas
      */
-    public void setGeneratedDateFromLocalDateTime(LocalDateTime dateTime) {
-        this.generatedDate = dateTime != null ? dateTime.toString() : null;
+    @DynamoDbSecondaryPartitionKey(indexNames = "ProductIdIndex")
+    public Integer getProductId() {
+        return productId;
     }
-    
+
     /**
-     * Converte o orderDate (String) para LocalDateTime
-     * Facilita o uso em lógicas que precisam trabalhar com LocalDateTime
+     * Getter para generatedDate - gravado como epoch em milissegundos (ver EpochMillisLocalDateTimeConverter)
      */
-    public LocalDateTime getOrderDateAsLocalDateTime() {
-        return orderDate != null ? LocalDateTime.parse(orderDate) : null;
+    @DynamoDbConvertedBy(EpochMillisLocalDateTimeConverter.class)
+    public LocalDateTime getGeneratedDate() {
+        return generatedDate;
     }
-    
+
     /**
-     * Define o orderDate a partir de um LocalDateTime
-     * Converte automaticamente para String para compatibilidade com DynamoDB
+     * Getter para orderDate - gravado como epoch em milissegundos (ver EpochMillisLocalDateTimeConverter)
      */
-    public void setOrderDateFromLocalDateTime(LocalDateTime dateTime) {
-        this.orderDate = dateTime != null ? dateTime.toString() : null;
+    @DynamoDbConvertedBy(EpochMillisLocalDateTimeConverter.class)
+    public LocalDateTime getOrderDate() {
+        return orderDate;
     }
 }
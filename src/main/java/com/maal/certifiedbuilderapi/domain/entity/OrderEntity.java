@@ -1,6 +1,8 @@
 package com.maal.certifiedbuilderapi.domain.entity;
 
+import com.maal.certifiedbuilderapi.domain.entity.converter.EpochMillisLocalDateTimeConverter;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbConvertedBy;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondaryPartitionKey;
 import lombok.AllArgsConstructor;
@@ -24,7 +26,7 @@ public class OrderEntity {
     // Campos sem anotações - as anotações vão nos getters
     private String id;
     private Integer orderId;
-    private String orderDate;
+    private LocalDateTime orderDate;
     private Integer productId;
     private String productName;
     private String certificateDetails;
@@ -61,22 +63,12 @@ public class OrderEntity {
     public Integer getOrderId() {
         return orderId;
     }
-    
-    // === MÉTODOS UTILITÁRIOS PARA CONVERSÃO DE DATA ===
-    
-    /**
-     * Converte o orderDate (String) para LocalDateTime
-     * Facilita o uso em lógicas que precisam trabalhar com LocalDateTime
-     */
-    public LocalDateTime getOrderDateAsLocalDateTime() {
-        return orderDate != null ? LocalDateTime.parse(orderDate) : null;
-    }
-    
+
     /**
-     * Define o orderDate a partir de um LocalDateTime
-     * Converte automaticamente para String para compatibilidade com DynamoDB
+     * Getter para orderDate - gravado como epoch em milissegundos (ver EpochMillisLocalDateTimeConverter)
      */
-    public void setOrderDateFromLocalDateTime(LocalDateTime dateTime) {
-        this.orderDate = dateTime != null ? dateTime.toString() : null;
+    @DynamoDbConvertedBy(EpochMillisLocalDateTimeConverter.class)
+    public LocalDateTime getOrderDate() {
+        return orderDate;
     }
 }
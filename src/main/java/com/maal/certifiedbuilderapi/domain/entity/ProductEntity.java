@@ -6,6 +6,7 @@ import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecon
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -28,6 +29,12 @@ public class ProductEntity {
     private String checkinLongitude;
     private String timeCheckin;
     
+    // Maior orderId já ingerido (watermark da sincronização incremental de build-orders)
+    private Integer lastIngestedOrderId;
+    
+    // orderIds até o watermark ainda sem check-in, lidos de novo nas próximas sincronizações
+    private List<Integer> pendingCheckinOrderIds;
+    
     // === GETTERS COM ANOTAÇÕES DYNAMODB ===
     
     /**
@@ -0,0 +1,62 @@
+package com.maal.certifiedbuilderapi.domain.entity.converter;
+
+import software.amazon.awssdk.enhanced.dynamodb.AttributeConverter;
+import software.amazon.awssdk.enhanced.dynamodb.AttributeValueType;
+import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Converte LocalDateTime para um atributo numérico do DynamoDB (epoch em milissegundos, UTC)
+ * Datas numéricas dispensam parsing na leitura e permitem filtros/condições por intervalo
+ * (ex.: generatedDate < :limite) no próprio DynamoDB
+ *
+ * Compatibilidade: itens gravados antes da conversão guardam a data como String ISO-8601
+ * (LocalDateTime.toString()); esses valores continuam sendo lidos e passam a ser gravados
+ * como número na próxima escrita do item. Filtros numéricos não encontram itens ainda no
+ * formato antigo
+ */
+public class EpochMillisLocalDateTimeConverter implements AttributeConverter<LocalDateTime> {
+
+    @Override
+    public AttributeValue transformFrom(LocalDateTime input) {
+        if (input == null) {
+            return AttributeValue.builder().nul(true).build();
+        }
+        return toAttributeValue(input);
+    }
+
+    @Override
+    public LocalDateTime transformTo(AttributeValue input) {
+        if (input.n() != null) {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(input.n())), ZoneOffset.UTC);
+        }
+        if (input.s() != null && !input.s().isBlank()) {
+            // Formato legado: String ISO-8601
+            return LocalDateTime.parse(input.s());
+        }
+        return null;
+    }
+
+    @Override
+    public EnhancedType<LocalDateTime> type() {
+        return EnhancedType.of(LocalDateTime.class);
+    }
+
+    @Override
+    public AttributeValueType attributeValueType() {
+        return AttributeValueType.N;
+    }
+
+    /**
+     * Valor numérico de uma data, para uso em expressões de filtro e condição
+     */
+    public static AttributeValue toAttributeValue(LocalDateTime dateTime) {
+        return AttributeValue.builder()
+                .n(Long.toString(dateTime.toInstant(ZoneOffset.UTC).toEpochMilli()))
+                .build();
+    }
+}
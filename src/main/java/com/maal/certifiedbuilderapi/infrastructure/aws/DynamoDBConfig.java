@@ -1,24 +1,42 @@
 package com.maal.certifiedbuilderapi.infrastructure.aws;
 
 import com.maal.certifiedbuilderapi.domain.entity.*;
+import com.maal.certifiedbuilderapi.infrastructure.aws.throttling.DynamoDbRateLimiters;
+import com.maal.certifiedbuilderapi.infrastructure.aws.throttling.DynamoDbThrottlingInterceptor;
+import com.maal.certifiedbuilderapi.infrastructure.aws.throttling.RateLimitedDynamoDbAsyncClient;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.retry.RetryMode;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.core.retry.conditions.RetryCondition;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 
 import java.net.URI;
+import java.time.Duration;
 
 /**
  * Configuração DynamoDB para AWS SDK v2.x
  * Usa Enhanced DynamoDB Client para melhor experiência de desenvolvimento
  * Reutiliza beans centralizados do AwsConfig (credenciais, região)
+ * Expõe também o cliente assíncrono (Netty) e as tabelas assíncronas usadas pelos repositórios async
+ *
+ * Com amazon.dynamodb.rate-limit.enabled=true os dois clientes compartilham limitadores adaptativos
+ * (AIMD) por tabela e tipo de capacidade, ajustados pelas limitações recebidas do DynamoDB
+ * (ver DynamoDbRateLimiters); o assíncrono agenda o envio sem bloquear (RateLimitedDynamoDbAsyncClient)
  */
 @Profile("!test")
 @Configuration
@@ -27,6 +45,15 @@ public class DynamoDBConfig {
     @Value("${amazon.dynamodb.endpoint:}")
     private String dynamodbEndpoint;
 
+    @Value("${amazon.dynamodb.async.max-concurrency:100}")
+    private int asyncMaxConcurrency;
+
+    @Value("${amazon.dynamodb.rate-limit.enabled:true}")
+    private boolean rateLimitEnabled;
+
+    // Retentativas do SDK (mesmo padrão do cliente DynamoDB)
+    private static final int MAX_RETRIES = 8;
+
     @Autowired
     private StaticCredentialsProvider awsCredentialsProvider;
     
@@ -38,11 +65,18 @@ public class DynamoDBConfig {
      * Usa beans centralizados do AwsConfig para credenciais e região
      */
     @Bean
-    public DynamoDbClient dynamoDbClient() {
+    public DynamoDbClient dynamoDbClient(DynamoDbRateLimiters dynamoDbRateLimiters) {
         var builder = DynamoDbClient.builder()
             .credentialsProvider(awsCredentialsProvider)
             .region(awsRegion);
 
+        if (rateLimitEnabled) {
+            builder.overrideConfiguration(ClientOverrideConfiguration.builder()
+                .addExecutionInterceptor(new DynamoDbThrottlingInterceptor(dynamoDbRateLimiters, true))
+                .retryPolicy(retryPolicy(dynamoDbRateLimiters))
+                .build());
+        }
+
         // Configurar endpoint local se estiver definido (desenvolvimento)
         if (!dynamodbEndpoint.isEmpty()) {
             builder.endpointOverride(URI.create(dynamodbEndpoint));
@@ -51,6 +85,30 @@ public class DynamoDBConfig {
         return builder.build();
     }
 
+    /**
+     * Limitadores adaptativos de leitura/escrita por tabela, compartilhados pelos clientes síncrono e assíncrono
+     */
+    @Bean
+    public DynamoDbRateLimiters dynamoDbRateLimiters(
+            MeterRegistry meterRegistry,
+            @Value("${amazon.dynamodb.rate-limit.initial-rate:5}") double initialRate,
+            @Value("${amazon.dynamodb.rate-limit.min-rate:1}") double minRate,
+            @Value("${amazon.dynamodb.rate-limit.max-rate:1000}") double maxRate,
+            @Value("${amazon.dynamodb.rate-limit.increase-per-second:1}") double increasePerSecond,
+            @Value("${amazon.dynamodb.rate-limit.decrease-factor:0.5}") double decreaseFactor) {
+        return new DynamoDbRateLimiters(meterRegistry, initialRate, minRate, maxRate, increasePerSecond, decreaseFactor);
+    }
+
+    /**
+     * Política de retentativa padrão cuja condição também informa as limitações aos limitadores
+     */
+    private RetryPolicy retryPolicy(DynamoDbRateLimiters dynamoDbRateLimiters) {
+        return RetryPolicy.builder(RetryMode.STANDARD)
+            .numRetries(MAX_RETRIES)
+            .retryCondition(dynamoDbRateLimiters.retryCondition(RetryCondition.defaultRetryCondition()))
+            .build();
+    }
+
     /**
      * Enhanced DynamoDB Client para operações de alto nível
      */
@@ -92,4 +150,90 @@ public class DynamoDBConfig {
     public DynamoDbTable<ProductEntity> productTable(DynamoDbEnhancedClient enhancedClient) {
         return enhancedClient.table("products", TableSchema.fromBean(ProductEntity.class));
     }
-} 
\ No newline at end of file
+
+    /**
+     * Tabela BuildJob (jobs assíncronos de build-orders) com schema mapeado
+     */
+    @Bean
+    public DynamoDbTable<BuildJobEntity> buildJobTable(DynamoDbEnhancedClient enhancedClient) {
+        return enhancedClient.table("build_jobs", TableSchema.fromBean(BuildJobEntity.class));
+    }
+
+    /**
+     * Cliente DynamoDB assíncrono sobre Netty
+     * Requisições não bloqueiam threads da aplicação enquanto aguardam a rede
+     */
+    @Bean
+    public DynamoDbAsyncClient dynamoDbAsyncClient(DynamoDbRateLimiters dynamoDbRateLimiters) {
+        NettyNioAsyncHttpClient.Builder httpClientBuilder = NettyNioAsyncHttpClient.builder()
+            .connectionTimeout(Duration.ofSeconds(10))
+            .connectionAcquisitionTimeout(Duration.ofSeconds(30))
+            .maxConcurrency(asyncMaxConcurrency)              // Conexões simultâneas com o DynamoDB
+            .maxPendingConnectionAcquires(10_000);
+
+        var overrideConfiguration = ClientOverrideConfiguration.builder()
+            .apiCallTimeout(Duration.ofMinutes(1))
+            .apiCallAttemptTimeout(Duration.ofSeconds(10));
+        if (rateLimitEnabled) {
+            overrideConfiguration
+                .addExecutionInterceptor(new DynamoDbThrottlingInterceptor(dynamoDbRateLimiters, false))
+                .retryPolicy(retryPolicy(dynamoDbRateLimiters));
+        }
+
+        var builder = DynamoDbAsyncClient.builder()
+            .credentialsProvider(awsCredentialsProvider)
+            .region(awsRegion)
+            .httpClient(httpClientBuilder.build())
+            .overrideConfiguration(overrideConfiguration.build());
+
+        // Configurar endpoint local se estiver definido (desenvolvimento)
+        if (!dynamodbEndpoint.isEmpty()) {
+            builder.endpointOverride(URI.create(dynamodbEndpoint));
+        }
+
+        DynamoDbAsyncClient client = builder.build();
+        return rateLimitEnabled ? new RateLimitedDynamoDbAsyncClient(client, dynamoDbRateLimiters) : client;
+    }
+
+    /**
+     * Enhanced DynamoDB Client assíncrono
+     */
+    @Bean
+    public DynamoDbEnhancedAsyncClient dynamoDbEnhancedAsyncClient(DynamoDbAsyncClient dynamoDbAsyncClient) {
+        return DynamoDbEnhancedAsyncClient.builder()
+            .dynamoDbClient(dynamoDbAsyncClient)
+            .build();
+    }
+
+    /**
+     * Tabela Certificate assíncrona
+     */
+    @Bean
+    public DynamoDbAsyncTable<CertificateEntity> certificateAsyncTable(DynamoDbEnhancedAsyncClient enhancedAsyncClient) {
+        return enhancedAsyncClient.table("certificates", TableSchema.fromBean(CertificateEntity.class));
+    }
+
+    /**
+     * Tabela Order assíncrona
+     */
+    @Bean
+    public DynamoDbAsyncTable<OrderEntity> orderAsyncTable(DynamoDbEnhancedAsyncClient enhancedAsyncClient) {
+        return enhancedAsyncClient.table("orders", TableSchema.fromBean(OrderEntity.class));
+    }
+
+    /**
+     * Tabela Participant assíncrona
+     */
+    @Bean
+    public DynamoDbAsyncTable<ParticipantEntity> participantAsyncTable(DynamoDbEnhancedAsyncClient enhancedAsyncClient) {
+        return enhancedAsyncClient.table("participants", TableSchema.fromBean(ParticipantEntity.class));
+    }
+
+    /**
+     * Tabela Product assíncrona
+     */
+    @Bean
+    public DynamoDbAsyncTable<ProductEntity> productAsyncTable(DynamoDbEnhancedAsyncClient enhancedAsyncClient) {
+        return enhancedAsyncClient.table("products", TableSchema.fromBean(ProductEntity.class));
+    }
+}
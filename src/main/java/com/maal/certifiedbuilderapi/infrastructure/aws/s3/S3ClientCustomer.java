@@ -6,12 +6,14 @@ import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import io.awspring.cloud.s3.S3Template;
+import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
 import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
 import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
@@ -70,6 +72,23 @@ public class S3ClientCustomer {
         }
     }
 
+    /**
+     * Grava um objeto no bucket
+     * Diferente das demais operações, propaga a falha: quem chama depende do objeto gravado
+     * @param key Chave do objeto no S3
+     * @param content Conteúdo do objeto
+     * @param contentType Content-Type do objeto
+     */
+    public void putObject(String key, byte[] content, String contentType) {
+        s3Client.putObject(PutObjectRequest.builder()
+                        .bucket(s3Properties.getBucketName())
+                        .key(key)
+                        .contentType(contentType)
+                        .build(),
+                RequestBody.fromBytes(content));
+        logger.info("Successfully uploaded key {}", key);
+    }
+
     public void deleteCertificate(String key) {
         try {
             s3Template.deleteObject(s3Properties.getBucketName(), key);
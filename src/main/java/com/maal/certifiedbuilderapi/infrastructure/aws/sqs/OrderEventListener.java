@@ -2,90 +2,195 @@ package com.maal.certifiedbuilderapi.infrastructure.aws.sqs;
 
 import com.maal.certifiedbuilderapi.domain.event.OrderEvent;
 import com.maal.certifiedbuilderapi.business.usecase.certificate.ProcessOrderEvent;
-import com.maal.certifiedbuilderapi.infrastructure.client.response.TechOrdersResponse;
+import com.maal.certifiedbuilderapi.infrastructure.concurrency.FairRoundRobinExecutor;
+import com.maal.certifiedbuilderapi.infrastructure.concurrency.RetryBudget;
 import io.awspring.cloud.sqs.annotation.SqsListener;
-import lombok.RequiredArgsConstructor;
+import io.awspring.cloud.sqs.listener.SqsHeaders;
+import io.awspring.cloud.sqs.listener.acknowledgement.BatchAcknowledgement;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
 import org.springframework.stereotype.Component;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.core.type.TypeReference;
 import org.springframework.context.annotation.Profile;
-import org.springframework.scheduling.annotation.Async;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
 
-import java.lang.annotation.Retention;
-import java.lang.annotation.RetentionPolicy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Listener for order events from SQS queue.
  * Processes order events and manages certificate generation.
  * @Profile("!test") garante que o listener não seja carregado em testes
  * Configurado com resiliência e timeouts otimizados através do SqsConfig.java
+ *
+ * Recebe cada poll inteiro como um lote e separa as mensagens por grupo (MessageGroupId; filas
+ * standard usam um único grupo). Cada grupo é processado no orderEventExecutor, que limita a
+ * concorrência global e por grupo (certified.executor.order-events.*), e o listener só retorna
+ * depois que todos os grupos terminam. Cada mensagem é confirmada individualmente após a conclusão:
+ * mensagens com algum evento que falhou não são confirmadas e voltam à fila após o visibility
+ * timeout; mensagens com corpo inválido são descartadas (confirmadas) com log de erro.
+ *
+ * Pedidos com falha são retentados aqui até certified.events.retry.max-attempts vezes, cada
+ * retentativa consumindo crédito do orderEventRetryBudget; sem crédito, o pedido fica para a
+ * próxima entrega da fila em vez de multiplicar tentativas durante uma falha generalizada
  */
 @Component
-@RequiredArgsConstructor
 @Profile("!test")
 public class OrderEventListener {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderEventListener.class);
-    
+
+    // Grupo das mensagens sem MessageGroupId (fila standard)
+    private static final String DEFAULT_GROUP = "default";
+
     private final ProcessOrderEvent processOrderEvent;
     private final ObjectMapper objectMapper;
+    private final FairRoundRobinExecutor orderEventExecutor;
+    private final RetryBudget orderEventRetryBudget;
+    private final int maxAttempts;
+    private final long backoffMs;
+
+    public OrderEventListener(ProcessOrderEvent processOrderEvent,
+                              ObjectMapper objectMapper,
+                              FairRoundRobinExecutor orderEventExecutor,
+                              RetryBudget orderEventRetryBudget,
+                              @Value("${certified.events.retry.max-attempts:3}") int maxAttempts,
+                              @Value("${certified.events.retry.backoff-ms:200}") long backoffMs) {
+        this.processOrderEvent = processOrderEvent;
+        this.objectMapper = objectMapper;
+        this.orderEventExecutor = orderEventExecutor;
+        this.orderEventRetryBudget = orderEventRetryBudget;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMs = Math.max(0, backoffMs);
+    }
 
     /**
-     * Listens for order events from the SQS queue and processes them.
+     * Listens for a batch of messages from the SQS queue and processes their events by message group.
      * Configurações de resiliência são definidas centralmente no SqsConfig.java
      *
-     * @param messageBody The message body containing the array of order events
+     * @param messages Messages of one poll, each containing an array of order events
+     * @param acknowledgement Acknowledges the messages whose events were all processed
      */
     @SqsListener(value = "${spring.cloud.aws.queue.name.notification.generation}")
-    @Async
-    @Retryable(
-            value = {Exception.class},      // Retry para qualquer exceção
-            maxAttempts = 3,                // Máximo 3 tentativas
-            backoff = @Backoff(delay = 2000, multiplier = 2) // Backoff exponencial: 2s, 4s, 8s
-    )
-    public void receiveOrderEvent(String messageBody) {
-        try {
-            logger.info("Recebida mensagem do SQS: {}", messageBody);
-            
-            // Convert the message body to a list of OrderEvent objects
-            List<OrderEvent> ordersEvent = objectMapper.readValue(
-                messageBody,
-                new TypeReference<List<OrderEvent>>() {}
-            );
-            
-            logger.info("Processando {} eventos de ordem do SQS", ordersEvent.size());
-            
-            // Processa cada evento com tratamento individual de erros
-            for (OrderEvent orderEvent : ordersEvent) {
-                processIndividualOrderEvent(orderEvent);
+    public void receiveOrderEvents(List<Message<String>> messages, BatchAcknowledgement<String> acknowledgement) {
+        logger.info("Recebidas {} mensagens do SQS", messages.size());
+
+        Map<Message<String>, List<OrderEvent>> eventsByMessage = new LinkedHashMap<>();
+        Map<Object, List<OrderEvent>> eventsByGroup = new LinkedHashMap<>();
+        List<Message<String>> toAcknowledge = new ArrayList<>();
+        for (Message<String> message : messages) {
+            try {
+                List<OrderEvent> events = objectMapper.readValue(message.getPayload(), new TypeReference<List<OrderEvent>>() {});
+                eventsByMessage.put(message, events);
+                eventsByGroup.computeIfAbsent(groupOf(message), group -> new ArrayList<>()).addAll(events);
+            } catch (IOException e) {
+                // Corpo inválido não será processado em nova tentativa
+                logger.error("Mensagem {} descartada, corpo inválido: {}", message.getHeaders().getId(), e.getMessage());
+                toAcknowledge.add(message);
             }
-            
-            logger.info("Todos os eventos de ordem processados com sucesso");
-        } catch (Exception e) {
-            logger.error("Erro ao processar lote de ordens: {}", e.getMessage(), e);
-            // Re-throw para permitir retry automático
-            throw new RuntimeException("Falha no processamento do lote de ordens", e);
         }
+
+        Set<Integer> failedOrders = processGroups(eventsByGroup);
+
+        eventsByMessage.forEach((message, events) -> {
+            if (events.stream().noneMatch(event -> failedOrders.contains(event.getOrderId()))) {
+                toAcknowledge.add(message);
+            }
+        });
+
+        if (!toAcknowledge.isEmpty()) {
+            acknowledgement.acknowledge(toAcknowledge);
+        }
+        logger.info("{} de {} mensagens confirmadas", toAcknowledge.size(), messages.size());
+    }
+
+    /**
+     * Submete os eventos de cada grupo ao orderEventExecutor e aguarda todos terminarem
+     *
+     * @return IDs dos pedidos cujo processamento falhou
+     */
+    private Set<Integer> processGroups(Map<Object, List<OrderEvent>> eventsByGroup) {
+        Map<Object, CompletableFuture<Set<Integer>>> futures = new LinkedHashMap<>();
+        eventsByGroup.forEach((group, events) ->
+                futures.put(group, orderEventExecutor.submit(group, () -> processWithRetries(group, events))));
+
+        Set<Integer> failedOrders = new HashSet<>();
+        futures.forEach((group, future) -> {
+            try {
+                failedOrders.addAll(future.join());
+            } catch (Exception e) {
+                logger.error("Erro ao processar eventos do grupo {}: {}", group, e.getMessage(), e);
+                eventsByGroup.get(group).forEach(event -> failedOrders.add(event.getOrderId()));
+            }
+        });
+        return failedOrders;
+    }
+
+    /**
+     * Processa os eventos de um grupo, retentando os pedidos com falha enquanto houver
+     * tentativas e crédito no orçamento de retentativas
+     *
+     * @return IDs dos pedidos que continuaram com falha
+     */
+    private Set<Integer> processWithRetries(Object group, List<OrderEvent> events) throws InterruptedException {
+        orderEventRetryBudget.recordAttempt();
+        List<OrderEvent> pending = events;
+        Set<Integer> failedOrders = processEvents(pending);
+
+        for (int attempt = 2; attempt <= maxAttempts && !failedOrders.isEmpty(); attempt++) {
+            if (!orderEventRetryBudget.tryAcquireRetry()) {
+                logger.warn("Orçamento de retentativas esgotado; {} pedidos do grupo {} voltam à fila",
+                        failedOrders.size(), group);
+                break;
+            }
+            Thread.sleep(backoff(attempt));
+            Set<Integer> retrying = failedOrders;
+            pending = pending.stream().filter(event -> retrying.contains(event.getOrderId())).toList();
+            logger.info("Tentativa {} de {} para {} pedidos do grupo {}", attempt, maxAttempts, retrying.size(), group);
+            failedOrders = processEvents(pending);
+        }
+        return failedOrders;
     }
 
     /**
-     * Processa um evento individual com tratamento de erro isolado
-     * @param orderEvent Evento a ser processado
+     * Processa os eventos em uma única chamada
+     * Uma falha geral marca todos os pedidos do lote como não processados
+     *
+     * @return IDs dos pedidos cujo processamento falhou
      */
-    private void processIndividualOrderEvent(OrderEvent orderEvent) {
+    private Set<Integer> processEvents(List<OrderEvent> events) {
+        if (events.isEmpty()) {
+            return Set.of();
+        }
+
+        logger.info("Processando {} eventos de ordem do SQS", events.size());
         try {
-            logger.info("Processando evento de ordem: {}", orderEvent);
-            processOrderEvent.execute(orderEvent);
-            logger.info("Evento de ordem processado com sucesso para orderId: {}", orderEvent.getOrderId());
+            return processOrderEvent.executeAll(events);
         } catch (Exception e) {
-            logger.error("Erro ao processar evento individual para orderId {}: {}", 
-                orderEvent.getOrderId(), e.getMessage(), e);
-            // Não re-throw aqui para continuar processando outros eventos do lote
+            logger.error("Erro ao processar lote de ordens: {}", e.getMessage(), e);
+            return new HashSet<>(events.stream().map(OrderEvent::getOrderId).toList());
         }
     }
+
+    /**
+     * Espera exponencial com jitter antes da tentativa
+     */
+    private long backoff(int attempt) {
+        long ceiling = backoffMs << Math.min(attempt - 2, 10);
+        return ceiling == 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+    }
+
+    private static Object groupOf(Message<String> message) {
+        Object group = message.getHeaders().get(SqsHeaders.MessageSystemAttributes.SQS_MESSAGE_GROUP_ID_HEADER);
+        return group != null ? group : DEFAULT_GROUP;
+    }
 }
@@ -1,56 +1,326 @@
 package com.maal.certifiedbuilderapi.infrastructure.aws.sqs;
 
+import com.maal.certifiedbuilderapi.infrastructure.aws.sqs.OrderPayloadCodec.Payload;
 import com.maal.certifiedbuilderapi.infrastructure.client.response.TechOrdersResponse;
-import io.awspring.cloud.sqs.operations.SqsTemplate;
-import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service responsible for publishing order events to SQS queue.
  * @Profile("!test") garante que o publisher não seja carregado em testes
+ *
+ * As ordens são agrupadas em mensagens (arrays JSON, mesmo formato consumido pela fila builder)
+ * de até certified.events.publish.max-message-bytes, e as mensagens em lotes SendMessageBatch
+ * de até 10 entradas e 256 KB no total. Os lotes são enviados concorrentemente; entradas que
+ * falham são reenviadas individualmente, com backoff, até certified.events.publish.max-attempts.
+ * Cada mensagem mantém o mesmo deduplication id entre as tentativas, então um reenvio de
+ * entrada já aceita é descartado pela fila FIFO
+ *
+ * As ordens são ordenadas por produto e order_id antes do agrupamento e cada mensagem contém
+ * ordens de um único produto. Os ids da mensagem são derivados do conteúdo:
+ * - deduplication id: SHA-256 de "{productId}:{orderIds ordenados}", de modo que um build
+ *   repetido dentro da janela de deduplicação (5 minutos) não gera mensagens duplicadas
+ * - group id: product-{productId}, ou product-{productId}-{shard} quando
+ *   certified.events.publish.group-shards > 1; produtos diferentes são consumidos em paralelo
+ *
+ * O corpo é montado pelo OrderPayloadCodec (json, gzip ou claim-check no S3) e o formato
+ * segue no atributo de mensagem contentType
  */
 @Service
-@RequiredArgsConstructor
 @Profile("!test")
 public class OrderEventPublisher {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderEventPublisher.class);
 
-    private final SqsTemplate sqsTemplate;
+    // Limites do SendMessageBatch
+    static final int MAX_BATCH_ENTRIES = 10;
+    static final int MAX_BATCH_BYTES = 262_144;
+
+    private static final long BASE_BACKOFF_MILLIS = 200;
+
+    // Ordem determinística das ordens: mesmas ordens geram as mesmas mensagens e ids
+    private static final Comparator<TechOrdersResponse> ORDER_SEQUENCE = Comparator
+            .comparing(TechOrdersResponse::getProductId, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(TechOrdersResponse::getOrderId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final SqsAsyncClient sqsAsyncClient;
     private final EventQueuesProperties eventQueuesProperties;
+    private final OrderPayloadCodec payloadCodec;
+    private final int maxMessageBytes;
+    private final int maxAttempts;
+    private final int groupShards;
+
+    private volatile String queueUrl;
+
+    public OrderEventPublisher(SqsAsyncClient sqsAsyncClient,
+                               EventQueuesProperties eventQueuesProperties,
+                               OrderPayloadCodec payloadCodec,
+                               @Value("${certified.events.publish.max-message-bytes:240000}") int maxMessageBytes,
+                               @Value("${certified.events.publish.max-attempts:3}") int maxAttempts,
+                               @Value("${certified.events.publish.group-shards:1}") int groupShards) {
+        this.sqsAsyncClient = sqsAsyncClient;
+        this.eventQueuesProperties = eventQueuesProperties;
+        this.payloadCodec = payloadCodec;
+        this.maxMessageBytes = Math.min(maxMessageBytes, MAX_BATCH_BYTES);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.groupShards = Math.max(1, groupShards);
+    }
 
     /**
      * Publishes a list of order events to the SQS queue.
      *
      * @param orders The list of orders to publish
-     * @throws RuntimeException if there's an error publishing the events
+     * @throws RuntimeException if some messages could not be published after all attempts
      */
     public void publishOrderCreatedEvent(List<TechOrdersResponse> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+
+        String queueName = eventQueuesProperties.getBuilderQueueName();
+        List<OutgoingMessage> messages = packMessages(orders);
+        logger.info("Publishing {} orders to queue {} in {} messages", orders.size(), queueName, messages.size());
+
+        List<OutgoingMessage> failed = sendWithRetries(resolveQueueUrl(), messages);
+        if (!failed.isEmpty()) {
+            int failedOrders = failed.stream().mapToInt(OutgoingMessage::orderCount).sum();
+            logger.error("{} of {} messages ({} orders) could not be published to queue {}",
+                    failed.size(), messages.size(), failedOrders, queueName);
+            throw new RuntimeException("Failed to publish " + failedOrders + " orders to queue " + queueName);
+        }
+
+        logger.info("Successfully published {} orders to queue {} in {} messages", orders.size(), queueName, messages.size());
+    }
+
+    /**
+     * Agrupa as ordens em mensagens de até maxMessageBytes, um produto por mensagem
+     * As ordens são ordenadas (ORDER_SEQUENCE) e agrupadas pelo tamanho serializado (orderBudget do codec) e cada grupo é
+     * codificado; grupos cujo corpo final excede o limite são divididos ao meio.
+     * Uma ordem maior que o limite é enviada sozinha (e rejeitada pela fila se exceder 256 KB)
+     */
+    List<OutgoingMessage> packMessages(List<TechOrdersResponse> orders) {
+        int budget = payloadCodec.orderBudget(maxMessageBytes) - 2; // colchetes do array
+        List<OutgoingMessage> messages = new ArrayList<>();
+        List<TechOrdersResponse> currentOrders = new ArrayList<>();
+        List<String> currentJsons = new ArrayList<>();
+        int currentBytes = 0;
+
+        for (TechOrdersResponse order : orders.stream().sorted(ORDER_SEQUENCE).toList()) {
+            String json = payloadCodec.orderJson(order);
+            int orderBytes = json.getBytes(StandardCharsets.UTF_8).length;
+            int separatorBytes = currentJsons.isEmpty() ? 0 : 1;
+            boolean otherProduct = !currentOrders.isEmpty()
+                    && !Objects.equals(currentOrders.get(0).getProductId(), order.getProductId());
+
+            if (!currentJsons.isEmpty() && (otherProduct || currentBytes + separatorBytes + orderBytes > budget)) {
+                encodeFitting(currentOrders, currentJsons, messages);
+                currentOrders = new ArrayList<>();
+                currentJsons = new ArrayList<>();
+                currentBytes = 0;
+                separatorBytes = 0;
+            }
+            currentOrders.add(order);
+            currentJsons.add(json);
+            currentBytes += separatorBytes + orderBytes;
+        }
+        if (!currentJsons.isEmpty()) {
+            encodeFitting(currentOrders, currentJsons, messages);
+        }
+        return messages;
+    }
+
+    /**
+     * Codifica o grupo, dividindo-o ao meio enquanto o corpo exceder maxMessageBytes
+     */
+    private void encodeFitting(List<TechOrdersResponse> orders, List<String> orderJsons, List<OutgoingMessage> messages) {
+        OutgoingMessage message = OutgoingMessage.of(payloadCodec.encode(orders, orderJsons), orders, groupShards);
+        if (message.bytes() <= maxMessageBytes || orders.size() == 1) {
+            messages.add(message);
+            return;
+        }
+        int middle = orders.size() / 2;
+        encodeFitting(orders.subList(0, middle), orderJsons.subList(0, middle), messages);
+        encodeFitting(orders.subList(middle, orders.size()), orderJsons.subList(middle, orderJsons.size()), messages);
+    }
+
+    /**
+     * Agrupa as mensagens em lotes de até 10 entradas e 256 KB
+     */
+    static List<List<OutgoingMessage>> packBatches(List<OutgoingMessage> messages) {
+        List<List<OutgoingMessage>> batches = new ArrayList<>();
+        List<OutgoingMessage> current = new ArrayList<>();
+        int currentBytes = 0;
+
+        for (OutgoingMessage message : messages) {
+            if (!current.isEmpty() && (current.size() == MAX_BATCH_ENTRIES || currentBytes + message.bytes() > MAX_BATCH_BYTES)) {
+                batches.add(current);
+                current = new ArrayList<>();
+                currentBytes = 0;
+            }
+            current.add(message);
+            currentBytes += message.bytes();
+        }
+        if (!current.isEmpty()) {
+            batches.add(current);
+        }
+        return batches;
+    }
+
+    /**
+     * Envia os lotes concorrentemente e reenvia as entradas com falha
+     *
+     * @return Mensagens não publicadas após todas as tentativas
+     */
+    private List<OutgoingMessage> sendWithRetries(String url, List<OutgoingMessage> messages) {
+        List<OutgoingMessage> pending = messages;
+        List<OutgoingMessage> rejected = new ArrayList<>();
+
+        for (int attempt = 1; ; attempt++) {
+            List<CompletableFuture<BatchOutcome>> sends = packBatches(pending).stream()
+                    .map(batch -> sendBatch(url, batch))
+                    .toList();
+
+            List<OutgoingMessage> retryable = new ArrayList<>();
+            for (CompletableFuture<BatchOutcome> send : sends) {
+                BatchOutcome outcome = send.join();
+                retryable.addAll(outcome.retryable());
+                rejected.addAll(outcome.rejected());
+            }
+
+            if (retryable.isEmpty()) {
+                return rejected;
+            }
+            if (attempt >= maxAttempts) {
+                rejected.addAll(retryable);
+                return rejected;
+            }
+
+            logger.warn("{} messages failed to publish, retrying ({}/{})", retryable.size(), attempt + 1, maxAttempts);
+            sleepWithJitter(attempt);
+            pending = retryable;
+        }
+    }
+
+    /**
+     * Envia um lote com SendMessageBatch
+     * Falhas do lote inteiro tornam todas as entradas elegíveis a nova tentativa;
+     * falhas de entrada causadas pelo remetente (ex.: mensagem grande demais) não são reenviadas
+     */
+    private CompletableFuture<BatchOutcome> sendBatch(String url, List<OutgoingMessage> batch) {
+        Map<String, OutgoingMessage> byEntryId = new LinkedHashMap<>();
+        List<SendMessageBatchRequestEntry> entries = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            OutgoingMessage message = batch.get(i);
+            String entryId = Integer.toString(i);
+            byEntryId.put(entryId, message);
+            entries.add(SendMessageBatchRequestEntry.builder()
+                    .id(entryId)
+                    .messageBody(message.body())
+                    .messageGroupId(message.groupId())
+                    .messageDeduplicationId(message.deduplicationId())
+                    .messageAttributes(Map.of(OrderPayloadCodec.CONTENT_TYPE_ATTRIBUTE, MessageAttributeValue.builder()
+                            .dataType("String")
+                            .stringValue(message.contentType())
+                            .build()))
+                    .build());
+        }
+
+        return sqsAsyncClient.sendMessageBatch(request -> request.queueUrl(url).entries(entries))
+                .thenApply(response -> outcome(response, byEntryId))
+                .exceptionally(e -> {
+                    logger.warn("SendMessageBatch with {} entries failed: {}", batch.size(), e.getMessage());
+                    return new BatchOutcome(batch, List.of());
+                });
+    }
+
+    private static BatchOutcome outcome(SendMessageBatchResponse response, Map<String, OutgoingMessage> byEntryId) {
+        if (!response.hasFailed() || response.failed().isEmpty()) {
+            return new BatchOutcome(List.of(), List.of());
+        }
+
+        Map<Boolean, List<BatchResultErrorEntry>> bySenderFault = response.failed().stream()
+                .collect(Collectors.partitioningBy(error -> Boolean.TRUE.equals(error.senderFault())));
+        bySenderFault.get(true).forEach(error ->
+                logger.error("Message {} rejected by SQS: {} - {}", error.id(), error.code(), error.message()));
+
+        Function<List<BatchResultErrorEntry>, List<OutgoingMessage>> messagesOf = errors -> errors.stream()
+                .map(error -> byEntryId.get(error.id()))
+                .toList();
+        return new BatchOutcome(messagesOf.apply(bySenderFault.get(false)), messagesOf.apply(bySenderFault.get(true)));
+    }
+
+    private String resolveQueueUrl() {
+        String url = queueUrl;
+        if (url == null) {
+            url = sqsAsyncClient.getQueueUrl(request -> request.queueName(eventQueuesProperties.getBuilderQueueName()))
+                    .join()
+                    .queueUrl();
+            queueUrl = url;
+        }
+        return url;
+    }
+
+    /**
+     * Backoff exponencial com jitter completo
+     */
+    private void sleepWithJitter(int attempt) {
+        long ceiling = BASE_BACKOFF_MILLIS << Math.min(attempt, 10);
         try {
-            logger.info("Publishing {} orders to queue: {} ", orders.size(), eventQueuesProperties.getBuilderQueueName());
-            
-            String messageGroupId = UUID.randomUUID().toString();
-            String deduplicationId = UUID.randomUUID().toString();
-
-            UUID messageId = sqsTemplate.send(
-                to -> to.queue(eventQueuesProperties.getBuilderQueueName())
-                        .payload(orders)
-                        .messageGroupId(messageGroupId)
-                        .messageDeduplicationId(deduplicationId)
-
-            ).messageId();
-            
-            logger.info("Successfully published batch of {} orders to queue with message id {} and group id {}", 
-                orders.size(), messageId, messageGroupId);
-        } catch (Exception e) {
-            logger.error("Error publishing orders to queue: {}", eventQueuesProperties.getBuilderQueueName(), e);
-            throw new RuntimeException("Failed to publish orders to queue", e);
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Order event publishing interrupted", e);
         }
     }
+
+    /**
+     * Mensagem pronta para envio; ids derivados do produto e das ordens (já ordenadas)
+     * e reutilizados nas novas tentativas
+     */
+    record OutgoingMessage(String body, String contentType, int bytes, int orderCount,
+                           String groupId, String deduplicationId) {
+
+        static OutgoingMessage of(Payload payload, List<TechOrdersResponse> orders, int groupShards) {
+            // Atributos também contam para o limite de 256 KB
+            int bytes = payload.body().getBytes(StandardCharsets.UTF_8).length
+                    + OrderPayloadCodec.CONTENT_TYPE_ATTRIBUTE.length() + payload.contentType().length() + "String".length();
+
+            Integer productId = orders.get(0).getProductId();
+            String orderIds = orders.stream()
+                    .map(order -> String.valueOf(order.getOrderId()))
+                    .collect(Collectors.joining(","));
+            String deduplicationId = OrderPayloadCodec.sha256((productId + ":" + orderIds).getBytes(StandardCharsets.UTF_8));
+            String groupId = "product-" + productId;
+            if (groupShards > 1) {
+                groupId += "-" + Math.floorMod(deduplicationId.hashCode(), groupShards);
+            }
+            return new OutgoingMessage(payload.body(), payload.contentType(), bytes, orders.size(), groupId, deduplicationId);
+        }
+    }
+
+    /**
+     * Resultado de um lote: entradas a reenviar e entradas rejeitadas definitivamente
+     */
+    private record BatchOutcome(List<OutgoingMessage> retryable, List<OutgoingMessage> rejected) {
+    }
 }
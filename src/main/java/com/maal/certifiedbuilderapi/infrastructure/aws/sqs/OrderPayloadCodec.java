@@ -0,0 +1,206 @@
+package com.maal.certifiedbuilderapi.infrastructure.aws.sqs;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.maal.certifiedbuilderapi.infrastructure.aws.s3.S3ClientCustomer;
+import com.maal.certifiedbuilderapi.infrastructure.aws.s3.S3Properties;
+import com.maal.certifiedbuilderapi.infrastructure.client.response.TechOrdersResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Codificação do corpo das mensagens da fila builder (certified.events.publish.encoding)
+ * O formato é informado no atributo de mensagem contentType:
+ *
+ * - json (application/json): array JSON de ordens, formato original
+ * - gzip (application/json+gzip;base64): o mesmo array comprimido com gzip e codificado em Base64
+ * - claim-check (application/vnd.certified.orders+json;product-ref=s3): os dados de produto repetidos
+ *   em todas as ordens (certificate_details, certificate_logo, certificate_background) são gravados
+ *   uma vez no S3 e o corpo passa a ser
+ *   {"products": {"<product_id>": {"bucket": "...", "key": "..."}}, "orders": [ordens sem esses campos]}
+ *
+ * No claim-check a chave do objeto inclui o hash do conteúdo
+ * (certified.events.publish.claim-check-prefix/{productId}/{sha256}.json), então cada versão dos
+ * dados de um produto é gravada uma única vez e pode ser reutilizada por todas as mensagens
+ */
+@Component
+@Profile("!test")
+public class OrderPayloadCodec {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderPayloadCodec.class);
+
+    public static final String CONTENT_TYPE_ATTRIBUTE = "contentType";
+
+    private static final List<String> PRODUCT_FIELDS = List.of(
+            "certificate_details", "certificate_logo", "certificate_background");
+
+    // Razão de compressão assumida ao agrupar ordens para gzip; mensagens maiores são divididas
+    private static final int GZIP_ASSUMED_RATIO = 4;
+
+    /**
+     * Formatos suportados
+     */
+    public enum Encoding {
+        JSON("application/json"),
+        GZIP("application/json+gzip;base64"),
+        CLAIM_CHECK("application/vnd.certified.orders+json;product-ref=s3");
+
+        private final String contentType;
+
+        Encoding(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        static Encoding fromProperty(String value) {
+            return Encoding.valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
+    /**
+     * Corpo codificado e seu content type
+     */
+    public record Payload(String body, String contentType) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final S3ClientCustomer s3ClientCustomer;
+    private final S3Properties s3Properties;
+    private final Encoding encoding;
+    private final String claimCheckPrefix;
+
+    // Objetos de produto já gravados por este processo
+    private final Set<String> uploadedKeys = ConcurrentHashMap.newKeySet();
+
+    public OrderPayloadCodec(ObjectMapper objectMapper,
+                             S3ClientCustomer s3ClientCustomer,
+                             S3Properties s3Properties,
+                             @Value("${certified.events.publish.encoding:json}") String encoding,
+                             @Value("${certified.events.publish.claim-check-prefix:events/products}") String claimCheckPrefix) {
+        this.objectMapper = objectMapper;
+        this.s3ClientCustomer = s3ClientCustomer;
+        this.s3Properties = s3Properties;
+        this.encoding = Encoding.fromProperty(encoding);
+        this.claimCheckPrefix = claimCheckPrefix;
+    }
+
+    /**
+     * Serializa uma ordem como ela aparecerá no corpo (sem os dados de produto no claim-check)
+     */
+    public String orderJson(TechOrdersResponse order) {
+        if (encoding != Encoding.CLAIM_CHECK) {
+            return write(order);
+        }
+        ObjectNode node = objectMapper.valueToTree(order);
+        node.remove(PRODUCT_FIELDS);
+        return write(node);
+    }
+
+    /**
+     * Bytes de ordens serializadas que cabem, em princípio, em uma mensagem de maxMessageBytes
+     * O tamanho final é conferido após encode; mensagens acima do limite são divididas
+     */
+    public int orderBudget(int maxMessageBytes) {
+        return encoding == Encoding.GZIP ? maxMessageBytes * GZIP_ASSUMED_RATIO : maxMessageBytes;
+    }
+
+    /**
+     * Monta o corpo da mensagem para as ordens
+     *
+     * @param orders Ordens da mensagem
+     * @param orderJsons Ordens serializadas por orderJson, na mesma ordem
+     */
+    public Payload encode(List<TechOrdersResponse> orders, List<String> orderJsons) {
+        String array = "[" + String.join(",", orderJsons) + "]";
+        return switch (encoding) {
+            case JSON -> new Payload(array, encoding.contentType());
+            case GZIP -> new Payload(Base64.getEncoder().encodeToString(gzip(array)), encoding.contentType());
+            case CLAIM_CHECK -> new Payload(
+                    "{\"products\":" + write(productReferences(orders)) + ",\"orders\":" + array + "}",
+                    encoding.contentType());
+        };
+    }
+
+    /**
+     * Grava (uma vez) os dados de cada produto no S3 e retorna as referências por productId
+     */
+    private Map<String, Map<String, String>> productReferences(List<TechOrdersResponse> orders) {
+        Map<String, Map<String, String>> references = new LinkedHashMap<>();
+        for (TechOrdersResponse order : orders) {
+            references.computeIfAbsent(String.valueOf(order.getProductId()), productId -> {
+                String key = uploadProductData(order);
+                return Map.of("bucket", s3Properties.getBucketName(), "key", key);
+            });
+        }
+        return references;
+    }
+
+    private String uploadProductData(TechOrdersResponse order) {
+        Map<String, Object> productData = new LinkedHashMap<>();
+        productData.put("product_id", order.getProductId());
+        productData.put("product_name", order.getProductName());
+        productData.put("certificate_details", order.getCertificateDetails());
+        productData.put("certificate_logo", order.getCertificateLogo());
+        productData.put("certificate_background", order.getCertificateBackground());
+
+        byte[] content = write(productData).getBytes(StandardCharsets.UTF_8);
+        String key = claimCheckPrefix + "/" + order.getProductId() + "/" + sha256(content) + ".json";
+        // Registrado só após a gravação: nenhuma mensagem referencia um objeto ainda não gravado
+        // (gravações concorrentes da mesma chave escrevem o mesmo conteúdo)
+        if (!uploadedKeys.contains(key)) {
+            s3ClientCustomer.putObject(key, content, Encoding.JSON.contentType());
+            uploadedKeys.add(key);
+            logger.debug("Dados do produto {} gravados em {}", order.getProductId(), key);
+        }
+        return key;
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar payload da fila builder", e);
+        }
+    }
+
+    private static byte[] gzip(String content) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(content.length() / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(content.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toByteArray();
+    }
+
+    static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
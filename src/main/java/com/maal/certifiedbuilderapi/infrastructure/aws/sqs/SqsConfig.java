@@ -34,10 +34,11 @@ public class SqsConfig {
                 .configure(options -> options
                         // Configurações de concorrência otimizadas
                         .maxConcurrentMessages(10)             // Aumentado para acomodar messagesPerPoll
-                        .maxMessagesPerPoll(5)                 // Menor que maxConcurrentMessages
+                        .maxMessagesPerPoll(10)                // Poll completo entregue ao listener em lote
                         
                         // Configurações de acknowledgement
-                        .acknowledgementMode(AcknowledgementMode.ALWAYS)
+                        // MANUAL: o listener em lote confirma cada mensagem conforme o resultado dos seus eventos
+                        .acknowledgementMode(AcknowledgementMode.MANUAL)
                         .acknowledgementOrdering(AcknowledgementOrdering.ORDERED)
                         
                         // Configurações de timeout para polling
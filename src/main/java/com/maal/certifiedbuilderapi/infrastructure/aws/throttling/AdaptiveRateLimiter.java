@@ -0,0 +1,135 @@
+package com.maal.certifiedbuilderapi.infrastructure.aws.throttling;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limitador de taxa com ajuste AIMD (additive increase / multiplicative decrease)
+ *
+ * Funciona como um token bucket de "pagamento posterior": cada requisição reserva suas
+ * unidades e a seguinte aguarda até que o custo das anteriores tenha sido pago à taxa atual.
+ * Após um período ocioso acumula no máximo um segundo de capacidade (rajada curta).
+ * Quando o custo real só é conhecido na resposta (ex.: Query/Scan), a diferença é cobrada
+ * com charge e paga pelas requisições seguintes.
+ *
+ * Ajuste da taxa, no máximo uma vez por segundo em cada direção:
+ * - onThrottle: taxa multiplicada por decreaseFactor (nunca abaixo de minRate)
+ * - onSuccess: taxa somada de increasePerInterval, apenas se houve espera no limitador
+ *   desde o último ajuste (demanda acima da taxa), nunca acima de maxRate
+ * Assim a taxa oscila próxima da capacidade provisionada em vez de crescer sem limite
+ * quando a demanda é baixa
+ */
+public class AdaptiveRateLimiter {
+
+    private static final long ADJUST_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long MAX_BURST_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final double minRate;
+    private final double maxRate;
+    private final double increasePerInterval;
+    private final double decreaseFactor;
+
+    private double rate;
+    private long nextFreeNanos;
+    private long lastIncreaseNanos;
+    private long lastDecreaseNanos;
+    private boolean saturated;
+
+    public AdaptiveRateLimiter(double initialRate, double minRate, double maxRate,
+                               double increasePerInterval, double decreaseFactor) {
+        this.minRate = Math.max(0.1, minRate);
+        this.maxRate = Math.max(this.minRate, maxRate);
+        this.increasePerInterval = increasePerInterval;
+        this.decreaseFactor = decreaseFactor;
+        this.rate = Math.min(this.maxRate, Math.max(this.minRate, initialRate));
+        long now = System.nanoTime();
+        this.nextFreeNanos = now;
+        this.lastIncreaseNanos = now;
+        this.lastDecreaseNanos = now - ADJUST_INTERVAL_NANOS;
+    }
+
+    /**
+     * Aguarda até que as unidades possam ser consumidas à taxa atual
+     *
+     * @param units Unidades de capacidade da requisição (ex.: itens de um lote)
+     */
+    public void acquire(int units) {
+        long waitNanos = reserve(units);
+        if (waitNanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Espera do limitador de taxa do DynamoDB interrompida", e);
+        }
+    }
+
+    /**
+     * Reserva as unidades e retorna quanto tempo a requisição deve esperar, sem bloquear
+     * (usado pelo cliente assíncrono para agendar o envio)
+     */
+    public synchronized long reserve(int units) {
+        long now = System.nanoTime();
+        long start = Math.max(nextFreeNanos, now - MAX_BURST_NANOS);
+        nextFreeNanos = start + (long) (Math.max(1, units) * TimeUnit.SECONDS.toNanos(1) / rate);
+
+        long waitNanos = start - now;
+        if (waitNanos > 0) {
+            saturated = true;
+        }
+        return waitNanos;
+    }
+
+    /**
+     * Cobra unidades consumidas além das reservadas; as próximas requisições aguardam por elas
+     *
+     * @param units Unidades adicionais (podem ser fracionárias, ex.: leituras eventualmente consistentes)
+     */
+    public synchronized void charge(double units) {
+        if (units <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        long start = Math.max(nextFreeNanos, now - MAX_BURST_NANOS);
+        nextFreeNanos = start + (long) (units * TimeUnit.SECONDS.toNanos(1) / rate);
+    }
+
+    /**
+     * Requisição concluída sem limitação pelo DynamoDB
+     */
+    public synchronized void onSuccess() {
+        long now = System.nanoTime();
+        if (now - lastIncreaseNanos < ADJUST_INTERVAL_NANOS) {
+            return;
+        }
+        if (saturated) {
+            rate = Math.min(maxRate, rate + increasePerInterval);
+        }
+        saturated = false;
+        lastIncreaseNanos = now;
+    }
+
+    /**
+     * Requisição limitada pelo DynamoDB (ProvisionedThroughputExceeded ou itens não processados)
+     * Limitações da mesma rajada reduzem a taxa uma única vez
+     */
+    public synchronized void onThrottle() {
+        long now = System.nanoTime();
+        if (now - lastDecreaseNanos < ADJUST_INTERVAL_NANOS) {
+            return;
+        }
+        rate = Math.max(minRate, rate * decreaseFactor);
+        saturated = false;
+        lastDecreaseNanos = now;
+        // Aguarda um intervalo completo antes de voltar a aumentar
+        lastIncreaseNanos = now;
+    }
+
+    /**
+     * Taxa atual permitida, em unidades por segundo
+     */
+    public synchronized double currentRate() {
+        return rate;
+    }
+}
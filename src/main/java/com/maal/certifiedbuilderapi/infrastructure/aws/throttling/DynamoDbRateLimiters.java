@@ -0,0 +1,155 @@
+package com.maal.certifiedbuilderapi.infrastructure.aws.throttling;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.awssdk.core.retry.conditions.RetryCondition;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+import software.amazon.awssdk.services.dynamodb.model.RequestLimitExceededException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Orçamentos de capacidade do DynamoDB compartilhados pelos clientes síncrono e assíncrono,
+ * e portanto por todos os repositórios
+ *
+ * Cada tabela tem dois limitadores AIMD independentes (leitura e escrita), criados sob demanda
+ * na primeira requisição. Métricas por tabela/operação:
+ * - certified.dynamodb.rate: taxa atual permitida (unidades/s)
+ * - certified.dynamodb.throttles: limitações recebidas do DynamoDB
+ *
+ * Configurações (amazon.dynamodb.rate-limit.*): initial-rate, min-rate, max-rate,
+ * increase-per-second, decrease-factor
+ */
+public class DynamoDbRateLimiters {
+
+    private static final Logger logger = LoggerFactory.getLogger(DynamoDbRateLimiters.class);
+
+    /**
+     * Tipo de capacidade consumida por uma operação
+     */
+    public enum Capacity {
+        READ, WRITE;
+
+        String tag() {
+            return name().toLowerCase();
+        }
+    }
+
+    /**
+     * Unidades que uma requisição consome de uma tabela
+     */
+    public record Usage(String table, Capacity capacity, int units) {
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final double initialRate;
+    private final double minRate;
+    private final double maxRate;
+    private final double increasePerSecond;
+    private final double decreaseFactor;
+
+    private final Map<String, Budget> budgets = new ConcurrentHashMap<>();
+
+    public DynamoDbRateLimiters(MeterRegistry meterRegistry, double initialRate, double minRate, double maxRate,
+                                double increasePerSecond, double decreaseFactor) {
+        this.meterRegistry = meterRegistry;
+        this.initialRate = initialRate;
+        this.minRate = minRate;
+        this.maxRate = maxRate;
+        this.increasePerSecond = increasePerSecond;
+        this.decreaseFactor = decreaseFactor;
+    }
+
+    /**
+     * Aguarda a capacidade de todas as tabelas usadas pela requisição
+     */
+    public void acquire(List<Usage> usages) {
+        usages.forEach(usage -> budget(usage).limiter.acquire(usage.units()));
+    }
+
+    /**
+     * Reserva a capacidade de todas as tabelas usadas pela requisição sem bloquear
+     *
+     * @return Espera necessária antes do envio, em nanossegundos
+     */
+    public long reserve(List<Usage> usages) {
+        long waitNanos = 0;
+        for (Usage usage : usages) {
+            waitNanos = Math.max(waitNanos, budget(usage).limiter.reserve(usage.units()));
+        }
+        return waitNanos;
+    }
+
+    /**
+     * Cobra unidades consumidas além das estimadas na reserva (ConsumedCapacity da resposta)
+     */
+    public void charge(Usage usage, double consumedUnits) {
+        budget(usage).limiter.charge(consumedUnits - usage.units());
+    }
+
+    public void onSuccess(List<Usage> usages) {
+        usages.forEach(usage -> budget(usage).limiter.onSuccess());
+    }
+
+    public void onThrottle(Usage usage) {
+        Budget budget = budget(usage);
+        budget.throttles.increment();
+        budget.limiter.onThrottle();
+        logger.debug("Limitação do DynamoDB na tabela {} ({}), taxa ajustada para {}/s",
+                usage.table(), usage.capacity().tag(), budget.limiter.currentRate());
+    }
+
+    /**
+     * Taxa atual de uma tabela/operação (unidades por segundo)
+     */
+    public double currentRate(String table, Capacity capacity) {
+        return budget(new Usage(table, capacity, 0)).limiter.currentRate();
+    }
+
+    /**
+     * Condição de retentativa que informa as limitações de cada tentativa aos limitadores
+     * antes de delegar a decisão à condição padrão do SDK
+     */
+    public RetryCondition retryCondition(RetryCondition delegate) {
+        return context -> {
+            if (isThrottle(context.exception())) {
+                List<Usage> usages = context.executionAttributes().getAttribute(DynamoDbThrottlingInterceptor.USAGES);
+                if (usages != null) {
+                    usages.forEach(this::onThrottle);
+                }
+            }
+            return delegate.shouldRetry(context);
+        };
+    }
+
+    static boolean isThrottle(Throwable exception) {
+        return exception instanceof ProvisionedThroughputExceededException
+                || exception instanceof RequestLimitExceededException
+                || (exception instanceof SdkServiceException serviceException && serviceException.isThrottlingException());
+    }
+
+    private Budget budget(Usage usage) {
+        return budgets.computeIfAbsent(usage.table() + ":" + usage.capacity().tag(), key -> {
+            AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(
+                    initialRate, minRate, maxRate, increasePerSecond, decreaseFactor);
+            Gauge.builder("certified.dynamodb.rate", limiter, AdaptiveRateLimiter::currentRate)
+                    .description("Taxa atual permitida pelo limitador adaptativo (unidades/s)")
+                    .tags("table", usage.table(), "capacity", usage.capacity().tag())
+                    .register(meterRegistry);
+            Counter throttles = Counter.builder("certified.dynamodb.throttles")
+                    .description("Limitações recebidas do DynamoDB")
+                    .tags("table", usage.table(), "capacity", usage.capacity().tag())
+                    .register(meterRegistry);
+            return new Budget(limiter, throttles);
+        });
+    }
+
+    private record Budget(AdaptiveRateLimiter limiter, Counter throttles) {
+    }
+}
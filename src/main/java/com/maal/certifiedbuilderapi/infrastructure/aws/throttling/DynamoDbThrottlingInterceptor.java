@@ -0,0 +1,186 @@
+package com.maal.certifiedbuilderapi.infrastructure.aws.throttling;
+
+import com.maal.certifiedbuilderapi.infrastructure.aws.throttling.DynamoDbRateLimiters.Capacity;
+import com.maal.certifiedbuilderapi.infrastructure.aws.throttling.DynamoDbRateLimiters.Usage;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.SdkResponse;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Interceptor que aplica os limitadores adaptativos (DynamoDbRateLimiters) às requisições do DynamoDB
+ *
+ * Custo estimado de cada requisição na reserva, em unidades da tabela:
+ * - GetItem/PutItem/UpdateItem/DeleteItem: 1
+ * - BatchGetItem/BatchWriteItem: quantidade de chaves/itens de cada tabela
+ * - Query/Scan: 1 por página
+ * Todas essas requisições pedem ReturnConsumedCapacity=TOTAL e a diferença para o consumo real
+ * de cada tabela é cobrada na resposta: itens acima de 1 KB gravados (1 WCU por KB, o dobro com
+ * índices), itens acima de 4 KB lidos e páginas de Query/Scan (até ~256 unidades numa página de 1 MB)
+ * Demais operações (DescribeTable, UpdateTimeToLive etc.) não são limitadas.
+ *
+ * Cliente síncrono (acquire=true): a espera ocorre antes de cada tentativa, de modo que as
+ * retentativas do SDK também respeitam a taxa. Cliente assíncrono (acquire=false): a reserva é
+ * feita sem bloquear por RateLimitedDynamoDbAsyncClient, que agenda o envio; o interceptor apenas
+ * registra consumo e limitações (inclusive das retentativas).
+ *
+ * BatchWriteItem/BatchGetItem concluídos com itens não processados contam como limitação.
+ */
+public class DynamoDbThrottlingInterceptor implements ExecutionInterceptor {
+
+    static final ExecutionAttribute<List<Usage>> USAGES = new ExecutionAttribute<>("CertifiedDynamoDbUsages");
+
+    private final DynamoDbRateLimiters rateLimiters;
+    private final boolean acquire;
+
+    public DynamoDbThrottlingInterceptor(DynamoDbRateLimiters rateLimiters, boolean acquire) {
+        this.rateLimiters = rateLimiters;
+        this.acquire = acquire;
+    }
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        executionAttributes.putAttribute(USAGES, usages(context.request()));
+    }
+
+    @Override
+    public SdkRequest modifyRequest(Context.ModifyRequest context, ExecutionAttributes executionAttributes) {
+        return switch (context.request()) {
+            case GetItemRequest get when get.returnConsumedCapacity() == null ->
+                    get.toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+            case QueryRequest query when query.returnConsumedCapacity() == null ->
+                    query.toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+            case ScanRequest scan when scan.returnConsumedCapacity() == null ->
+                    scan.toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+            case PutItemRequest put when put.returnConsumedCapacity() == null ->
+                    put.toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+            case UpdateItemRequest update when update.returnConsumedCapacity() == null ->
+                    update.toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+            case DeleteItemRequest delete when delete.returnConsumedCapacity() == null ->
+                    delete.toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+            case BatchWriteItemRequest batch when batch.returnConsumedCapacity() == null ->
+                    batch.toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+            case BatchGetItemRequest batch when batch.returnConsumedCapacity() == null ->
+                    batch.toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+            default -> context.request();
+        };
+    }
+
+    @Override
+    public void beforeTransmission(Context.BeforeTransmission context, ExecutionAttributes executionAttributes) {
+        if (acquire) {
+            rateLimiters.acquire(usages(executionAttributes));
+        }
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        List<Usage> usages = usages(executionAttributes);
+        Set<String> throttledTables = throttledTables(context.response());
+        Map<String, Double> consumedByTable = consumedCapacity(context.response());
+        for (Usage usage : usages) {
+            Double consumed = consumedByTable.get(usage.table());
+            if (consumed != null) {
+                rateLimiters.charge(usage, consumed);
+            }
+            if (throttledTables.contains(usage.table())) {
+                rateLimiters.onThrottle(usage);
+            } else {
+                rateLimiters.onSuccess(List.of(usage));
+            }
+        }
+    }
+
+    private static List<Usage> usages(ExecutionAttributes executionAttributes) {
+        List<Usage> usages = executionAttributes.getAttribute(USAGES);
+        return usages != null ? usages : List.of();
+    }
+
+    /**
+     * Tabelas e unidades consumidas pela requisição
+     */
+    static List<Usage> usages(SdkRequest request) {
+        return switch (request) {
+            case GetItemRequest get -> List.of(new Usage(get.tableName(), Capacity.READ, 1));
+            case QueryRequest query -> List.of(new Usage(query.tableName(), Capacity.READ, 1));
+            case ScanRequest scan -> List.of(new Usage(scan.tableName(), Capacity.READ, 1));
+            case PutItemRequest put -> List.of(new Usage(put.tableName(), Capacity.WRITE, 1));
+            case UpdateItemRequest update -> List.of(new Usage(update.tableName(), Capacity.WRITE, 1));
+            case DeleteItemRequest delete -> List.of(new Usage(delete.tableName(), Capacity.WRITE, 1));
+            case BatchWriteItemRequest batch -> batch.requestItems().entrySet().stream()
+                    .map(entry -> new Usage(entry.getKey(), Capacity.WRITE, entry.getValue().size()))
+                    .toList();
+            case BatchGetItemRequest batch -> batch.requestItems().entrySet().stream()
+                    .map(entry -> new Usage(entry.getKey(), Capacity.READ, entry.getValue().keys().size()))
+                    .toList();
+            default -> List.of();
+        };
+    }
+
+    /**
+     * Capacidade consumida por tabela informada na resposta (vazio se a resposta não a trouxer)
+     */
+    static Map<String, Double> consumedCapacity(SdkResponse response) {
+        return switch (response) {
+            case GetItemResponse get -> byTable(get.consumedCapacity());
+            case QueryResponse query -> byTable(query.consumedCapacity());
+            case ScanResponse scan -> byTable(scan.consumedCapacity());
+            case PutItemResponse put -> byTable(put.consumedCapacity());
+            case UpdateItemResponse update -> byTable(update.consumedCapacity());
+            case DeleteItemResponse delete -> byTable(delete.consumedCapacity());
+            case BatchWriteItemResponse batch when batch.hasConsumedCapacity() -> byTable(batch.consumedCapacity());
+            case BatchGetItemResponse batch when batch.hasConsumedCapacity() -> byTable(batch.consumedCapacity());
+            default -> Map.of();
+        };
+    }
+
+    private static Map<String, Double> byTable(ConsumedCapacity capacity) {
+        return capacity == null ? Map.of() : byTable(List.of(capacity));
+    }
+
+    private static Map<String, Double> byTable(List<ConsumedCapacity> capacities) {
+        Map<String, Double> byTable = new HashMap<>();
+        capacities.stream()
+                .filter(capacity -> capacity != null && capacity.tableName() != null && capacity.capacityUnits() != null)
+                .forEach(capacity -> byTable.merge(capacity.tableName(), capacity.capacityUnits(), Double::sum));
+        return byTable;
+    }
+
+    /**
+     * Tabelas com itens não processados na resposta de um lote
+     */
+    private static Set<String> throttledTables(SdkResponse response) {
+        if (response instanceof BatchWriteItemResponse batch && batch.hasUnprocessedItems()) {
+            return batch.unprocessedItems().keySet();
+        }
+        if (response instanceof BatchGetItemResponse batch && batch.hasUnprocessedKeys()) {
+            return batch.unprocessedKeys().keySet();
+        }
+        return Set.of();
+    }
+}
@@ -0,0 +1,57 @@
+package com.maal.certifiedbuilderapi.infrastructure.aws.throttling;
+
+import software.amazon.awssdk.services.dynamodb.DelegatingDynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.paginators.QueryPublisher;
+import software.amazon.awssdk.services.dynamodb.paginators.ScanPublisher;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Cliente DynamoDB assíncrono que aplica os limitadores adaptativos sem bloquear threads
+ *
+ * Cada operação reserva sua capacidade (DynamoDbRateLimiters.reserve) e, se precisar esperar,
+ * é enviada por um CompletableFuture.delayedExecutor em vez de dormir na thread que a chamou.
+ * Isso vale também para as páginas seguintes de Query/Scan e para consultas encadeadas em
+ * callbacks (thenCompose), que rodam nas threads de resposta do SDK
+ *
+ * O consumo real e as limitações continuam registrados pelo DynamoDbThrottlingInterceptor
+ */
+public class RateLimitedDynamoDbAsyncClient extends DelegatingDynamoDbAsyncClient {
+
+    private final DynamoDbRateLimiters rateLimiters;
+
+    public RateLimitedDynamoDbAsyncClient(DynamoDbAsyncClient delegate, DynamoDbRateLimiters rateLimiters) {
+        super(delegate);
+        this.rateLimiters = rateLimiters;
+    }
+
+    @Override
+    protected <T extends DynamoDbRequest, ReturnT> CompletableFuture<ReturnT> invokeOperation(
+            T request, Function<T, CompletableFuture<ReturnT>> operation) {
+        long waitNanos = rateLimiters.reserve(DynamoDbThrottlingInterceptor.usages(request));
+        if (waitNanos <= 0) {
+            return operation.apply(request);
+        }
+        return CompletableFuture.supplyAsync(() -> request, CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS))
+                .thenCompose(operation);
+    }
+
+    /**
+     * Paginadores sobre este cliente, para que cada página passe por invokeOperation
+     */
+    @Override
+    public QueryPublisher queryPaginator(QueryRequest queryRequest) {
+        return new QueryPublisher(this, queryRequest);
+    }
+
+    @Override
+    public ScanPublisher scanPaginator(ScanRequest scanRequest) {
+        return new ScanPublisher(this, scanRequest);
+    }
+}
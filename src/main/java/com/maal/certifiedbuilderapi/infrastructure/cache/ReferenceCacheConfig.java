@@ -0,0 +1,58 @@
+package com.maal.certifiedbuilderapi.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.maal.certifiedbuilderapi.domain.entity.ParticipantEntity;
+import com.maal.certifiedbuilderapi.domain.entity.ProductEntity;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Caches de produtos e participantes compartilhados por todas as requisições do processo
+ * Caffeine (política W-TinyLFU) com tamanho máximo e expiração após a gravação;
+ * as estatísticas são publicadas como métricas cache.* (tag cache=products|participants)
+ *
+ * Configurações:
+ * - certified.cache.products.max-size / ttl-minutes
+ * - certified.cache.participants.max-size / ttl-minutes
+ */
+@Configuration
+public class ReferenceCacheConfig {
+
+    /**
+     * Cache de produtos por productId
+     */
+    @Bean
+    public Cache<Integer, ProductEntity> productCache(
+            @Value("${certified.cache.products.max-size:1000}") long maxSize,
+            @Value("${certified.cache.products.ttl-minutes:30}") long ttlMinutes,
+            MeterRegistry meterRegistry) {
+        Cache<Integer, ProductEntity> cache = build(maxSize, ttlMinutes);
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "products");
+    }
+
+    /**
+     * Cache de participantes por email
+     */
+    @Bean
+    public Cache<String, ParticipantEntity> participantCache(
+            @Value("${certified.cache.participants.max-size:100000}") long maxSize,
+            @Value("${certified.cache.participants.ttl-minutes:30}") long ttlMinutes,
+            MeterRegistry meterRegistry) {
+        Cache<String, ParticipantEntity> cache = build(maxSize, ttlMinutes);
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "participants");
+    }
+
+    private static <K, V> Cache<K, V> build(long maxSize, long ttlMinutes) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+    }
+}
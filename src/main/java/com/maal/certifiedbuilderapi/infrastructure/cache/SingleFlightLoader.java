@@ -0,0 +1,76 @@
+package com.maal.certifiedbuilderapi.infrastructure.cache;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Carregamento "single-flight": chamadas concorrentes para a mesma chave compartilham
+ * uma única execução do loader
+ *
+ * A primeira thread registra um future em voo e executa o loader fora de qualquer lock
+ * do mapa (putIfAbsent/remove só seguram o bin durante a troca da referência); as demais
+ * aguardam o mesmo future. Chaves diferentes nunca esperam por I/O umas das outras,
+ * diferente de computeIfAbsent, que mantém o bin bloqueado durante o cálculo.
+ *
+ * O future é removido ao terminar, então falhas não ficam memorizadas: a próxima
+ * chamada tenta novamente. Resultados devem ser guardados em cache pelo próprio loader
+ * antes de retornar.
+ *
+ * @param <K> Tipo da chave
+ * @param <V> Tipo do valor carregado
+ */
+public class SingleFlightLoader<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Executa o loader para a chave ou aguarda a execução já em andamento
+     *
+     * @param key Chave a carregar
+     * @param loader Carregamento (I/O) executado no máximo uma vez por vez para a chave
+     * @return Valor carregado
+     */
+    public V load(K key, Function<? super K, ? extends V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            V value = loader.apply(key);
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Quantidade de carregamentos em andamento
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            // Propaga a mesma exceção vista pela thread que executou o loader
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.maal.certifiedbuilderapi.infrastructure.client;
 
 import com.maal.certifiedbuilderapi.business.dto.RecoverCertificatesResponse;
 import com.maal.certifiedbuilderapi.infrastructure.client.response.TechOrdersResponse;
+import feign.Response;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -16,6 +17,13 @@ public interface TechFloripa {
     @GetMapping("/orders")
     List<TechOrdersResponse> getOrders(@RequestParam Integer product_id);
 
+    /**
+     * Mesma consulta de getOrders, mas devolve a resposta bruta sem desserializar o corpo
+     * O chamador deve fechar a resposta (ver TechOrdersStreamReader)
+     */
+    @GetMapping("/orders")
+    Response getOrdersStream(@RequestParam Integer product_id);
+
     @PostMapping("/order")
     void notifiesCertificateGeneration (@RequestBody RecoverCertificatesResponse recoverCertificatesResponse);
 
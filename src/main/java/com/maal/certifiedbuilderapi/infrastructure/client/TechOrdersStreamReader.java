@@ -0,0 +1,155 @@
+package com.maal.certifiedbuilderapi.infrastructure.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maal.certifiedbuilderapi.infrastructure.client.response.TechOrdersResponse;
+import feign.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Leitura em streaming das ordens da TechFloripa
+ * O array JSON da resposta é lido item a item (JsonParser) enquanto o download acontece,
+ * e as ordens são entregues ao chamador em blocos de tamanho fixo
+ *
+ * O download roda em uma virtual thread e os blocos passam por uma fila limitada:
+ * enquanto o chamador processa um bloco (gravações no DynamoDB) o próximo já está sendo lido,
+ * e no máximo queue-capacity blocos ficam em memória além do que está sendo processado
+ *
+ * Configurações:
+ * - certified.ingestion.streaming.enabled: usa o streaming em CertificateConstructionOrder
+ * - certified.ingestion.streaming.chunk-size: ordens por bloco
+ * - certified.ingestion.streaming.queue-capacity: blocos lidos aguardando processamento
+ */
+@Component
+public class TechOrdersStreamReader {
+
+    private static final Logger logger = LoggerFactory.getLogger(TechOrdersStreamReader.class);
+
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private final TechFloripa techFloripa;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final int queueCapacity;
+
+    public TechOrdersStreamReader(TechFloripa techFloripa,
+                                  ObjectMapper objectMapper,
+                                  @Value("${certified.ingestion.streaming.enabled:false}") boolean enabled,
+                                  @Value("${certified.ingestion.streaming.chunk-size:1000}") int chunkSize,
+                                  @Value("${certified.ingestion.streaming.queue-capacity:2}") int queueCapacity) {
+        this.techFloripa = techFloripa;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.queueCapacity = Math.max(1, queueCapacity);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Baixa as ordens do produto e entrega cada bloco ao consumidor na thread do chamador
+     * Se o consumidor falhar, o download é interrompido e a exceção é propagada
+     *
+     * @param productId ID do produto
+     * @param chunkConsumer Processamento de cada bloco de ordens
+     * @return Total de ordens lidas
+     */
+    public int streamOrders(Integer productId, Consumer<List<TechOrdersResponse>> chunkConsumer) {
+        BlockingQueue<List<TechOrdersResponse>> chunks = new ArrayBlockingQueue<>(queueCapacity);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Integer> download = executor.submit(() -> download(productId, chunks));
+            try {
+                while (true) {
+                    List<TechOrdersResponse> chunk = chunks.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (chunk != null) {
+                        chunkConsumer.accept(chunk);
+                    } else if (download.isDone() && chunks.isEmpty()) {
+                        break;
+                    }
+                }
+                return download.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException("Falha ao ler ordens do produto " + productId, e.getCause());
+            } catch (InterruptedException e) {
+                download.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Leitura das ordens do produto " + productId + " interrompida", e);
+            } catch (RuntimeException e) {
+                // Falha no processamento de um bloco: interrompe o download
+                download.cancel(true);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Lê o array JSON da resposta e publica os blocos na fila (bloqueia quando a fila está cheia)
+     */
+    private int download(Integer productId, BlockingQueue<List<TechOrdersResponse>> chunks) throws InterruptedException {
+        int total = 0;
+
+        try (Response response = techFloripa.getOrdersStream(productId)) {
+            if (response.status() >= 300) {
+                throw new IllegalStateException("TechFloripa respondeu " + response.status()
+                        + " ao buscar ordens do produto " + productId);
+            }
+            if (response.body() == null) {
+                return 0;
+            }
+
+            try (InputStream body = response.body().asInputStream();
+                 JsonParser parser = objectMapper.getFactory().createParser(body)) {
+                JsonToken token = parser.nextToken();
+                if (token == null || token == JsonToken.VALUE_NULL) {
+                    return 0;
+                }
+                if (token != JsonToken.START_ARRAY) {
+                    throw new IllegalStateException("Resposta de ordens do produto " + productId + " não é um array JSON");
+                }
+
+                List<TechOrdersResponse> chunk = new ArrayList<>(chunkSize);
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    chunk.add(objectMapper.readValue(parser, TechOrdersResponse.class));
+                    total++;
+                    if (chunk.size() == chunkSize) {
+                        chunks.put(chunk);
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    chunks.put(chunk);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler ordens do produto " + productId, e);
+        }
+
+        logger.debug("Download das ordens do produto {} concluído: {} ordens", productId, total);
+        return total;
+    }
+}
@@ -0,0 +1,142 @@
+package com.maal.certifiedbuilderapi.infrastructure.concurrency;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Executor de virtual threads com limite de concorrência
+ * Cada tarefa roda em sua própria virtual thread, mas no máximo maxConcurrency executam
+ * ao mesmo tempo (Semaphore); as demais aguardam sem ocupar threads de plataforma.
+ * Substitui o ForkJoinPool comum (parallelStream), dimensionado pelos núcleos de CPU
+ * e compartilhado com todo o processo, em trabalhos dominados por I/O
+ *
+ * Métricas (tag executor=nome):
+ * - certified.executor.active: tarefas em execução
+ * - certified.executor.waiting: tarefas aguardando permissão
+ * - certified.executor.max.concurrency: limite configurado
+ * - certified.executor.queue.wait / certified.executor.task.duration: tempos de espera e execução
+ */
+public class BoundedVirtualThreadExecutor implements AutoCloseable {
+
+    private final String name;
+    private final int maxConcurrency;
+    private final Semaphore permits;
+    private final ExecutorService executor;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Timer queueWaitTimer;
+    private final Timer taskTimer;
+
+    public BoundedVirtualThreadExecutor(String name, int maxConcurrency, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.permits = new Semaphore(this.maxConcurrency);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory());
+
+        Gauge.builder("certified.executor.active", active, AtomicInteger::get)
+                .tag("executor", name)
+                .description("Tarefas em execução")
+                .register(meterRegistry);
+        Gauge.builder("certified.executor.waiting", waiting, AtomicInteger::get)
+                .tag("executor", name)
+                .description("Tarefas aguardando permissão de execução")
+                .register(meterRegistry);
+        Gauge.builder("certified.executor.max.concurrency", this, executor -> executor.maxConcurrency)
+                .tag("executor", name)
+                .description("Limite de tarefas simultâneas")
+                .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("certified.executor.queue.wait")
+                .tag("executor", name)
+                .register(meterRegistry);
+        this.taskTimer = Timer.builder("certified.executor.task.duration")
+                .tag("executor", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Submete uma tarefa respeitando o limite de concorrência
+     *
+     * @return Future concluído com o resultado (ou a exceção) da tarefa
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        executor.execute(() -> {
+            long enqueuedAt = System.nanoTime();
+            waiting.incrementAndGet();
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result.completeExceptionally(e);
+                return;
+            } finally {
+                waiting.decrementAndGet();
+            }
+            queueWaitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+
+            active.incrementAndGet();
+            long startedAt = System.nanoTime();
+            try {
+                result.complete(task.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                taskTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                active.decrementAndGet();
+                permits.release();
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Aplica a função a todos os itens em paralelo e aguarda o término
+     * Mantém a ordem dos itens; a primeira falha é propagada após todas as tarefas terminarem
+     *
+     * @param items Itens a processar
+     * @param function Função aplicada a cada item
+     * @return Resultados na mesma ordem dos itens
+     */
+    public <T, R> List<R> mapAll(Collection<T> items, Function<T, R> function) {
+        List<CompletableFuture<R>> futures = new ArrayList<>(items.size());
+        for (T item : items) {
+            futures.add(submit(() -> function.apply(item)));
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Falha em tarefa do executor " + name, e.getCause());
+        }
+
+        List<R> results = new ArrayList<>(futures.size());
+        futures.forEach(future -> results.add(future.join()));
+        return results;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+}
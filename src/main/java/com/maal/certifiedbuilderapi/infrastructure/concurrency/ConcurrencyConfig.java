@@ -0,0 +1,88 @@
+package com.maal.certifiedbuilderapi.infrastructure.concurrency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuração dos executores de virtual threads da aplicação
+ * Os limites devem acompanhar a capacidade provisionada das tabelas do DynamoDB
+ */
+@Configuration
+public class ConcurrencyConfig {
+
+    /**
+     * Executor do processamento de ordens (build-orders)
+     * Limite definido por certified.executor.order-processing.max-concurrency
+     */
+    @Bean(destroyMethod = "close")
+    public BoundedVirtualThreadExecutor orderProcessingExecutor(
+            @Value("${certified.executor.order-processing.max-concurrency:32}") int maxConcurrency,
+            MeterRegistry meterRegistry) {
+        return new BoundedVirtualThreadExecutor("order-processing", maxConcurrency, meterRegistry);
+    }
+
+    /**
+     * Executor dos jobs assíncronos de build-orders
+     * Limite definido por certified.executor.build-jobs.max-concurrency; jobs excedentes ficam PENDING
+     */
+    @Bean(destroyMethod = "close")
+    public BoundedVirtualThreadExecutor buildJobExecutor(
+            @Value("${certified.executor.build-jobs.max-concurrency:2}") int maxConcurrency,
+            MeterRegistry meterRegistry) {
+        return new BoundedVirtualThreadExecutor("build-jobs", maxConcurrency, meterRegistry);
+    }
+
+    /**
+     * Executor dos lotes do build-orders de vários produtos
+     * Limite global definido por certified.executor.batch-build.max-concurrency,
+     * com rodízio entre produtos para que um produto grande não atrase os pequenos
+     */
+    @Bean(destroyMethod = "close")
+    public FairRoundRobinExecutor batchBuildExecutor(
+            @Value("${certified.executor.batch-build.max-concurrency:4}") int maxConcurrency,
+            MeterRegistry meterRegistry) {
+        return new FairRoundRobinExecutor("batch-build", maxConcurrency, meterRegistry);
+    }
+
+    /**
+     * Executor dos downloads de ordens do build-orders de vários produtos
+     * Limita quantos feeds da TechFloripa são lidos ao mesmo tempo
+     * (certified.executor.batch-feeds.max-concurrency)
+     */
+    @Bean(destroyMethod = "close")
+    public BoundedVirtualThreadExecutor batchFeedExecutor(
+            @Value("${certified.executor.batch-feeds.max-concurrency:16}") int maxConcurrency,
+            MeterRegistry meterRegistry) {
+        return new BoundedVirtualThreadExecutor("batch-feeds", maxConcurrency, meterRegistry);
+    }
+
+    /**
+     * Executor do processamento dos eventos de ordem recebidos do SQS
+     * Limite global definido por certified.executor.order-events.max-concurrency e, por grupo de
+     * mensagens (MessageGroupId), por certified.executor.order-events.max-per-group;
+     * com 1 os eventos de um mesmo grupo são aplicados em sequência
+     */
+    @Bean(destroyMethod = "close")
+    public FairRoundRobinExecutor orderEventExecutor(
+            @Value("${certified.executor.order-events.max-concurrency:8}") int maxConcurrency,
+            @Value("${certified.executor.order-events.max-per-group:1}") int maxPerGroup,
+            MeterRegistry meterRegistry) {
+        return new FairRoundRobinExecutor("order-events", maxConcurrency, maxPerGroup, meterRegistry);
+    }
+
+    /**
+     * Orçamento único das retentativas de eventos de ordem com falha
+     * Retentativas limitadas a certified.events.retry.budget-ratio das tentativas, mais
+     * certified.events.retry.min-per-second, acumulando no máximo certified.events.retry.max-balance
+     */
+    @Bean
+    public RetryBudget orderEventRetryBudget(
+            @Value("${certified.events.retry.budget-ratio:0.2}") double ratio,
+            @Value("${certified.events.retry.min-per-second:1}") double minPerSecond,
+            @Value("${certified.events.retry.max-balance:20}") double maxBalance,
+            MeterRegistry meterRegistry) {
+        return new RetryBudget("order-events", ratio, minPerSecond, maxBalance, meterRegistry);
+    }
+}
@@ -0,0 +1,186 @@
+package com.maal.certifiedbuilderapi.infrastructure.concurrency;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Executor de virtual threads com limite global de concorrência e escalonamento justo por chave
+ * Cada chave (ex.: productId) tem sua própria fila; quando há permissão livre, a próxima tarefa
+ * é retirada da chave seguinte em rodízio (round-robin), e não da fila mais antiga.
+ * Assim uma chave com muitas tarefas não impede o avanço das demais: cada chave com trabalho
+ * pendente recebe uma vez a cada rodada
+ * Opcionalmente, maxPerKey limita quantas tarefas da mesma chave executam ao mesmo tempo
+ * (com maxPerKey=1 as tarefas de cada chave executam em sequência); a chave no limite sai do
+ * rodízio até uma de suas tarefas terminar
+ *
+ * Métricas (tag executor=nome):
+ * - certified.executor.active: tarefas em execução
+ * - certified.executor.waiting: tarefas aguardando a vez
+ * - certified.executor.max.concurrency: limite configurado
+ * - certified.executor.fair.keys: chaves com tarefas aguardando
+ * - certified.executor.queue.wait / certified.executor.task.duration: tempos de espera e execução
+ */
+public class FairRoundRobinExecutor implements AutoCloseable {
+
+    private final int maxConcurrency;
+    private final int maxPerKey;
+    private final ExecutorService executor;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Filas por chave, ordem de vez das chaves que podem iniciar tarefas e tarefas em execução
+    // por chave (protegidas pelo lock)
+    private final Map<Object, Deque<Runnable>> queues = new HashMap<>();
+    private final Deque<Object> turns = new ArrayDeque<>();
+    private final Map<Object, Integer> activeByKey = new HashMap<>();
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger pendingKeys = new AtomicInteger();
+    private final Timer queueWaitTimer;
+    private final Timer taskTimer;
+
+    public FairRoundRobinExecutor(String name, int maxConcurrency, MeterRegistry meterRegistry) {
+        this(name, maxConcurrency, Integer.MAX_VALUE, meterRegistry);
+    }
+
+    public FairRoundRobinExecutor(String name, int maxConcurrency, int maxPerKey, MeterRegistry meterRegistry) {
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.maxPerKey = Math.max(1, maxPerKey);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory());
+
+        Gauge.builder("certified.executor.active", active, AtomicInteger::get)
+                .tag("executor", name)
+                .description("Tarefas em execução")
+                .register(meterRegistry);
+        Gauge.builder("certified.executor.waiting", waiting, AtomicInteger::get)
+                .tag("executor", name)
+                .description("Tarefas aguardando a vez")
+                .register(meterRegistry);
+        Gauge.builder("certified.executor.max.concurrency", this, executor -> executor.maxConcurrency)
+                .tag("executor", name)
+                .description("Limite de tarefas simultâneas")
+                .register(meterRegistry);
+        Gauge.builder("certified.executor.fair.keys", pendingKeys, AtomicInteger::get)
+                .tag("executor", name)
+                .description("Chaves com tarefas aguardando")
+                .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("certified.executor.queue.wait")
+                .tag("executor", name)
+                .register(meterRegistry);
+        this.taskTimer = Timer.builder("certified.executor.task.duration")
+                .tag("executor", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Enfileira uma tarefa na fila da chave
+     *
+     * @param key Chave de escalonamento (tarefas da mesma chave executam na ordem de submissão)
+     * @param task Tarefa
+     * @return Future concluído com o resultado (ou a exceção) da tarefa
+     */
+    public <T> CompletableFuture<T> submit(Object key, Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        long enqueuedAt = System.nanoTime();
+
+        Runnable runnable = () -> {
+            queueWaitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+            long startedAt = System.nanoTime();
+            try {
+                result.complete(task.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                taskTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                onTaskFinished(key);
+            }
+        };
+
+        lock.lock();
+        try {
+            Deque<Runnable> queue = queues.computeIfAbsent(key, k -> new ArrayDeque<>());
+            if (queue.isEmpty() && running(key) < maxPerKey) {
+                turns.addLast(key);
+            }
+            queue.addLast(runnable);
+            waiting.incrementAndGet();
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+        return result;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int getMaxPerKey() {
+        return maxPerKey;
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    private void onTaskFinished(Object key) {
+        lock.lock();
+        try {
+            active.decrementAndGet();
+            int running = running(key);
+            if (running <= 1) {
+                activeByKey.remove(key);
+            } else {
+                activeByKey.put(key, running - 1);
+            }
+            // A chave estava fora do rodízio por ter atingido maxPerKey
+            if (running == maxPerKey && queues.containsKey(key)) {
+                turns.addLast(key);
+            }
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Inicia tarefas enquanto houver permissão, uma por chave a cada vez (chamado com o lock)
+     * A chave atendida volta para o fim da fila de vez se ainda tiver tarefas e estiver abaixo de maxPerKey
+     */
+    private void dispatch() {
+        while (active.get() < maxConcurrency && !turns.isEmpty()) {
+            Object key = turns.pollFirst();
+            Deque<Runnable> queue = queues.get(key);
+            Runnable next = queue.pollFirst();
+            int running = activeByKey.merge(key, 1, Integer::sum);
+            if (queue.isEmpty()) {
+                queues.remove(key);
+            } else if (running < maxPerKey) {
+                turns.addLast(key);
+            }
+
+            waiting.decrementAndGet();
+            active.incrementAndGet();
+            executor.execute(next);
+        }
+        pendingKeys.set(queues.size());
+    }
+
+    private int running(Object key) {
+        return activeByKey.getOrDefault(key, 0);
+    }
+}
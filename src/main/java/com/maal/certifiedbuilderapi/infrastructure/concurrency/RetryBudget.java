@@ -0,0 +1,94 @@
+package com.maal.certifiedbuilderapi.infrastructure.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Orçamento de retentativas compartilhado por todas as tarefas de um fluxo
+ * Cada primeira tentativa deposita ratio créditos e cada retentativa consome um crédito;
+ * além disso o saldo recebe minPerSecond créditos por segundo, para que poucas requisições
+ * ainda possam ser retentadas. O saldo é limitado a maxBalance.
+ *
+ * Com ratio=0.2, por exemplo, as retentativas ficam limitadas a cerca de 20% do tráfego:
+ * em uma falha generalizada o volume total de tentativas cresce no máximo 20%, em vez de
+ * multiplicar pelo número de tentativas de cada tarefa
+ *
+ * Métricas (tag budget=nome):
+ * - certified.retry.budget.balance: créditos disponíveis
+ * - certified.retry.attempts: retentativas autorizadas
+ * - certified.retry.exhausted: retentativas negadas por falta de crédito
+ */
+public class RetryBudget {
+
+    private final double ratio;
+    private final double minPerSecond;
+    private final double maxBalance;
+
+    private double balance;
+    private long lastRefillNanos;
+
+    private final Counter retries;
+    private final Counter exhausted;
+
+    public RetryBudget(String name, double ratio, double minPerSecond, double maxBalance, MeterRegistry meterRegistry) {
+        this.ratio = ratio;
+        this.minPerSecond = minPerSecond;
+        this.maxBalance = Math.max(1, maxBalance);
+        this.balance = this.maxBalance;
+        this.lastRefillNanos = System.nanoTime();
+
+        Gauge.builder("certified.retry.budget.balance", this, RetryBudget::balance)
+                .tag("budget", name)
+                .description("Créditos de retentativa disponíveis")
+                .register(meterRegistry);
+        this.retries = Counter.builder("certified.retry.attempts")
+                .tag("budget", name)
+                .description("Retentativas autorizadas")
+                .register(meterRegistry);
+        this.exhausted = Counter.builder("certified.retry.exhausted")
+                .tag("budget", name)
+                .description("Retentativas negadas por falta de crédito")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra uma primeira tentativa (deposita ratio créditos)
+     */
+    public synchronized void recordAttempt() {
+        refill();
+        balance = Math.min(maxBalance, balance + ratio);
+    }
+
+    /**
+     * Solicita crédito para uma retentativa
+     *
+     * @return true se a retentativa pode ser feita
+     */
+    public boolean tryAcquireRetry() {
+        boolean acquired;
+        synchronized (this) {
+            refill();
+            acquired = balance >= 1;
+            if (acquired) {
+                balance -= 1;
+            }
+        }
+        (acquired ? retries : exhausted).increment();
+        return acquired;
+    }
+
+    public synchronized double balance() {
+        refill();
+        return balance;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        double elapsedSeconds = (now - lastRefillNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        balance = Math.min(maxBalance, balance + elapsedSeconds * minPerSecond);
+        lastRefillNanos = now;
+    }
+}
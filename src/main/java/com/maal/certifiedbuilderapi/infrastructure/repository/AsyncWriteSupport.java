@@ -0,0 +1,108 @@
+package com.maal.certifiedbuilderapi.infrastructure.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Suporte a gravações condicionais assíncronas em lote (PutItem com attribute_not_exists)
+ * Mantém no máximo amazon.dynamodb.async-writes.max-concurrency gravações em andamento,
+ * iniciando a próxima assim que uma termina, sem bloquear threads
+ *
+ * O limite é separado do das consultas (amazon.dynamodb.index-queries.max-concurrency):
+ * gravações consomem WCU e leituras RCU, e cada uma deve acompanhar a sua capacidade
+ *
+ * Falhas não interrompem as demais gravações: as chaves com falha são devolvidas em
+ * CreateOutcome.failed para que o chamador decida (ex.: deixar a ordem para a próxima sincronização)
+ */
+@Component
+public class AsyncWriteSupport {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncWriteSupport.class);
+
+    /**
+     * Resultado das criações por chave
+     *
+     * @param created Chaves criadas agora
+     * @param existing Chaves que já existiam (condição não atendida)
+     * @param failed Chaves cuja gravação falhou
+     */
+    public record CreateOutcome<K>(Set<K> created, Set<K> existing, Set<K> failed) {
+    }
+
+    private final int maxConcurrency;
+
+    public AsyncWriteSupport(@Value("${amazon.dynamodb.async-writes.max-concurrency:16}") int maxConcurrency) {
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+    }
+
+    /**
+     * Executa uma criação condicional por chave distinta
+     *
+     * @param keys Chaves a criar (nulos e duplicados são ignorados)
+     * @param create Criação assíncrona: true se criou, false se já existia
+     * @param description Descrição dos itens para o log de falhas (ex.: "pedido")
+     * @return Future com as chaves criadas, existentes e com falha; nunca completa com erro
+     */
+    public <K> CompletableFuture<CreateOutcome<K>> createAll(Collection<K> keys,
+                                                             Function<K, CompletableFuture<Boolean>> create,
+                                                             String description) {
+        Queue<K> pending = new ConcurrentLinkedQueue<>();
+        new LinkedHashSet<>(keys).stream().filter(key -> key != null).forEach(pending::add);
+
+        Map<K, Boolean> outcomes = new ConcurrentHashMap<>();
+        Set<K> failed = ConcurrentHashMap.newKeySet();
+        CompletableFuture<?>[] workers = IntStream.range(0, Math.min(maxConcurrency, pending.size()))
+                .mapToObj(i -> drainAsync(pending, create, description, outcomes, failed))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(workers).thenApply(ignored -> {
+            Set<K> created = ConcurrentHashMap.newKeySet();
+            Set<K> existing = ConcurrentHashMap.newKeySet();
+            outcomes.forEach((key, isNew) -> (isNew ? created : existing).add(key));
+            return new CreateOutcome<>(created, existing, failed);
+        });
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Consome a fila de chaves uma a uma, encadeando a próxima gravação ao término da anterior
+     */
+    private <K> CompletableFuture<Void> drainAsync(Queue<K> pending, Function<K, CompletableFuture<Boolean>> create,
+                                                   String description, Map<K, Boolean> outcomes, Set<K> failed) {
+        K key = pending.poll();
+        if (key == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Boolean> write;
+        try {
+            write = create.apply(key);
+        } catch (RuntimeException e) {
+            write = CompletableFuture.failedFuture(e);
+        }
+        return write.handle((created, e) -> {
+                    if (e != null) {
+                        logger.error("Falha ao criar {} {}: {}", description, key, e.getMessage());
+                        failed.add(key);
+                    } else {
+                        outcomes.put(key, created);
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> drainAsync(pending, create, description, outcomes, failed));
+    }
+}
@@ -0,0 +1,139 @@
+package com.maal.certifiedbuilderapi.infrastructure.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteResult;
+import software.amazon.awssdk.enhanced.dynamodb.model.WriteBatch;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Suporte a gravações em lote (BatchWriteItem) no DynamoDB
+ * Agrupa itens em lotes de até 25 (limite do BatchWriteItem) e reenvia os itens
+ * não processados com backoff exponencial e jitter completo
+ * Exceções só são retentadas quando transitórias (limitação, erro 5xx ou falha de rede);
+ * as demais (validação, tabela inexistente, permissão) marcam o lote como falho na hora
+ *
+ * Configurações:
+ * - amazon.dynamodb.batch-write.max-attempts: tentativas por lote (incluindo a primeira)
+ * - amazon.dynamodb.batch-write.base-backoff-ms / max-backoff-ms: limites do backoff
+ */
+@Component
+public class BatchWriteSupport {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchWriteSupport.class);
+
+    public static final int MAX_BATCH_SIZE = 25;
+
+    private final DynamoDbEnhancedClient enhancedClient;
+    private final int maxAttempts;
+    private final long baseBackoffMillis;
+    private final long maxBackoffMillis;
+
+    public BatchWriteSupport(DynamoDbEnhancedClient enhancedClient,
+                             @Value("${amazon.dynamodb.batch-write.max-attempts:8}") int maxAttempts,
+                             @Value("${amazon.dynamodb.batch-write.base-backoff-ms:50}") long baseBackoffMillis,
+                             @Value("${amazon.dynamodb.batch-write.max-backoff-ms:5000}") long maxBackoffMillis) {
+        this.enhancedClient = enhancedClient;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMillis = baseBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    /**
+     * Grava todos os itens usando BatchWriteItem em lotes de 25
+     *
+     * @param table Tabela de destino
+     * @param itemClass Classe do item mapeado
+     * @param items Itens a gravar
+     * @return Itens que não puderam ser gravados após todas as tentativas (vazia em caso de sucesso)
+     */
+    public <T> List<T> putAll(DynamoDbTable<T> table, Class<T> itemClass, Collection<T> items) {
+        List<T> pendingItems = new ArrayList<>(items);
+        List<T> failedItems = new ArrayList<>();
+
+        for (int start = 0; start < pendingItems.size(); start += MAX_BATCH_SIZE) {
+            List<T> batch = pendingItems.subList(start, Math.min(start + MAX_BATCH_SIZE, pendingItems.size()));
+            failedItems.addAll(writeBatch(table, itemClass, batch));
+        }
+
+        if (!failedItems.isEmpty()) {
+            logger.error("{} de {} itens não foram gravados na tabela {} após {} tentativas",
+                    failedItems.size(), pendingItems.size(), table.tableName(), maxAttempts);
+        }
+        return failedItems;
+    }
+
+    /**
+     * Grava um lote e reenvia os itens não processados até esgotar as tentativas
+     */
+    private <T> List<T> writeBatch(DynamoDbTable<T> table, Class<T> itemClass, List<T> batch) {
+        List<T> unprocessed = batch;
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                WriteBatch.Builder<T> writeBatch = WriteBatch.builder(itemClass).mappedTableResource(table);
+                unprocessed.forEach(writeBatch::addPutItem);
+
+                BatchWriteResult result = enhancedClient.batchWriteItem(BatchWriteItemEnhancedRequest.builder()
+                        .writeBatches(writeBatch.build())
+                        .build());
+                unprocessed = result.unprocessedPutItemsForTable(table);
+            } catch (SdkException e) {
+                if (!isRetryable(e)) {
+                    logger.error("Falha não recuperável no BatchWriteItem da tabela {}, {} itens descartados: {}",
+                            table.tableName(), unprocessed.size(), e.getMessage());
+                    return new ArrayList<>(unprocessed);
+                }
+                logger.warn("Falha no BatchWriteItem da tabela {} (tentativa {}/{}): {}",
+                        table.tableName(), attempt, maxAttempts, e.getMessage());
+            }
+
+            if (unprocessed.isEmpty()) {
+                return List.of();
+            }
+            if (attempt >= maxAttempts) {
+                return new ArrayList<>(unprocessed);
+            }
+
+            logger.debug("{} itens não processados na tabela {}, nova tentativa {}/{}",
+                    unprocessed.size(), table.tableName(), attempt + 1, maxAttempts);
+            sleepWithJitter(attempt);
+        }
+    }
+
+    /**
+     * Falhas transitórias: retentáveis segundo o SDK, limitação (throttling), erro 5xx ou falha de rede
+     */
+    static boolean isRetryable(SdkException e) {
+        if (e.retryable() || e.getCause() instanceof IOException) {
+            return true;
+        }
+        return e instanceof SdkServiceException serviceException
+                && (serviceException.isThrottlingException() || serviceException.statusCode() >= 500);
+    }
+
+    /**
+     * Backoff exponencial com jitter completo: espera aleatória entre 0 e min(max, base * 2^tentativa)
+     */
+    private void sleepWithJitter(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, baseBackoffMillis << Math.min(attempt, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Gravação em lote interrompida", e);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.maal.certifiedbuilderapi.infrastructure.repository;
+
+import com.maal.certifiedbuilderapi.domain.entity.BuildJobEntity;
+import com.maal.certifiedbuilderapi.domain.entity.BuildJobProductResult;
+import com.maal.certifiedbuilderapi.domain.entity.BuildJobStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Repository para BuildJobEntity usando AWS SDK v2.x Enhanced DynamoDB Client
+ * Os contadores de progresso são incrementados com UpdateItem (ADD), sem leitura prévia,
+ * e as mudanças de estado gravam apenas os atributos alterados
+ *
+ * Jobs expiram após amazon.dynamodb.build-jobs.retention-days (TTL no atributo expiresAt)
+ *
+ * Jobs ativos (PENDING/RUNNING) têm o updatedAt renovado periodicamente pela instância que os
+ * executa (heartbeat); markFailedIfStale encerra jobs cuja instância deixou de renová-lo
+ */
+@Repository
+public class BuildJobRepository {
+
+    private static final TableSchema<BuildJobProductResult> PRODUCT_RESULT_SCHEMA =
+            TableSchema.fromBean(BuildJobProductResult.class);
+
+    private final DynamoDbTable<BuildJobEntity> buildJobTable;
+    private final DynamoDbClient dynamoDbClient;
+    private final Duration retention;
+
+    @Autowired
+    public BuildJobRepository(DynamoDbTable<BuildJobEntity> buildJobTable, DynamoDbClient dynamoDbClient,
+                              @Value("${amazon.dynamodb.build-jobs.retention-days:7}") long retentionDays) {
+        this.buildJobTable = buildJobTable;
+        this.dynamoDbClient = dynamoDbClient;
+        this.retention = Duration.ofDays(retentionDays);
+    }
+
+    /**
+     * Salva um job, definindo a expiração quando ainda não informada
+     */
+    public BuildJobEntity save(BuildJobEntity job) {
+        if (job.getExpiresAt() == null) {
+            job.setExpiresAt(Instant.now().plus(retention).getEpochSecond());
+        }
+        buildJobTable.putItem(job);
+        return job;
+    }
+
+    /**
+     * Busca job por ID
+     */
+    public Optional<BuildJobEntity> findById(String id) {
+        BuildJobEntity job = buildJobTable.getItem(Key.builder().partitionValue(id).build());
+        return Optional.ofNullable(job);
+    }
+
+    /**
+     * Atualiza o estado do job
+     * Estados finais (COMPLETED e FAILED) também registram completedAt
+     *
+     * @param id ID do job
+     * @param status Novo estado
+     * @param errorMessage Mensagem de erro (apenas para FAILED; null mantém o valor atual)
+     */
+    public void updateStatus(String id, BuildJobStatus status, String errorMessage) {
+        String now = LocalDateTime.now().toString();
+
+        BuildJobEntity update = new BuildJobEntity();
+        update.setId(id);
+        update.setStatus(status);
+        update.setErrorMessage(errorMessage);
+        update.setUpdatedAt(now);
+        if (status == BuildJobStatus.COMPLETED || status == BuildJobStatus.FAILED) {
+            update.setCompletedAt(now);
+        }
+
+        // ignoreNulls: grava apenas os atributos preenchidos, preservando contadores e datas
+        buildJobTable.updateItem(request -> request.item(update).ignoreNulls(true));
+    }
+
+    /**
+     * Soma o progresso de um bloco processado aos contadores do job (ADD atômico)
+     */
+    public void addProgress(String id, long processedOrders, long newOrders, long existingOrders, long failedOrders) {
+        dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                .tableName(buildJobTable.tableName())
+                .key(Map.of("id", AttributeValue.builder().s(id).build()))
+                .updateExpression("ADD processedOrders :processed, newOrders :new, existingOrders :existing, "
+                        + "failedOrders :failed SET updatedAt = :now")
+                .expressionAttributeValues(Map.of(
+                        ":processed", number(processedOrders),
+                        ":new", number(newOrders),
+                        ":existing", number(existingOrders),
+                        ":failed", number(failedOrders),
+                        ":now", AttributeValue.builder().s(LocalDateTime.now().toString()).build()))
+                .build());
+    }
+
+    /**
+     * Grava o resultado de um produto de um job de vários produtos (products.{productId})
+     * O mapa products deve ter sido criado vazio no save do job
+     */
+    public void addProductResult(String id, BuildJobProductResult result) {
+        dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                .tableName(buildJobTable.tableName())
+                .key(Map.of("id", AttributeValue.builder().s(id).build()))
+                .updateExpression("SET products.#product = :result, updatedAt = :now")
+                .expressionAttributeNames(Map.of("#product", result.getProductId().toString()))
+                .expressionAttributeValues(Map.of(
+                        ":result", AttributeValue.builder().m(PRODUCT_RESULT_SCHEMA.itemToMap(result, true)).build(),
+                        ":now", AttributeValue.builder().s(LocalDateTime.now().toString()).build()))
+                .build());
+    }
+
+    /**
+     * Renova o updatedAt de um job ainda ativo (PENDING ou RUNNING)
+     *
+     * @return false se o job não está mais ativo
+     */
+    public boolean heartbeat(String id) {
+        try {
+            dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                    .tableName(buildJobTable.tableName())
+                    .key(Map.of("id", AttributeValue.builder().s(id).build()))
+                    .updateExpression("SET updatedAt = :now")
+                    .conditionExpression("#status IN (:pending, :running)")
+                    .expressionAttributeNames(Map.of("#status", "status"))
+                    .expressionAttributeValues(Map.of(
+                            ":now", AttributeValue.builder().s(LocalDateTime.now().toString()).build(),
+                            ":pending", status(BuildJobStatus.PENDING),
+                            ":running", status(BuildJobStatus.RUNNING)))
+                    .build());
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Marca como FAILED um job ativo cujo updatedAt ainda é o lido pelo chamador
+     * (a condição impede sobrescrever um heartbeat ou uma conclusão concorrente)
+     *
+     * @return true se o job foi marcado como FAILED
+     */
+    public boolean markFailedIfStale(String id, String seenUpdatedAt, String errorMessage) {
+        String now = LocalDateTime.now().toString();
+        try {
+            dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                    .tableName(buildJobTable.tableName())
+                    .key(Map.of("id", AttributeValue.builder().s(id).build()))
+                    .updateExpression("SET #status = :failed, errorMessage = :error, updatedAt = :now, completedAt = :now")
+                    .conditionExpression("updatedAt = :seen AND #status IN (:pending, :running)")
+                    .expressionAttributeNames(Map.of("#status", "status"))
+                    .expressionAttributeValues(Map.of(
+                            ":failed", status(BuildJobStatus.FAILED),
+                            ":error", AttributeValue.builder().s(errorMessage).build(),
+                            ":now", AttributeValue.builder().s(now).build(),
+                            ":seen", AttributeValue.builder().s(seenUpdatedAt).build(),
+                            ":pending", status(BuildJobStatus.PENDING),
+                            ":running", status(BuildJobStatus.RUNNING)))
+                    .build());
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        }
+    }
+
+    private static AttributeValue status(BuildJobStatus status) {
+        return AttributeValue.builder().s(status.name()).build();
+    }
+
+    private static AttributeValue number(long value) {
+        return AttributeValue.builder().n(Long.toString(value)).build();
+    }
+}
@@ -0,0 +1,74 @@
+package com.maal.certifiedbuilderapi.infrastructure.repository;
+
+import com.maal.certifiedbuilderapi.domain.entity.CertificateEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Repository assíncrono para CertificateEntity usando DynamoDbEnhancedAsyncClient
+ * Operações retornam CompletableFuture e não bloqueiam a thread chamadora
+ */
+@Repository
+public class CertificateAsyncRepository {
+
+    private static final String ORDER_ID_INDEX = "OrderIdIndex";
+
+    private final DynamoDbAsyncTable<CertificateEntity> certificateTable;
+    private final IndexQuerySupport indexQuerySupport;
+    private final EntityKeyStrategy keyStrategy;
+
+    @Autowired
+    public CertificateAsyncRepository(DynamoDbAsyncTable<CertificateEntity> certificateTable, IndexQuerySupport indexQuerySupport, EntityKeyStrategy keyStrategy) {
+        this.certificateTable = certificateTable;
+        this.indexQuerySupport = indexQuerySupport;
+        this.keyStrategy = keyStrategy;
+    }
+
+    /**
+     * Salva ou atualiza um certificado
+     */
+    public CompletableFuture<CertificateEntity> save(CertificateEntity certificate) {
+        return certificateTable.putItem(keyStrategy.assignKey(certificate)).thenApply(ignored -> certificate);
+    }
+
+    /**
+     * Busca certificado por ID
+     */
+    public CompletableFuture<Optional<CertificateEntity>> findById(String id) {
+        return certificateTable.getItem(Key.builder().partitionValue(id).build())
+            .thenApply(Optional::ofNullable);
+    }
+
+    /**
+     * Busca certificado por orderId
+     * Com chaves naturais é um GetItem direto; caso contrário consulta o índice OrderIdIndex
+     * (com fallback para scan quando o índice não existe)
+     */
+    public CompletableFuture<Optional<CertificateEntity>> findByOrderId(Integer orderId) {
+        if (keyStrategy.isNatural()) {
+            return findById(keyStrategy.certificateKey(orderId));
+        }
+        return indexQuerySupport.queryFirstAsync(certificateTable, ORDER_ID_INDEX, "orderId",
+                AttributeValue.builder().n(String.valueOf(orderId)).build());
+    }
+
+    /**
+     * Busca vários certificados por orderId mantendo até amazon.dynamodb.index-queries.max-concurrency
+     * consultas em andamento
+     * Certificados não encontrados ficam fora do mapa
+     *
+     * @param orderIds IDs dos pedidos
+     * @return Future com o mapa orderId -> certificado encontrado
+     */
+    public CompletableFuture<Map<Integer, CertificateEntity>> findByOrderIds(Collection<Integer> orderIds) {
+        return indexQuerySupport.lookupAllAsync(orderIds, this::findByOrderId);
+    }
+}
@@ -6,11 +6,11 @@ import org.springframework.stereotype.Repository;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.model.Page;
-import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Repository para CertificateEntity usando AWS SDK v2.x Enhanced DynamoDB Client
@@ -19,21 +19,46 @@ import java.util.stream.Collectors;
 @Repository
 public class CertificateRepository {
 
+    private static final String ORDER_ID_INDEX = "OrderIdIndex";
+    private static final String PRODUCT_ID_INDEX = "ProductIdIndex";
+
+    // Projeção usada para coletar chaves na remoção
+    private static final List<String> KEY_ATTRIBUTES = List.of("id");
+
     private final DynamoDbTable<CertificateEntity> certificateTable;
+    private final IndexQuerySupport indexQuerySupport;
+    private final BatchWriteSupport batchWriteSupport;
+    private final ParallelScanSupport parallelScanSupport;
+    private final EntityKeyStrategy keyStrategy;
 
     @Autowired
-    public CertificateRepository(DynamoDbTable<CertificateEntity> certificateTable) {
+    public CertificateRepository(DynamoDbTable<CertificateEntity> certificateTable, IndexQuerySupport indexQuerySupport, BatchWriteSupport batchWriteSupport, ParallelScanSupport parallelScanSupport, EntityKeyStrategy keyStrategy) {
         this.certificateTable = certificateTable;
+        this.indexQuerySupport = indexQuerySupport;
+        this.batchWriteSupport = batchWriteSupport;
+        this.parallelScanSupport = parallelScanSupport;
+        this.keyStrategy = keyStrategy;
     }
 
     /**
      * Salva ou atualiza um certificado
      */
     public CertificateEntity save(CertificateEntity certificate) {
-        certificateTable.putItem(certificate);
+        certificateTable.putItem(keyStrategy.assignKey(certificate));
         return certificate;
     }
 
+    /**
+     * Salva ou atualiza vários certificados usando BatchWriteItem (lotes de 25)
+     * Itens não processados são reenviados com backoff e jitter
+     *
+     * @return Certificados que não puderam ser gravados após todas as tentativas
+     */
+    public List<CertificateEntity> saveAll(Collection<CertificateEntity> certificates) {
+        certificates.forEach(keyStrategy::assignKey);
+        return batchWriteSupport.putAll(certificateTable, CertificateEntity.class, certificates);
+    }
+
     /**
      * Busca certificado por ID
      */
@@ -44,63 +69,63 @@ public class CertificateRepository {
 
     /**
      * Busca certificado por orderId
-     * Usa scan com filtro (para busca por índice secundário seria necessário configurar GSI)
+     * Com chaves naturais é um GetItem direto; caso contrário consulta o índice OrderIdIndex
+     * (com fallback para scan quando o índice não existe)
      */
     public Optional<CertificateEntity> findByOrderId(Integer orderId) {
-        return certificateTable.scan(ScanEnhancedRequest.builder()
-                .filterExpression(software.amazon.awssdk.enhanced.dynamodb.Expression.builder()
-                    .expression("orderId = :orderId")
-                    .putExpressionValue(":orderId", software.amazon.awssdk.services.dynamodb.model.AttributeValue.builder()
-                        .n(String.valueOf(orderId))
-                        .build())
+        if (keyStrategy.isNatural()) {
+            return findById(keyStrategy.certificateKey(orderId));
+        }
+        return indexQuerySupport.query(certificateTable, ORDER_ID_INDEX, "orderId",
+                software.amazon.awssdk.services.dynamodb.model.AttributeValue.builder()
+                    .n(String.valueOf(orderId))
                     .build())
-                .build())
-            .items()
-            .stream()
             .findFirst();
     }
 
     /**
      * Lista todos os certificados
-     * Usa scan completo - cuidado com performance em tabelas grandes
+     * Usa scan paralelo segmentado (amazon.dynamodb.parallel-scan.segments)
      */
     public List<CertificateEntity> findAll() {
-        return certificateTable.scan().items().stream().collect(Collectors.toList());
+        return parallelScanSupport.scanAll(certificateTable);
     }
 
     /**
      * Busca certificados por productId
-     * Usa scan com filtro
+     * Consulta o índice ProductIdIndex e pagina sob demanda: apenas uma página
+     * de resultados fica em memória enquanto o stream é consumido
      */
-    public List<CertificateEntity> findByProductId(Integer productId) {
-        return certificateTable.scan(ScanEnhancedRequest.builder()
-                .filterExpression(software.amazon.awssdk.enhanced.dynamodb.Expression.builder()
-                    .expression("productId = :productId")
-                    .putExpressionValue(":productId", software.amazon.awssdk.services.dynamodb.model.AttributeValue.builder()
-                        .n(String.valueOf(productId))
-                        .build())
-                    .build())
-                .build())
-            .items()
-            .stream()
-            .collect(Collectors.toList());
+    public Stream<CertificateEntity> findByProductId(Integer productId) {
+        return findByProductId(productId, List.of());
+    }
+
+    /**
+     * Busca certificados por productId lendo apenas os atributos informados
+     * Os demais campos ficam nulos; inclua "id" quando a chave primária for necessária
+     *
+     * @param productId ID do produto
+     * @param attributesToProject Atributos a ler (vazio lê o item completo)
+     */
+    public Stream<CertificateEntity> findByProductId(Integer productId, List<String> attributesToProject) {
+        return indexQuerySupport.query(certificateTable, PRODUCT_ID_INDEX, "productId",
+                software.amazon.awssdk.services.dynamodb.model.AttributeValue.builder()
+                    .n(String.valueOf(productId))
+                    .build(),
+                attributesToProject);
     }
 
     /**
      * Conta certificados por sucesso
+     * Scan paralelo com Select.COUNT e filtro - nenhum item é desserializado
      */
     public long countBySuccess(Boolean success) {
-        return certificateTable.scan(ScanEnhancedRequest.builder()
-                .filterExpression(software.amazon.awssdk.enhanced.dynamodb.Expression.builder()
-                    .expression("success = :success")
-                    .putExpressionValue(":success", software.amazon.awssdk.services.dynamodb.model.AttributeValue.builder()
-                        .bool(success)
-                        .build())
-                    .build())
+        return parallelScanSupport.count(certificateTable, software.amazon.awssdk.enhanced.dynamodb.Expression.builder()
+            .expression("success = :success")
+            .putExpressionValue(":success", software.amazon.awssdk.services.dynamodb.model.AttributeValue.builder()
+                .bool(success)
                 .build())
-            .items()
-            .stream()
-            .count();
+            .build());
     }
 
     /**
@@ -112,11 +137,11 @@ public class CertificateRepository {
 
     /**
      * Remove certificados por productId
-     * Localiza todos os certificados com o productId e remove cada um
+     * Percorre as chaves (id) dos certificados do produto página a página e remove cada um
      */
     public void deleteByProductId(Integer productId) {
-        List<CertificateEntity> certificates = findByProductId(productId);
-        certificates.forEach(cert -> certificateTable.deleteItem(Key.builder().partitionValue(cert.getId()).build()));
+        findByProductId(productId, KEY_ATTRIBUTES)
+            .forEach(cert -> certificateTable.deleteItem(Key.builder().partitionValue(cert.getId()).build()));
     }
 
     /**
@@ -128,8 +153,9 @@ public class CertificateRepository {
 
     /**
      * Conta total de certificados
+     * Scan paralelo com Select.COUNT - nenhum item é desserializado
      */
     public long count() {
-        return certificateTable.scan().items().stream().count();
+        return parallelScanSupport.count(certificateTable);
     }
 }
@@ -0,0 +1,64 @@
+package com.maal.certifiedbuilderapi.infrastructure.repository;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.model.PutItemEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Gravações condicionais de criação (attribute_not_exists(id))
+ * A falha da condição significa que o item já existe e é tratada como resultado, não como erro.
+ * Com chaves naturais (EntityKeyStrategy) isso torna a criação idempotente entre requisições
+ * e instâncias sem leitura prévia nem locks
+ */
+final class ConditionalWrites {
+
+    static final Expression ID_NOT_EXISTS = Expression.builder()
+            .expression("attribute_not_exists(id)")
+            .build();
+
+    private ConditionalWrites() {
+    }
+
+    /**
+     * Cria o item se ainda não existir
+     *
+     * @return true se o item foi criado, false se já existia
+     */
+    static <T> boolean create(DynamoDbTable<T> table, Class<T> itemClass, T item) {
+        try {
+            table.putItem(createRequest(itemClass, item));
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Versão assíncrona de create
+     *
+     * @return Future com true se o item foi criado, false se já existia
+     */
+    static <T> CompletableFuture<Boolean> createAsync(DynamoDbAsyncTable<T> table, Class<T> itemClass, T item) {
+        return table.putItem(createRequest(itemClass, item))
+                .thenApply(ignored -> true)
+                .exceptionallyCompose(error -> {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    return cause instanceof ConditionalCheckFailedException
+                            ? CompletableFuture.completedFuture(false)
+                            : CompletableFuture.failedFuture(error);
+                });
+    }
+
+    private static <T> PutItemEnhancedRequest<T> createRequest(Class<T> itemClass, T item) {
+        return PutItemEnhancedRequest.builder(itemClass)
+                .item(item)
+                .conditionExpression(ID_NOT_EXISTS)
+                .build();
+    }
+}
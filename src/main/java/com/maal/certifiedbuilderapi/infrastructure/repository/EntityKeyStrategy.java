@@ -0,0 +1,117 @@
+package com.maal.certifiedbuilderapi.infrastructure.repository;
+
+import com.maal.certifiedbuilderapi.domain.entity.CertificateEntity;
+import com.maal.certifiedbuilderapi.domain.entity.OrderEntity;
+import com.maal.certifiedbuilderapi.domain.entity.ParticipantEntity;
+import com.maal.certifiedbuilderapi.domain.entity.ProductEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+
+import java.util.Locale;
+
+/**
+ * Estratégia de chave de partição (id) das entidades
+ *
+ * Modos (amazon.dynamodb.key-strategy):
+ * - random: id é um UUID gerado pela própria entidade (layout original); buscas por
+ *   orderId/productId usam os índices secundários
+ * - natural: pedidos e certificados usam o orderId como id, produtos usam o productId e
+ *   participantes o email normalizado, de modo que buscas pela chave natural viram GetItem
+ *   diretos e criações podem ser condicionais (attribute_not_exists) e idempotentes
+ *
+ * O modo natural pressupõe que as tabelas já foram migradas para o novo layout
+ * (ver NaturalKeyMigration); a migração pode ser executada novamente após a troca
+ * para mover itens gravados com UUID durante a transição
+ */
+@Component
+public class EntityKeyStrategy {
+
+    private final boolean naturalKeys;
+
+    public EntityKeyStrategy(@Value("${amazon.dynamodb.key-strategy:random}") String keyStrategy) {
+        this.naturalKeys = "natural".equalsIgnoreCase(keyStrategy.trim());
+    }
+
+    /**
+     * Indica se as entidades usam chaves naturais como id
+     */
+    public boolean isNatural() {
+        return naturalKeys;
+    }
+
+    /**
+     * Chave natural de um pedido
+     */
+    public String orderKey(Integer orderId) {
+        return String.valueOf(orderId);
+    }
+
+    /**
+     * Chave natural de um certificado (um certificado por pedido)
+     */
+    public String certificateKey(Integer orderId) {
+        return String.valueOf(orderId);
+    }
+
+    /**
+     * Chave natural de um produto
+     */
+    public String productKey(Integer productId) {
+        return String.valueOf(productId);
+    }
+
+    /**
+     * Chave natural de um participante: email sem espaços nas pontas e em minúsculas
+     */
+    public String participantKey(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Monta a Key do DynamoDB a partir de um id
+     */
+    public Key key(String id) {
+        return Key.builder().partitionValue(id).build();
+    }
+
+    /**
+     * Define o id do pedido pela chave natural quando o modo natural está ativo
+     */
+    public OrderEntity assignKey(OrderEntity order) {
+        if (naturalKeys && order.getOrderId() != null) {
+            order.setId(orderKey(order.getOrderId()));
+        }
+        return order;
+    }
+
+    /**
+     * Define o id do certificado pela chave natural quando o modo natural está ativo
+     */
+    public CertificateEntity assignKey(CertificateEntity certificate) {
+        if (naturalKeys && certificate.getOrderId() != null) {
+            certificate.setId(certificateKey(certificate.getOrderId()));
+        }
+        return certificate;
+    }
+
+    /**
+     * Define o id do produto pela chave natural quando o modo natural está ativo
+     */
+    public ProductEntity assignKey(ProductEntity product) {
+        if (naturalKeys && product.getProductId() != null) {
+            product.setId(productKey(product.getProductId()));
+        }
+        return product;
+    }
+
+    /**
+     * Define o id do participante pela chave natural quando o modo natural está ativo
+     */
+    public ParticipantEntity assignKey(ParticipantEntity participant) {
+        if (naturalKeys && participant.getEmail() != null) {
+            participant.setId(participantKey(participant.getEmail()));
+        }
+        return participant;
+    }
+}
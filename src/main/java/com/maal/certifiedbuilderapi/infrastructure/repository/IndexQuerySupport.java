@@ -0,0 +1,322 @@
+package com.maal.certifiedbuilderapi.infrastructure.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Suporte a consultas por índices secundários globais (GSI) do DynamoDB
+ * Centraliza o acesso por índice usado pelos repositórios, com fallback para scan
+ * em ambientes onde o índice não foi criado (ex.: tabelas criadas sem GSI no CI)
+ *
+ * Modos de fallback:
+ * - amazon.dynamodb.index-queries.enabled=false força scan com filtro para todas as consultas
+ * - índice inexistente detectado em tempo de execução passa a usar scan para aquele índice
+ *
+ * Consultas em lote (lookupAll) rodam em virtual threads limitadas por
+ * amazon.dynamodb.index-queries.max-concurrency requisições simultâneas
+ *
+ * As variantes assíncronas (queryFirstAsync, lookupAllAsync) usam o cliente Netty e não
+ * ocupam threads enquanto aguardam o DynamoDB; o mesmo limite de concorrência se aplica
+ */
+@Component
+public class IndexQuerySupport {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexQuerySupport.class);
+
+    private final boolean indexQueriesEnabled;
+    private final int maxConcurrency;
+    private final Set<String> missingIndexes = ConcurrentHashMap.newKeySet();
+
+    public IndexQuerySupport(@Value("${amazon.dynamodb.index-queries.enabled:true}") boolean indexQueriesEnabled,
+                             @Value("${amazon.dynamodb.index-queries.max-concurrency:16}") int maxConcurrency) {
+        this.indexQueriesEnabled = indexQueriesEnabled;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Consulta itens pelo valor da chave de partição de um GSI
+     * A primeira página é buscada imediatamente para detectar índice inexistente;
+     * as demais páginas são lidas sob demanda conforme o stream é consumido
+     *
+     * @param table Tabela mapeada
+     * @param indexName Nome do índice secundário
+     * @param attributeName Atributo que é chave de partição do índice
+     * @param value Valor procurado
+     * @return Stream lazy com os itens encontrados
+     */
+    public <T> Stream<T> query(DynamoDbTable<T> table, String indexName, String attributeName, AttributeValue value) {
+        return query(table, indexName, attributeName, value, List.of());
+    }
+
+    /**
+     * Consulta por GSI lendo apenas os atributos informados (ProjectionExpression)
+     * Os demais campos do item ficam nulos; inclua "id" quando a chave primária for necessária
+     *
+     * @param attributesToProject Atributos a ler (vazio lê o item completo)
+     */
+    public <T> Stream<T> query(DynamoDbTable<T> table, String indexName, String attributeName, AttributeValue value,
+                               List<String> attributesToProject) {
+        if (!shouldQueryIndex(table.tableName(), indexName)) {
+            return scan(table, attributeName, value, attributesToProject);
+        }
+
+        QueryEnhancedRequest request = keyEqualTo(value, attributesToProject);
+
+        try {
+            Iterator<Page<T>> pages = table.index(indexName).query(request).iterator();
+            // Dispara a primeira requisição aqui para que a ausência do índice seja tratada já nesta chamada
+            pages.hasNext();
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(pages, Spliterator.ORDERED), false)
+                    .flatMap(page -> page.items().stream());
+        } catch (DynamoDbException e) {
+            if (!isMissingIndex(e)) {
+                throw e;
+            }
+            markMissing(table.tableName(), indexName);
+            return scan(table, attributeName, value, attributesToProject);
+        }
+    }
+
+    /**
+     * Versão assíncrona da consulta por GSI retornando apenas o primeiro item encontrado
+     * A leitura é interrompida após o primeiro item, sem buscar as páginas seguintes
+     *
+     * @param table Tabela mapeada assíncrona
+     * @param indexName Nome do índice secundário
+     * @param attributeName Atributo que é chave de partição do índice
+     * @param value Valor procurado
+     * @return Future com o primeiro item, se existir
+     */
+    public <T> CompletableFuture<Optional<T>> queryFirstAsync(DynamoDbAsyncTable<T> table, String indexName,
+                                                               String attributeName, AttributeValue value) {
+        return queryFirstAsync(table, indexName, attributeName, value, List.of());
+    }
+
+    /**
+     * Versão assíncrona da consulta por GSI lendo apenas os atributos informados
+     *
+     * @param attributesToProject Atributos a ler (vazio lê o item completo)
+     */
+    public <T> CompletableFuture<Optional<T>> queryFirstAsync(DynamoDbAsyncTable<T> table, String indexName,
+                                                               String attributeName, AttributeValue value,
+                                                               List<String> attributesToProject) {
+        if (!shouldQueryIndex(table.tableName(), indexName)) {
+            return scanFirstAsync(table, attributeName, value, attributesToProject);
+        }
+
+        AtomicReference<T> first = new AtomicReference<>();
+        return table.index(indexName).query(keyEqualTo(value, attributesToProject))
+                .flatMapIterable(Page::items)
+                .limit(1)
+                .subscribe(first::set)
+                .thenApply(ignored -> Optional.ofNullable(first.get()))
+                .exceptionallyCompose(error -> {
+                    if (unwrap(error) instanceof DynamoDbException e && isMissingIndex(e)) {
+                        markMissing(table.tableName(), indexName);
+                        return scanFirstAsync(table, attributeName, value, attributesToProject);
+                    }
+                    return CompletableFuture.failedFuture(error);
+                });
+    }
+
+    /**
+     * Executa uma consulta por chave para cada valor distinto, em paralelo
+     * Limita o número de requisições simultâneas para não estourar a capacidade provisionada
+     *
+     * @param keys Chaves a consultar (nulos e duplicados são ignorados)
+     * @param lookup Consulta individual por chave
+     * @return Mapa somente com as chaves encontradas
+     */
+    public <K, V> Map<K, V> lookupAll(Collection<K> keys, Function<K, Optional<V>> lookup) {
+        Map<K, V> found = new ConcurrentHashMap<>();
+        Semaphore permits = new Semaphore(maxConcurrency);
+        List<Future<?>> futures = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (K key : new LinkedHashSet<>(keys)) {
+                if (key == null) {
+                    continue;
+                }
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        lookup.apply(key).ifPresent(value -> found.put(key, value));
+                    } finally {
+                        permits.release();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Falha em consulta paralela por índice", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Consulta paralela por índice interrompida", e);
+        }
+        return found;
+    }
+
+    /**
+     * Versão assíncrona de lookupAll: mantém no máximo max-concurrency consultas em andamento,
+     * iniciando a próxima assim que uma termina, sem bloquear threads
+     *
+     * @param keys Chaves a consultar (nulos e duplicados são ignorados)
+     * @param lookup Consulta assíncrona individual por chave
+     * @return Future com o mapa somente das chaves encontradas
+     */
+    public <K, V> CompletableFuture<Map<K, V>> lookupAllAsync(Collection<K> keys,
+                                                              Function<K, CompletableFuture<Optional<V>>> lookup) {
+        Queue<K> pending = new ConcurrentLinkedQueue<>();
+        new LinkedHashSet<>(keys).stream().filter(key -> key != null).forEach(pending::add);
+
+        Map<K, V> found = new ConcurrentHashMap<>();
+        CompletableFuture<?>[] workers = IntStream.range(0, Math.min(maxConcurrency, pending.size()))
+                .mapToObj(i -> drainAsync(pending, lookup, found))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(workers).thenApply(ignored -> found);
+    }
+
+    /**
+     * Consome a fila de chaves uma a uma, encadeando a próxima consulta ao término da anterior
+     */
+    private <K, V> CompletableFuture<Void> drainAsync(Queue<K> pending,
+                                                      Function<K, CompletableFuture<Optional<V>>> lookup,
+                                                      Map<K, V> found) {
+        K key = pending.poll();
+        if (key == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return lookup.apply(key).thenCompose(value -> {
+            value.ifPresent(v -> found.put(key, v));
+            return drainAsync(pending, lookup, found);
+        });
+    }
+
+    /**
+     * Scan com filtro de igualdade - caminho de fallback quando o índice não está disponível
+     */
+    private <T> Stream<T> scan(DynamoDbTable<T> table, String attributeName, AttributeValue value,
+                               List<String> attributesToProject) {
+        return table.scan(equalityScan(attributeName, value, attributesToProject))
+                .items()
+                .stream();
+    }
+
+    /**
+     * Scan assíncrono com filtro de igualdade, interrompido no primeiro item encontrado
+     */
+    private <T> CompletableFuture<Optional<T>> scanFirstAsync(DynamoDbAsyncTable<T> table,
+                                                              String attributeName, AttributeValue value,
+                                                              List<String> attributesToProject) {
+        AtomicReference<T> first = new AtomicReference<>();
+        return table.scan(equalityScan(attributeName, value, attributesToProject))
+                .items()
+                .limit(1)
+                .subscribe(first::set)
+                .thenApply(ignored -> Optional.ofNullable(first.get()));
+    }
+
+    private QueryEnhancedRequest keyEqualTo(AttributeValue value, List<String> attributesToProject) {
+        QueryEnhancedRequest.Builder request = QueryEnhancedRequest.builder()
+                .queryConditional(QueryConditional.keyEqualTo(Key.builder().partitionValue(value).build()));
+        if (!attributesToProject.isEmpty()) {
+            request.attributesToProject(attributesToProject);
+        }
+        return request.build();
+    }
+
+    private ScanEnhancedRequest equalityScan(String attributeName, AttributeValue value, List<String> attributesToProject) {
+        ScanEnhancedRequest.Builder request = ScanEnhancedRequest.builder()
+                .filterExpression(Expression.builder()
+                        .expression("#attr = :value")
+                        .putExpressionName("#attr", attributeName)
+                        .putExpressionValue(":value", value)
+                        .build());
+        if (!attributesToProject.isEmpty()) {
+            request.attributesToProject(attributesToProject);
+        }
+        return request.build();
+    }
+
+    /**
+     * Indica se consultas ao índice estão habilitadas e se o índice não foi detectado como inexistente
+     * Permite aos repositórios escolher uma estratégia em lote (ex.: um único scan) quando o índice não está disponível
+     */
+    public boolean isIndexQueryable(DynamoDbTable<?> table, String indexName) {
+        return shouldQueryIndex(table.tableName(), indexName);
+    }
+
+    public boolean isIndexQueryable(DynamoDbAsyncTable<?> table, String indexName) {
+        return shouldQueryIndex(table.tableName(), indexName);
+    }
+
+    private boolean shouldQueryIndex(String tableName, String indexName) {
+        return indexQueriesEnabled && !missingIndexes.contains(indexKey(tableName, indexName));
+    }
+
+    private void markMissing(String tableName, String indexName) {
+        missingIndexes.add(indexKey(tableName, indexName));
+        logger.warn("Índice {} não encontrado na tabela {}, usando scan com filtro como fallback",
+                indexName, tableName);
+    }
+
+    /**
+     * O DynamoDB responde ValidationException quando o índice não existe na tabela
+     */
+    private boolean isMissingIndex(DynamoDbException e) {
+        String message = e.awsErrorDetails() != null ? e.awsErrorDetails().errorMessage() : e.getMessage();
+        return message != null && message.contains("specified index");
+    }
+
+    private String indexKey(String tableName, String indexName) {
+        return tableName + "#" + indexName;
+    }
+
+    private Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
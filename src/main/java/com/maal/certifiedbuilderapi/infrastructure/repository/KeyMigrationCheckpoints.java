@@ -0,0 +1,140 @@
+package com.maal.certifiedbuilderapi.infrastructure.repository;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Checkpoints e leases dos segmentos da migração para chaves naturais (tabela key_migration)
+ * Um item por segmento: {runId}:{tabela}:{total de segmentos}:{segmento}, com
+ * - lastKey: último id lido (retomada após interrupção, em qualquer instância)
+ * - owner/leaseUntil: instância que processa o segmento e validade do lease (epoch ms)
+ * - done: segmento concluído
+ *
+ * O lease é obtido e renovado com UpdateItem condicional, então cada segmento é processado
+ * por uma única instância por vez; o lease de uma instância que parou expira e o segmento é
+ * retomado por outra a partir do lastKey. Os itens expiram via TTL (expiresAt)
+ */
+final class KeyMigrationCheckpoints {
+
+    /**
+     * Resultado da tentativa de obter o lease de um segmento
+     */
+    enum ClaimStatus { ACQUIRED, BUSY, DONE }
+
+    /**
+     * Lease obtido (ou motivo da recusa) e último id gravado do segmento
+     */
+    record Claim(ClaimStatus status, String lastKey) {
+    }
+
+    private static final Duration RETENTION = Duration.ofDays(30);
+
+    private final DynamoDbClient dynamoDbClient;
+    private final String tableName;
+    private final String runId;
+    private final String owner;
+    private final Duration leaseDuration;
+
+    KeyMigrationCheckpoints(DynamoDbClient dynamoDbClient, String tableName, String runId, String owner,
+                            Duration leaseDuration) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.tableName = tableName;
+        this.runId = runId;
+        this.owner = owner;
+        this.leaseDuration = leaseDuration;
+    }
+
+    /**
+     * Obtém o lease do segmento se ele não estiver concluído nem com lease válido de outra instância
+     */
+    Claim claim(String segmentKey) {
+        long now = System.currentTimeMillis();
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":owner", string(owner));
+        values.put(":now", number(now));
+        values.put(":until", number(now + leaseDuration.toMillis()));
+        values.put(":expires", number(Instant.now().plus(RETENTION).getEpochSecond()));
+        try {
+            UpdateItemResponse response = dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                    .tableName(tableName)
+                    .key(key(segmentKey))
+                    .updateExpression("SET #owner = :owner, leaseUntil = :until, expiresAt = if_not_exists(expiresAt, :expires)")
+                    .conditionExpression("attribute_not_exists(done) AND "
+                            + "(attribute_not_exists(leaseUntil) OR leaseUntil < :now OR #owner = :owner)")
+                    .expressionAttributeNames(Map.of("#owner", "owner"))
+                    .expressionAttributeValues(values)
+                    .returnValues(ReturnValue.ALL_NEW)
+                    .build());
+            AttributeValue lastKey = response.attributes().get("lastKey");
+            return new Claim(ClaimStatus.ACQUIRED, lastKey != null ? lastKey.s() : null);
+        } catch (ConditionalCheckFailedException e) {
+            boolean done = dynamoDbClient.getItem(request -> request
+                            .tableName(tableName)
+                            .key(key(segmentKey))
+                            .consistentRead(true))
+                    .item()
+                    .containsKey("done");
+            return new Claim(done ? ClaimStatus.DONE : ClaimStatus.BUSY, null);
+        }
+    }
+
+    /**
+     * Grava o último id lido e renova o lease
+     *
+     * @return false se o lease foi perdido para outra instância (o segmento deve ser abandonado)
+     */
+    boolean save(String segmentKey, String lastKey) {
+        return updateOwned(segmentKey, "SET lastKey = :lastKey, leaseUntil = :until",
+                Map.of(":lastKey", string(lastKey),
+                        ":until", number(System.currentTimeMillis() + leaseDuration.toMillis())));
+    }
+
+    /**
+     * Marca o segmento como concluído e libera o lease
+     *
+     * @return false se o lease foi perdido para outra instância
+     */
+    boolean complete(String segmentKey) {
+        return updateOwned(segmentKey, "SET done = :done REMOVE leaseUntil",
+                Map.of(":done", AttributeValue.builder().bool(true).build()));
+    }
+
+    private boolean updateOwned(String segmentKey, String updateExpression, Map<String, AttributeValue> values) {
+        Map<String, AttributeValue> allValues = new HashMap<>(values);
+        allValues.put(":owner", string(owner));
+        try {
+            dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                    .tableName(tableName)
+                    .key(key(segmentKey))
+                    .updateExpression(updateExpression)
+                    .conditionExpression("#owner = :owner")
+                    .expressionAttributeNames(Map.of("#owner", "owner"))
+                    .expressionAttributeValues(allValues)
+                    .build());
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        }
+    }
+
+    private Map<String, AttributeValue> key(String segmentKey) {
+        return Map.of("id", string(runId + ":" + segmentKey));
+    }
+
+    private static AttributeValue string(String value) {
+        return AttributeValue.builder().s(value).build();
+    }
+
+    private static AttributeValue number(long value) {
+        return AttributeValue.builder().n(Long.toString(value)).build();
+    }
+}
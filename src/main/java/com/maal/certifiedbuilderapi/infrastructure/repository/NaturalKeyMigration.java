@@ -0,0 +1,361 @@
+package com.maal.certifiedbuilderapi.infrastructure.repository;
+
+import com.maal.certifiedbuilderapi.domain.entity.CertificateEntity;
+import com.maal.certifiedbuilderapi.domain.entity.OrderEntity;
+import com.maal.certifiedbuilderapi.domain.entity.ParticipantEntity;
+import com.maal.certifiedbuilderapi.domain.entity.ProductEntity;
+import com.maal.certifiedbuilderapi.infrastructure.repository.KeyMigrationCheckpoints.Claim;
+import com.maal.certifiedbuilderapi.infrastructure.repository.KeyMigrationCheckpoints.ClaimStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Migração online das tabelas para chaves naturais (ver EntityKeyStrategy)
+ * Pedidos e certificados passam a usar o orderId como id, produtos o productId
+ * e participantes o email normalizado
+ *
+ * Cada tabela é percorrida com scan paralelo (amazon.dynamodb.key-migration.segments segmentos,
+ * um por virtual thread). Para cada item com id aleatório:
+ * 1. grava uma cópia (atributos brutos, com o id natural) usando attribute_not_exists(id)
+ * 2. remove o item antigo somente se ele ainda estiver no estado lido pelo scan
+ * Se o item antigo mudou entre o scan e a remoção, ele é relido e copiado de novo antes de
+ * nova tentativa, de modo que nenhuma gravação concorrente é perdida. Se a cópia já existia
+ * (migrada antes ou gravada após a troca de estratégia), o item existente é mantido e o antigo
+ * é apenas removido, eliminando duplicados da mesma chave natural; um item antigo alterado nesse
+ * caso é mantido para a próxima execução. A execução é idempotente.
+ *
+ * O progresso fica na tabela amazon.dynamodb.key-migration.checkpoint-table (ver
+ * KeyMigrationCheckpoints): cada segmento é processado por uma instância de cada vez, sob lease,
+ * e uma instância que parar tem seus segmentos retomados por outra a partir do último checkpoint.
+ * As páginas do scan têm no máximo amazon.dynamodb.key-migration.page-size itens e o checkpoint
+ * (que renova o lease) é salvo a cada página e, dentro dela, sempre que um terço do lease passa
+ * desde a última renovação, de modo que um segmento lento não perde o lease no meio da página.
+ * Cada instância com a migração habilitada aguarda até todos os segmentos da tabela serem
+ * concluídos antes de passar à próxima. Para percorrer as tabelas novamente (ex.: mover itens
+ * gravados durante a transição), altere amazon.dynamodb.key-migration.run-id
+ *
+ * Executa na inicialização quando amazon.dynamodb.key-migration.enabled=true
+ */
+@Component
+@Profile("!test")
+@ConditionalOnProperty(name = "amazon.dynamodb.key-migration.enabled", havingValue = "true")
+public class NaturalKeyMigration implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(NaturalKeyMigration.class);
+
+    // Novas cópias de um item antigo alterado durante a migração antes de desistir
+    private static final int MAX_RECOPY_ATTEMPTS = 3;
+
+    private final DynamoDbTable<OrderEntity> orderTable;
+    private final DynamoDbTable<CertificateEntity> certificateTable;
+    private final DynamoDbTable<ProductEntity> productTable;
+    private final DynamoDbTable<ParticipantEntity> participantTable;
+    private final DynamoDbClient dynamoDbClient;
+    private final EntityKeyStrategy keyStrategy;
+    private final KeyMigrationCheckpoints checkpoints;
+    private final int segments;
+    private final int pageSize;
+    private final Duration pollInterval;
+    private final Duration renewInterval;
+
+    public NaturalKeyMigration(DynamoDbTable<OrderEntity> orderTable,
+                               DynamoDbTable<CertificateEntity> certificateTable,
+                               DynamoDbTable<ProductEntity> productTable,
+                               DynamoDbTable<ParticipantEntity> participantTable,
+                               DynamoDbClient dynamoDbClient,
+                               EntityKeyStrategy keyStrategy,
+                               @Value("${amazon.dynamodb.key-migration.segments:8}") int segments,
+                               @Value("${amazon.dynamodb.key-migration.checkpoint-table:key_migration}") String checkpointTable,
+                               @Value("${amazon.dynamodb.key-migration.run-id:1}") String runId,
+                               @Value("${amazon.dynamodb.key-migration.lease-seconds:60}") long leaseSeconds,
+                               @Value("${amazon.dynamodb.key-migration.page-size:100}") int pageSize) {
+        this.orderTable = orderTable;
+        this.certificateTable = certificateTable;
+        this.productTable = productTable;
+        this.participantTable = participantTable;
+        this.dynamoDbClient = dynamoDbClient;
+        this.keyStrategy = keyStrategy;
+        this.segments = Math.max(1, segments);
+        this.pageSize = Math.max(1, pageSize);
+        Duration leaseDuration = Duration.ofSeconds(Math.max(10, leaseSeconds));
+        this.pollInterval = leaseDuration.dividedBy(2);
+        this.renewInterval = leaseDuration.dividedBy(3);
+        this.checkpoints = new KeyMigrationCheckpoints(dynamoDbClient, checkpointTable, runId,
+                UUID.randomUUID().toString(), leaseDuration);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        logger.info("Iniciando migração para chaves naturais ({} segmentos por tabela)", segments);
+
+        migrateTable(orderTable,
+                order -> order.getOrderId() != null ? keyStrategy.orderKey(order.getOrderId()) : null);
+        migrateTable(certificateTable,
+                certificate -> certificate.getOrderId() != null ? keyStrategy.certificateKey(certificate.getOrderId()) : null);
+        migrateTable(productTable,
+                product -> product.getProductId() != null ? keyStrategy.productKey(product.getProductId()) : null);
+        migrateTable(participantTable,
+                participant -> participant.getEmail() != null ? keyStrategy.participantKey(participant.getEmail()) : null);
+
+        logger.info("Migração para chaves naturais concluída");
+    }
+
+    /**
+     * Migra uma tabela percorrendo seus segmentos em paralelo
+     * Segmentos sob lease de outra instância são tentados de novo até todos estarem concluídos
+     */
+    private <T> void migrateTable(DynamoDbTable<T> table, Function<T, String> naturalKey) {
+        MigrationStats stats = new MigrationStats();
+
+        while (true) {
+            List<Future<ClaimStatus>> futures = new ArrayList<>(segments);
+            int busy = 0;
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int segment = 0; segment < segments; segment++) {
+                    int current = segment;
+                    futures.add(executor.submit(() -> migrateSegment(table, current, naturalKey, stats)));
+                }
+                for (Future<ClaimStatus> future : futures) {
+                    if (future.get() != ClaimStatus.DONE) {
+                        busy++;
+                    }
+                }
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException("Falha na migração da tabela " + table.tableName(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Migração da tabela " + table.tableName() + " interrompida", e);
+            }
+
+            if (busy == 0) {
+                break;
+            }
+            logger.info("{} segmentos da tabela {} em processamento por outra instância, aguardando {}s",
+                    busy, table.tableName(), pollInterval.toSeconds());
+            sleep(pollInterval);
+        }
+
+        logger.info("Tabela {} migrada - copiados: {}, já existentes: {}, já no layout natural: {}, "
+                        + "sem chave natural: {}, mantidos por alteração concorrente: {}",
+                table.tableName(), stats.copied, stats.conflicts, stats.alreadyNatural, stats.skipped, stats.retained);
+    }
+
+    /**
+     * Percorre um segmento página a página sob lease, retomando do último checkpoint salvo
+     *
+     * @return DONE se o segmento foi concluído (agora ou antes), BUSY se está com outra instância
+     */
+    private <T> ClaimStatus migrateSegment(DynamoDbTable<T> table, int segment, Function<T, String> naturalKey,
+                                           MigrationStats stats) {
+        String segmentKey = table.tableName() + ":" + segments + ":" + segment;
+        Claim claim = checkpoints.claim(segmentKey);
+        if (claim.status() != ClaimStatus.ACQUIRED) {
+            logger.debug("Segmento {} {}", segmentKey, claim.status() == ClaimStatus.DONE ? "já concluído" : "com outra instância");
+            return claim.status();
+        }
+
+        ScanRequest.Builder request = ScanRequest.builder()
+                .tableName(table.tableName())
+                .segment(segment)
+                .totalSegments(segments)
+                .limit(pageSize)
+                .consistentRead(true);
+        if (claim.lastKey() != null) {
+            logger.info("Retomando segmento {} a partir do id {}", segmentKey, claim.lastKey());
+            request.exclusiveStartKey(Map.of("id", AttributeValue.builder().s(claim.lastKey()).build()));
+        }
+
+        long lastRenewal = System.nanoTime();
+        for (ScanResponse page : dynamoDbClient.scanPaginator(request.build())) {
+            for (Map<String, AttributeValue> raw : page.items()) {
+                migrateItem(table, raw, naturalKey, stats);
+                // Página lenta (ex.: gravações limitadas): renova o lease a partir do último item migrado
+                if (System.nanoTime() - lastRenewal >= renewInterval.toNanos()) {
+                    if (!checkpoints.save(segmentKey, raw.get("id").s())) {
+                        logger.warn("Lease do segmento {} perdido, segmento continua em outra instância", segmentKey);
+                        return ClaimStatus.BUSY;
+                    }
+                    lastRenewal = System.nanoTime();
+                }
+            }
+
+            Map<String, AttributeValue> lastEvaluatedKey = page.lastEvaluatedKey();
+            if (lastEvaluatedKey != null && lastEvaluatedKey.containsKey("id")) {
+                if (!checkpoints.save(segmentKey, lastEvaluatedKey.get("id").s())) {
+                    logger.warn("Lease do segmento {} perdido, segmento continua em outra instância", segmentKey);
+                    return ClaimStatus.BUSY;
+                }
+                lastRenewal = System.nanoTime();
+            }
+        }
+        return checkpoints.complete(segmentKey) ? ClaimStatus.DONE : ClaimStatus.BUSY;
+    }
+
+    /**
+     * Copia o item para o id natural (se ainda não existir) e remove o item antigo se ele
+     * não mudou desde a leitura; se mudou, copia o novo estado e tenta de novo
+     */
+    private <T> void migrateItem(DynamoDbTable<T> table, Map<String, AttributeValue> raw,
+                                 Function<T, String> naturalKey, MigrationStats stats) {
+        TableSchema<T> schema = table.tableSchema();
+        String oldId = raw.get("id").s();
+        String newId = naturalKey.apply(schema.mapToItem(raw));
+
+        if (newId == null) {
+            stats.skipped.increment();
+            logger.warn("Item {} da tabela {} sem chave natural, mantido com id aleatório", oldId, table.tableName());
+            return;
+        }
+        if (newId.equals(oldId)) {
+            stats.alreadyNatural.increment();
+            return;
+        }
+
+        boolean created = putCopy(table.tableName(), raw, newId, true);
+        if (created) {
+            stats.copied.increment();
+        } else {
+            // Já existe item com o id natural: mantém o existente
+            stats.conflicts.increment();
+        }
+
+        Map<String, AttributeValue> current = raw;
+        for (int attempt = 1; ; attempt++) {
+            if (deleteIfUnchanged(table.tableName(), schema, current)) {
+                return;
+            }
+            current = dynamoDbClient.getItem(request -> request
+                            .tableName(table.tableName())
+                            .key(Map.of("id", AttributeValue.builder().s(oldId).build()))
+                            .consistentRead(true))
+                    .item();
+            if (current == null || current.isEmpty()) {
+                return;
+            }
+            if (!created || attempt >= MAX_RECOPY_ATTEMPTS) {
+                stats.retained.increment();
+                logger.warn("Item {} da tabela {} alterado durante a migração, mantido para a próxima execução",
+                        oldId, table.tableName());
+                return;
+            }
+            // A cópia foi criada por esta migração: atualiza com o estado atual do item antigo
+            putCopy(table.tableName(), current, newId, false);
+        }
+    }
+
+    /**
+     * Grava os atributos do item com o id natural
+     *
+     * @param onlyIfAbsent true para não sobrescrever um item existente
+     * @return false se onlyIfAbsent e o item já existia
+     */
+    private boolean putCopy(String tableName, Map<String, AttributeValue> raw, String newId, boolean onlyIfAbsent) {
+        Map<String, AttributeValue> copy = new HashMap<>(raw);
+        copy.put("id", AttributeValue.builder().s(newId).build());
+        try {
+            dynamoDbClient.putItem(request -> {
+                request.tableName(tableName).item(copy);
+                if (onlyIfAbsent) {
+                    request.conditionExpression(ConditionalWrites.ID_NOT_EXISTS.expression());
+                }
+            });
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Remove o item somente se todos os atributos do schema ainda tiverem os valores lidos
+     * (atributos ausentes na leitura devem continuar ausentes)
+     *
+     * @return false se o item mudou
+     */
+    private <T> boolean deleteIfUnchanged(String tableName, TableSchema<T> schema, Map<String, AttributeValue> raw) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        int index = 0;
+        for (String attribute : schema.attributeNames()) {
+            if (attribute.equals("id")) {
+                continue;
+            }
+            String name = "#a" + index;
+            names.put(name, attribute);
+            AttributeValue value = raw.get(attribute);
+            if (value != null) {
+                String placeholder = ":v" + index;
+                values.put(placeholder, value);
+                conditions.add(name + " = " + placeholder);
+            } else {
+                conditions.add("attribute_not_exists(" + name + ")");
+            }
+            index++;
+        }
+        conditions.add("attribute_exists(id)");
+
+        try {
+            dynamoDbClient.deleteItem(request -> {
+                request.tableName(tableName)
+                        .key(Map.of("id", raw.get("id")))
+                        .conditionExpression(String.join(" AND ", conditions))
+                        .expressionAttributeNames(names);
+                if (!values.isEmpty()) {
+                    request.expressionAttributeValues(values);
+                }
+            });
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Migração para chaves naturais interrompida", e);
+        }
+    }
+
+    /**
+     * Contadores de uma tabela, compartilhados entre os segmentos
+     */
+    private static class MigrationStats {
+        private final LongAdder copied = new LongAdder();
+        private final LongAdder conflicts = new LongAdder();
+        private final LongAdder alreadyNatural = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+        private final LongAdder retained = new LongAdder();
+    }
+}
@@ -0,0 +1,153 @@
+package com.maal.certifiedbuilderapi.infrastructure.repository;
+
+import com.maal.certifiedbuilderapi.domain.entity.OrderEntity;
+import com.maal.certifiedbuilderapi.infrastructure.repository.AsyncWriteSupport.CreateOutcome;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Repository assíncrono para OrderEntity usando DynamoDbEnhancedAsyncClient
+ * Operações retornam CompletableFuture e não bloqueiam a thread chamadora
+ */
+@Repository
+public class OrderAsyncRepository {
+
+    private static final String ORDER_ID_INDEX = "OrderIdIndex";
+
+    // Projeção usada na verificação de existência: apenas id e orderId
+    private static final List<String> ORDER_ID_ATTRIBUTES = List.of("id", "orderId");
+
+    private final DynamoDbAsyncTable<OrderEntity> orderTable;
+    private final IndexQuerySupport indexQuerySupport;
+    private final AsyncWriteSupport asyncWriteSupport;
+    private final EntityKeyStrategy keyStrategy;
+
+    @Autowired
+    public OrderAsyncRepository(DynamoDbAsyncTable<OrderEntity> orderTable, IndexQuerySupport indexQuerySupport,
+                                AsyncWriteSupport asyncWriteSupport, EntityKeyStrategy keyStrategy) {
+        this.orderTable = orderTable;
+        this.indexQuerySupport = indexQuerySupport;
+        this.asyncWriteSupport = asyncWriteSupport;
+        this.keyStrategy = keyStrategy;
+    }
+
+    /**
+     * Salva ou atualiza um pedido
+     */
+    public CompletableFuture<OrderEntity> save(OrderEntity order) {
+        return orderTable.putItem(keyStrategy.assignKey(order)).thenApply(ignored -> order);
+    }
+
+    /**
+     * Cria o pedido somente se ainda não existir (attribute_not_exists(id))
+     * Com chaves naturais substitui a verificação de existência: a falha da condição
+     * indica pedido já cadastrado, sem leitura prévia
+     *
+     * @return Future com true se foi criado, false se já existia
+     */
+    public CompletableFuture<Boolean> create(OrderEntity order) {
+        return ConditionalWrites.createAsync(orderTable, OrderEntity.class, keyStrategy.assignKey(order));
+    }
+
+    /**
+     * Cria vários pedidos com gravações condicionais concorrentes, mantendo até
+     * amazon.dynamodb.async-writes.max-concurrency requisições em andamento
+     * Pedidos com o mesmo orderId são gravados uma única vez
+     *
+     * @param orders Pedidos a criar
+     * @return Future com os orderIds criados, já existentes e com falha na gravação
+     */
+    public CompletableFuture<CreateOutcome<Integer>> createAll(Collection<OrderEntity> orders) {
+        Map<Integer, OrderEntity> ordersById = new LinkedHashMap<>();
+        orders.forEach(order -> ordersById.putIfAbsent(order.getOrderId(), order));
+        return asyncWriteSupport.createAll(ordersById.keySet(), orderId -> create(ordersById.get(orderId)), "pedido");
+    }
+
+    /**
+     * Busca pedido por ID
+     */
+    public CompletableFuture<Optional<OrderEntity>> findById(String id) {
+        return orderTable.getItem(Key.builder().partitionValue(id).build())
+            .thenApply(Optional::ofNullable);
+    }
+
+    /**
+     * Busca pedido por orderId único
+     * Com chaves naturais é um GetItem direto; caso contrário consulta o índice OrderIdIndex
+     * (com fallback para scan quando o índice não existe)
+     */
+    public CompletableFuture<Optional<OrderEntity>> findByOrderId(Integer orderId) {
+        if (keyStrategy.isNatural()) {
+            return findById(keyStrategy.orderKey(orderId));
+        }
+        return indexQuerySupport.queryFirstAsync(orderTable, ORDER_ID_INDEX, "orderId",
+                AttributeValue.builder().n(String.valueOf(orderId)).build());
+    }
+
+    /**
+     * Busca vários pedidos por orderId mantendo até amazon.dynamodb.index-queries.max-concurrency
+     * consultas em andamento (GetItem com chaves naturais, OrderIdIndex caso contrário)
+     * Pedidos não encontrados ficam fora do mapa
+     *
+     * @param orderIds IDs de pedidos a buscar
+     * @return Future com o mapa orderId -> pedido encontrado
+     */
+    public CompletableFuture<Map<Integer, OrderEntity>> findByOrderIds(Collection<Integer> orderIds) {
+        return indexQuerySupport.lookupAllAsync(orderIds, this::findByOrderId);
+    }
+
+    /**
+     * Verifica em lote quais orderIds já existem na tabela
+     * Com chaves naturais, mantém até max-concurrency GetItem em andamento;
+     * com o índice disponível, mantém até amazon.dynamodb.index-queries.max-concurrency consultas
+     * em andamento; sem o índice, faz um único scan em vez de um scan por pedido.
+     * Lê apenas id e orderId de cada item
+     *
+     * @param orderIds IDs de pedidos a verificar
+     * @return Future com o conjunto dos orderIds que já existem
+     */
+    public CompletableFuture<Set<Integer>> findExistingOrderIds(Collection<Integer> orderIds) {
+        if (orderIds.isEmpty()) {
+            return CompletableFuture.completedFuture(Set.of());
+        }
+
+        if (keyStrategy.isNatural()) {
+            return indexQuerySupport.lookupAllAsync(orderIds, this::findByOrderId)
+                .thenApply(found -> new HashSet<>(found.keySet()));
+        }
+
+        if (!indexQuerySupport.isIndexQueryable(orderTable, ORDER_ID_INDEX)) {
+            Set<Integer> requested = new HashSet<>(orderIds);
+            Set<Integer> existing = ConcurrentHashMap.newKeySet();
+            return orderTable.scan(ScanEnhancedRequest.builder()
+                    .attributesToProject(ORDER_ID_ATTRIBUTES)
+                    .build())
+                .items()
+                .subscribe(order -> {
+                    if (requested.contains(order.getOrderId())) {
+                        existing.add(order.getOrderId());
+                    }
+                })
+                .thenApply(ignored -> existing);
+        }
+
+        return indexQuerySupport.lookupAllAsync(orderIds, orderId ->
+                indexQuerySupport.queryFirstAsync(orderTable, ORDER_ID_INDEX, "orderId",
+                    AttributeValue.builder().n(String.valueOf(orderId)).build(), ORDER_ID_ATTRIBUTES))
+            .thenApply(found -> new HashSet<>(found.keySet()));
+    }
+}
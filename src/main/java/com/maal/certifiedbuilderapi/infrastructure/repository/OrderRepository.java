@@ -7,8 +7,11 @@ import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -18,21 +21,46 @@ import java.util.stream.Collectors;
 @Repository
 public class OrderRepository {
 
+    private static final String ORDER_ID_INDEX = "OrderIdIndex";
+
+    // Projeções: apenas os atributos necessários para existência e remoção
+    private static final List<String> ORDER_ID_ATTRIBUTES = List.of("id", "orderId");
+    private static final List<String> KEY_ATTRIBUTES = List.of("id");
+
     private final DynamoDbTable<OrderEntity> orderTable;
+    private final IndexQuerySupport indexQuerySupport;
+    private final BatchWriteSupport batchWriteSupport;
+    private final ParallelScanSupport parallelScanSupport;
+    private final EntityKeyStrategy keyStrategy;
 
     @Autowired
-    public OrderRepository(DynamoDbTable<OrderEntity> orderTable) {
+    public OrderRepository(DynamoDbTable<OrderEntity> orderTable, IndexQuerySupport indexQuerySupport, BatchWriteSupport batchWriteSupport, ParallelScanSupport parallelScanSupport, EntityKeyStrategy keyStrategy) {
         this.orderTable = orderTable;
+        this.indexQuerySupport = indexQuerySupport;
+        this.batchWriteSupport = batchWriteSupport;
+        this.parallelScanSupport = parallelScanSupport;
+        this.keyStrategy = keyStrategy;
     }
 
     /**
      * Salva ou atualiza um pedido
      */
     public OrderEntity save(OrderEntity order) {
-        orderTable.putItem(order);
+        orderTable.putItem(keyStrategy.assignKey(order));
         return order;
     }
 
+    /**
+     * Salva ou atualiza vários pedidos usando BatchWriteItem (lotes de 25)
+     * Itens não processados são reenviados com backoff e jitter
+     *
+     * @return Pedidos que não puderam ser gravados após todas as tentativas
+     */
+    public List<OrderEntity> saveAll(Collection<OrderEntity> orders) {
+        orders.forEach(keyStrategy::assignKey);
+        return batchWriteSupport.putAll(orderTable, OrderEntity.class, orders);
+    }
+
     /**
      * Busca pedido por ID
      */
@@ -43,40 +71,74 @@ public class OrderRepository {
 
     /**
      * Busca pedido por orderId único
-     * Usa scan com filtro para localizar por orderId
+     * Com chaves naturais é um GetItem direto; caso contrário consulta o índice OrderIdIndex
+     * (com fallback para scan quando o índice não existe)
      */
     public Optional<OrderEntity> findByOrderId(Integer orderId) {
-        return orderTable.scan(ScanEnhancedRequest.builder()
-                .filterExpression(software.amazon.awssdk.enhanced.dynamodb.Expression.builder()
-                    .expression("orderId = :orderId")
-                    .putExpressionValue(":orderId", software.amazon.awssdk.services.dynamodb.model.AttributeValue.builder()
-                        .n(String.valueOf(orderId))
-                        .build())
+        if (keyStrategy.isNatural()) {
+            return findById(keyStrategy.orderKey(orderId));
+        }
+        return indexQuerySupport.query(orderTable, ORDER_ID_INDEX, "orderId",
+                software.amazon.awssdk.services.dynamodb.model.AttributeValue.builder()
+                    .n(String.valueOf(orderId))
                     .build())
-                .build())
-            .items()
-            .stream()
             .findFirst();
     }
 
+    /**
+     * Verifica em lote quais orderIds já existem na tabela
+     * Com chaves naturais, dispara GetItem concorrentes pela chave;
+     * com o índice disponível, dispara consultas concorrentes ao OrderIdIndex
+     * (limitadas por amazon.dynamodb.index-queries.max-concurrency);
+     * sem o índice, faz um único scan em vez de um scan por pedido.
+     * Lê apenas id e orderId de cada item
+     *
+     * @param orderIds IDs de pedidos a verificar
+     * @return Conjunto com os orderIds que já existem
+     */
+    public Set<Integer> findExistingOrderIds(Collection<Integer> orderIds) {
+        if (orderIds.isEmpty()) {
+            return Set.of();
+        }
+
+        if (keyStrategy.isNatural()) {
+            return new HashSet<>(indexQuerySupport.lookupAll(orderIds, this::findByOrderId).keySet());
+        }
+
+        if (!indexQuerySupport.isIndexQueryable(orderTable, ORDER_ID_INDEX)) {
+            Set<Integer> requested = new HashSet<>(orderIds);
+            return parallelScanSupport.scanAll(orderTable, null, ORDER_ID_ATTRIBUTES).stream()
+                .map(OrderEntity::getOrderId)
+                .filter(requested::contains)
+                .collect(Collectors.toSet());
+        }
+
+        return new HashSet<>(indexQuerySupport.lookupAll(orderIds, orderId ->
+            indexQuerySupport.query(orderTable, ORDER_ID_INDEX, "orderId", orderIdValue(orderId), ORDER_ID_ATTRIBUTES)
+                .findFirst()).keySet());
+    }
+
     /**
      * Lista pedidos por productId
      * Usa scan com filtro
      */
     public List<OrderEntity> findByProductId(Integer productId) {
         return orderTable.scan(ScanEnhancedRequest.builder()
-                .filterExpression(software.amazon.awssdk.enhanced.dynamodb.Expression.builder()
-                    .expression("productId = :productId")
-                    .putExpressionValue(":productId", software.amazon.awssdk.services.dynamodb.model.AttributeValue.builder()
-                        .n(String.valueOf(productId))
-                        .build())
-                    .build())
+                .filterExpression(productIdFilter(productId))
                 .build())
             .items()
             .stream()
             .collect(Collectors.toList());
     }
 
+    /**
+     * Conta pedidos por productId
+     * Scan paralelo com Select.COUNT e filtro - nenhum item é desserializado
+     */
+    public long countByProductId(Integer productId) {
+        return parallelScanSupport.count(orderTable, productIdFilter(productId));
+    }
+
     /**
      * Busca pedidos por email do participante
      * Usa scan com filtro
@@ -97,18 +159,19 @@ public class OrderRepository {
 
     /**
      * Remove pedidos por productId
-     * Localiza todos os pedidos com o productId e remove cada um
+     * Coleta apenas as chaves (id) dos pedidos do produto e remove cada um
      */
     public void deleteByProductId(Integer productId) {
-        List<OrderEntity> orders = findByProductId(productId);
-        orders.forEach(order -> orderTable.deleteItem(Key.builder().partitionValue(order.getId()).build()));
+        parallelScanSupport.scanAll(orderTable, productIdFilter(productId), KEY_ATTRIBUTES)
+            .forEach(order -> orderTable.deleteItem(Key.builder().partitionValue(order.getId()).build()));
     }
 
     /**
      * Lista todos os pedidos
+     * Usa scan paralelo segmentado (amazon.dynamodb.parallel-scan.segments)
      */
     public List<OrderEntity> findAll() {
-        return orderTable.scan().items().stream().collect(Collectors.toList());
+        return parallelScanSupport.scanAll(orderTable);
     }
 
     /**
@@ -124,4 +187,27 @@ public class OrderRepository {
     public boolean existsById(String id) {
         return findById(id).isPresent();
     }
+
+    /**
+     * Conta total de pedidos
+     * Scan paralelo com Select.COUNT - nenhum item é desserializado
+     */
+    public long count() {
+        return parallelScanSupport.count(orderTable);
+    }
+
+    private software.amazon.awssdk.enhanced.dynamodb.Expression productIdFilter(Integer productId) {
+        return software.amazon.awssdk.enhanced.dynamodb.Expression.builder()
+            .expression("productId = :productId")
+            .putExpressionValue(":productId", software.amazon.awssdk.services.dynamodb.model.AttributeValue.builder()
+                .n(String.valueOf(productId))
+                .build())
+            .build();
+    }
+
+    private software.amazon.awssdk.services.dynamodb.model.AttributeValue orderIdValue(Integer orderId) {
+        return software.amazon.awssdk.services.dynamodb.model.AttributeValue.builder()
+            .n(String.valueOf(orderId))
+            .build();
+    }
 }
@@ -0,0 +1,152 @@
+package com.maal.certifiedbuilderapi.infrastructure.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.Select;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+/**
+ * Suporte a scans paralelos segmentados no DynamoDB
+ * Divide a tabela em amazon.dynamodb.parallel-scan.segments segmentos (Segment/TotalSegments),
+ * cada um lido por uma virtual thread própria
+ *
+ * Contagens usam Select.COUNT no cliente de baixo nível: o DynamoDB devolve apenas
+ * o total por página, sem materializar os itens
+ */
+@Component
+public class ParallelScanSupport {
+
+    private final DynamoDbClient dynamoDbClient;
+    private final int segments;
+
+    public ParallelScanSupport(DynamoDbClient dynamoDbClient,
+                               @Value("${amazon.dynamodb.parallel-scan.segments:4}") int segments) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.segments = Math.max(1, segments);
+    }
+
+    /**
+     * Lê todos os itens da tabela com scan paralelo
+     *
+     * @param table Tabela mapeada
+     * @return Itens de todos os segmentos (sem ordem definida)
+     */
+    public <T> List<T> scanAll(DynamoDbTable<T> table) {
+        return scanAll(table, null);
+    }
+
+    /**
+     * Lê os itens da tabela que atendem ao filtro com scan paralelo
+     *
+     * @param table Tabela mapeada
+     * @param filter Expressão de filtro (null para todos os itens)
+     * @return Itens de todos os segmentos (sem ordem definida)
+     */
+    public <T> List<T> scanAll(DynamoDbTable<T> table, Expression filter) {
+        return scanAll(table, filter, List.of());
+    }
+
+    /**
+     * Lê apenas os atributos informados dos itens que atendem ao filtro, com scan paralelo
+     * Os demais campos ficam nulos; inclua "id" quando a chave primária for necessária
+     *
+     * @param table Tabela mapeada
+     * @param filter Expressão de filtro (null para todos os itens)
+     * @param attributesToProject Atributos a ler (vazio lê o item completo)
+     * @return Itens de todos os segmentos (sem ordem definida)
+     */
+    public <T> List<T> scanAll(DynamoDbTable<T> table, Expression filter, List<String> attributesToProject) {
+        List<List<T>> results = runSegments(segment -> {
+            ScanEnhancedRequest.Builder request = ScanEnhancedRequest.builder()
+                    .segment(segment)
+                    .totalSegments(segments)
+                    .filterExpression(filter);
+            if (!attributesToProject.isEmpty()) {
+                request.attributesToProject(attributesToProject);
+            }
+            return table.scan(request.build()).items().stream().toList();
+        });
+
+        List<T> items = new ArrayList<>();
+        results.forEach(items::addAll);
+        return items;
+    }
+
+    /**
+     * Conta os itens da tabela com scan paralelo e Select.COUNT
+     *
+     * @param table Tabela mapeada
+     * @return Total de itens
+     */
+    public long count(DynamoDbTable<?> table) {
+        return count(table, null);
+    }
+
+    /**
+     * Conta os itens da tabela que atendem ao filtro com scan paralelo e Select.COUNT
+     *
+     * @param table Tabela mapeada
+     * @param filter Expressão de filtro (null para todos os itens)
+     * @return Total de itens que atendem ao filtro
+     */
+    public long count(DynamoDbTable<?> table, Expression filter) {
+        return runSegments(segment -> {
+                    ScanRequest.Builder request = ScanRequest.builder()
+                            .tableName(table.tableName())
+                            .select(Select.COUNT)
+                            .segment(segment)
+                            .totalSegments(segments);
+                    if (filter != null) {
+                        request.filterExpression(filter.expression())
+                                .expressionAttributeNames(filter.expressionNames())
+                                .expressionAttributeValues(filter.expressionValues());
+                    }
+                    return dynamoDbClient.scanPaginator(request.build()).stream()
+                            .mapToLong(ScanResponse::count)
+                            .sum();
+                })
+                .stream()
+                .mapToLong(Long::longValue)
+                .sum();
+    }
+
+    /**
+     * Executa a leitura de cada segmento em uma virtual thread e aguarda todas terminarem
+     */
+    private <R> List<R> runSegments(IntFunction<R> segmentReader) {
+        List<Future<R>> futures = new ArrayList<>(segments);
+        List<R> results = new ArrayList<>(segments);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int segment = 0; segment < segments; segment++) {
+                int current = segment;
+                futures.add(executor.submit(() -> segmentReader.apply(current)));
+            }
+            for (Future<R> future : futures) {
+                results.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Falha em scan paralelo", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Scan paralelo interrompido", e);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,103 @@
+package com.maal.certifiedbuilderapi.infrastructure.repository;
+
+import com.maal.certifiedbuilderapi.domain.entity.ParticipantEntity;
+import com.maal.certifiedbuilderapi.infrastructure.repository.AsyncWriteSupport.CreateOutcome;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Repository assíncrono para ParticipantEntity usando DynamoDbEnhancedAsyncClient
+ * Operações retornam CompletableFuture e não bloqueiam a thread chamadora
+ */
+@Repository
+public class ParticipantAsyncRepository {
+
+    private static final String EMAIL_INDEX = "EmailIndex";
+
+    private final DynamoDbAsyncTable<ParticipantEntity> participantTable;
+    private final IndexQuerySupport indexQuerySupport;
+    private final AsyncWriteSupport asyncWriteSupport;
+    private final EntityKeyStrategy keyStrategy;
+
+    @Autowired
+    public ParticipantAsyncRepository(DynamoDbAsyncTable<ParticipantEntity> participantTable, IndexQuerySupport indexQuerySupport,
+                                      AsyncWriteSupport asyncWriteSupport, EntityKeyStrategy keyStrategy) {
+        this.participantTable = participantTable;
+        this.indexQuerySupport = indexQuerySupport;
+        this.asyncWriteSupport = asyncWriteSupport;
+        this.keyStrategy = keyStrategy;
+    }
+
+    /**
+     * Salva ou atualiza um participante
+     */
+    public CompletableFuture<ParticipantEntity> save(ParticipantEntity participant) {
+        return participantTable.putItem(keyStrategy.assignKey(participant)).thenApply(ignored -> participant);
+    }
+
+    /**
+     * Cria o participante somente se ainda não existir (attribute_not_exists(id))
+     * Idempotente entre requisições e instâncias quando as chaves naturais estão ativas
+     *
+     * @return Future com true se foi criado, false se já existia
+     */
+    public CompletableFuture<Boolean> create(ParticipantEntity participant) {
+        return ConditionalWrites.createAsync(participantTable, ParticipantEntity.class, keyStrategy.assignKey(participant));
+    }
+
+    /**
+     * Cria vários participantes com gravações condicionais concorrentes, mantendo até
+     * amazon.dynamodb.async-writes.max-concurrency requisições em andamento
+     * Participantes com o mesmo email são gravados uma única vez
+     *
+     * @param participants Participantes a criar
+     * @return Future com os emails criados, já existentes e com falha na gravação
+     */
+    public CompletableFuture<CreateOutcome<String>> createAll(Collection<ParticipantEntity> participants) {
+        Map<String, ParticipantEntity> participantsByEmail = new LinkedHashMap<>();
+        participants.forEach(participant -> participantsByEmail.putIfAbsent(participant.getEmail(), participant));
+        return asyncWriteSupport.createAll(participantsByEmail.keySet(),
+                email -> create(participantsByEmail.get(email)), "participante");
+    }
+
+    /**
+     * Busca participante por ID
+     */
+    public CompletableFuture<Optional<ParticipantEntity>> findById(String id) {
+        return participantTable.getItem(Key.builder().partitionValue(id).build())
+            .thenApply(Optional::ofNullable);
+    }
+
+    /**
+     * Busca participante por email
+     * Com chaves naturais é um GetItem direto pelo email normalizado; caso contrário consulta
+     * o índice EmailIndex (com fallback para scan quando o índice não existe)
+     */
+    public CompletableFuture<Optional<ParticipantEntity>> findByEmail(String email) {
+        if (keyStrategy.isNatural()) {
+            return findById(keyStrategy.participantKey(email));
+        }
+        return indexQuerySupport.queryFirstAsync(participantTable, EMAIL_INDEX, "email",
+                AttributeValue.builder().s(email).build());
+    }
+
+    /**
+     * Busca vários participantes por email com consultas concorrentes (GetItem ou EmailIndex)
+     * Emails não encontrados ficam fora do mapa
+     *
+     * @param emails Emails a buscar
+     * @return Future com o mapa email -> participante encontrado
+     */
+    public CompletableFuture<Map<String, ParticipantEntity>> findByEmails(Collection<String> emails) {
+        return indexQuerySupport.lookupAllAsync(emails, this::findByEmail);
+    }
+}
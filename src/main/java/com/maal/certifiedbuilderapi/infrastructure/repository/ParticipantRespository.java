@@ -7,7 +7,9 @@ import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -18,21 +20,42 @@ import java.util.stream.Collectors;
 @Repository
 public class ParticipantRespository {
 
+    private static final String EMAIL_INDEX = "EmailIndex";
+
     private final DynamoDbTable<ParticipantEntity> participantTable;
+    private final IndexQuerySupport indexQuerySupport;
+    private final BatchWriteSupport batchWriteSupport;
+    private final ParallelScanSupport parallelScanSupport;
+    private final EntityKeyStrategy keyStrategy;
 
     @Autowired
-    public ParticipantRespository(DynamoDbTable<ParticipantEntity> participantTable) {
+    public ParticipantRespository(DynamoDbTable<ParticipantEntity> participantTable, IndexQuerySupport indexQuerySupport, BatchWriteSupport batchWriteSupport, ParallelScanSupport parallelScanSupport, EntityKeyStrategy keyStrategy) {
         this.participantTable = participantTable;
+        this.indexQuerySupport = indexQuerySupport;
+        this.batchWriteSupport = batchWriteSupport;
+        this.parallelScanSupport = parallelScanSupport;
+        this.keyStrategy = keyStrategy;
     }
 
     /**
      * Salva ou atualiza um participante
      */
     public ParticipantEntity save(ParticipantEntity participant) {
-        participantTable.putItem(participant);
+        participantTable.putItem(keyStrategy.assignKey(participant));
         return participant;
     }
 
+    /**
+     * Salva ou atualiza vários participantes usando BatchWriteItem (lotes de 25)
+     * Itens não processados são reenviados com backoff e jitter
+     *
+     * @return Participantes que não puderam ser gravados após todas as tentativas
+     */
+    public List<ParticipantEntity> saveAll(Collection<ParticipantEntity> participants) {
+        participants.forEach(keyStrategy::assignKey);
+        return batchWriteSupport.putAll(participantTable, ParticipantEntity.class, participants);
+    }
+
     /**
      * Busca participante por ID
      */
@@ -43,27 +66,37 @@ public class ParticipantRespository {
 
     /**
      * Busca participante por email
-     * Usa scan com filtro (para busca por índice secundário seria necessário configurar GSI)
+     * Com chaves naturais é um GetItem direto pelo email normalizado; caso contrário consulta
+     * o índice EmailIndex (com fallback para scan quando o índice não existe)
      */
     public Optional<ParticipantEntity> findByEmail(String email) {
-        return participantTable.scan(ScanEnhancedRequest.builder()
-                .filterExpression(software.amazon.awssdk.enhanced.dynamodb.Expression.builder()
-                    .expression("email = :email")
-                    .putExpressionValue(":email", software.amazon.awssdk.services.dynamodb.model.AttributeValue.builder()
-                        .s(email)
-                        .build())
+        if (keyStrategy.isNatural()) {
+            return findById(keyStrategy.participantKey(email));
+        }
+        return indexQuerySupport.query(participantTable, EMAIL_INDEX, "email",
+                software.amazon.awssdk.services.dynamodb.model.AttributeValue.builder()
+                    .s(email)
                     .build())
-                .build())
-            .items()
-            .stream()
             .findFirst();
     }
 
+    /**
+     * Busca vários participantes por email em paralelo
+     * Cada email é uma consulta individual (GetItem ou EmailIndex); emails não encontrados ficam fora do mapa
+     *
+     * @param emails Emails a buscar
+     * @return Mapa email -> participante encontrado
+     */
+    public Map<String, ParticipantEntity> findByEmails(Collection<String> emails) {
+        return indexQuerySupport.lookupAll(emails, this::findByEmail);
+    }
+
     /**
      * Lista todos os participantes
+     * Usa scan paralelo segmentado (amazon.dynamodb.parallel-scan.segments)
      */
     public List<ParticipantEntity> findAll() {
-        return participantTable.scan().items().stream().collect(Collectors.toList());
+        return parallelScanSupport.scanAll(participantTable);
     }
 
     /**
@@ -116,8 +149,9 @@ public class ParticipantRespository {
 
     /**
      * Conta total de participantes
+     * Scan paralelo com Select.COUNT - nenhum item é desserializado
      */
     public long count() {
-        return participantTable.scan().items().stream().count();
+        return parallelScanSupport.count(participantTable);
     }
 }
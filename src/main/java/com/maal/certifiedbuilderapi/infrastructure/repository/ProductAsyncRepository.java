@@ -0,0 +1,127 @@
+package com.maal.certifiedbuilderapi.infrastructure.repository;
+
+import com.maal.certifiedbuilderapi.domain.entity.ProductEntity;
+import com.maal.certifiedbuilderapi.infrastructure.repository.AsyncWriteSupport.CreateOutcome;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Repository assíncrono para ProductEntity usando DynamoDbEnhancedAsyncClient
+ * Operações retornam CompletableFuture e não bloqueiam a thread chamadora
+ */
+@Repository
+public class ProductAsyncRepository {
+
+    private static final String PRODUCT_ID_INDEX = "ProductIdIndex";
+
+    private final DynamoDbAsyncTable<ProductEntity> productTable;
+    private final IndexQuerySupport indexQuerySupport;
+    private final AsyncWriteSupport asyncWriteSupport;
+    private final EntityKeyStrategy keyStrategy;
+
+    @Autowired
+    public ProductAsyncRepository(DynamoDbAsyncTable<ProductEntity> productTable, IndexQuerySupport indexQuerySupport,
+                                  AsyncWriteSupport asyncWriteSupport, EntityKeyStrategy keyStrategy) {
+        this.productTable = productTable;
+        this.indexQuerySupport = indexQuerySupport;
+        this.asyncWriteSupport = asyncWriteSupport;
+        this.keyStrategy = keyStrategy;
+    }
+
+    /**
+     * Salva ou atualiza um produto
+     */
+    public CompletableFuture<ProductEntity> save(ProductEntity product) {
+        return productTable.putItem(keyStrategy.assignKey(product)).thenApply(ignored -> product);
+    }
+
+    /**
+     * Cria o produto somente se ainda não existir (attribute_not_exists(id))
+     * Idempotente entre requisições e instâncias quando as chaves naturais estão ativas
+     *
+     * @return Future com true se foi criado, false se já existia
+     */
+    public CompletableFuture<Boolean> create(ProductEntity product) {
+        return ConditionalWrites.createAsync(productTable, ProductEntity.class, keyStrategy.assignKey(product));
+    }
+
+    /**
+     * Cria vários produtos com gravações condicionais concorrentes, mantendo até
+     * amazon.dynamodb.async-writes.max-concurrency requisições em andamento
+     * Produtos com o mesmo productId são gravados uma única vez
+     *
+     * @param products Produtos a criar
+     * @return Future com os productIds criados, já existentes e com falha na gravação
+     */
+    public CompletableFuture<CreateOutcome<Integer>> createAll(Collection<ProductEntity> products) {
+        Map<Integer, ProductEntity> productsById = new LinkedHashMap<>();
+        products.forEach(product -> productsById.putIfAbsent(product.getProductId(), product));
+        return asyncWriteSupport.createAll(productsById.keySet(),
+                productId -> create(productsById.get(productId)), "produto");
+    }
+
+    /**
+     * Busca produto por ID
+     */
+    public CompletableFuture<Optional<ProductEntity>> findById(String id) {
+        return productTable.getItem(Key.builder().partitionValue(id).build())
+            .thenApply(Optional::ofNullable);
+    }
+
+    /**
+     * Busca produto por productId único
+     * Com chaves naturais é um GetItem direto; caso contrário consulta o índice ProductIdIndex
+     * (com fallback para scan quando o índice não existe)
+     */
+    public CompletableFuture<Optional<ProductEntity>> findByProductId(Integer productId) {
+        if (keyStrategy.isNatural()) {
+            return findById(keyStrategy.productKey(productId));
+        }
+        return indexQuerySupport.queryFirstAsync(productTable, PRODUCT_ID_INDEX, "productId",
+                AttributeValue.builder().n(String.valueOf(productId)).build());
+    }
+
+    /**
+     * Busca vários produtos por productId com consultas concorrentes ao ProductIdIndex
+     * Produtos não encontrados ficam fora do mapa
+     *
+     * @param productIds IDs de produtos a buscar
+     * @return Future com o mapa productId -> produto encontrado
+     */
+    public CompletableFuture<Map<Integer, ProductEntity>> findByProductIds(Collection<Integer> productIds) {
+        return indexQuerySupport.lookupAllAsync(productIds, this::findByProductId);
+    }
+
+    /**
+     * Verifica quais productIds ainda existem no banco, lendo apenas a chave (id)
+     * Com chaves naturais é um GetItem por produto; caso contrário, consulta ao ProductIdIndex
+     * projetando somente o id
+     *
+     * @param productIds IDs de produtos a verificar
+     * @return Future com os productIds encontrados
+     */
+    public CompletableFuture<Set<Integer>> findExistingProductIds(Collection<Integer> productIds) {
+        return indexQuerySupport.lookupAllAsync(productIds, this::findKeyByProductId)
+            .thenApply(Map::keySet);
+    }
+
+    private CompletableFuture<Optional<String>> findKeyByProductId(Integer productId) {
+        if (keyStrategy.isNatural()) {
+            return findById(keyStrategy.productKey(productId)).thenApply(product -> product.map(ProductEntity::getId));
+        }
+        return indexQuerySupport.queryFirstAsync(productTable, PRODUCT_ID_INDEX, "productId",
+                AttributeValue.builder().n(String.valueOf(productId)).build(), List.of("id"))
+            .thenApply(product -> product.map(ProductEntity::getId));
+    }
+}
@@ -4,9 +4,14 @@ import com.maal.certifiedbuilderapi.domain.entity.ProductEntity;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.UpdateItemEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -18,21 +23,42 @@ import java.util.stream.Collectors;
 @Repository
 public class ProductRepository {
 
+    private static final String PRODUCT_ID_INDEX = "ProductIdIndex";
+
     private final DynamoDbTable<ProductEntity> productTable;
+    private final IndexQuerySupport indexQuerySupport;
+    private final BatchWriteSupport batchWriteSupport;
+    private final ParallelScanSupport parallelScanSupport;
+    private final EntityKeyStrategy keyStrategy;
 
     @Autowired
-    public ProductRepository(DynamoDbTable<ProductEntity> productTable) {
+    public ProductRepository(DynamoDbTable<ProductEntity> productTable, IndexQuerySupport indexQuerySupport, BatchWriteSupport batchWriteSupport, ParallelScanSupport parallelScanSupport, EntityKeyStrategy keyStrategy) {
         this.productTable = productTable;
+        this.indexQuerySupport = indexQuerySupport;
+        this.batchWriteSupport = batchWriteSupport;
+        this.parallelScanSupport = parallelScanSupport;
+        this.keyStrategy = keyStrategy;
     }
 
     /**
      * Salva ou atualiza um produto
      */
     public ProductEntity save(ProductEntity product) {
-        productTable.putItem(product);
+        productTable.putItem(keyStrategy.assignKey(product));
         return product;
     }
 
+    /**
+     * Salva ou atualiza vários produtos usando BatchWriteItem (lotes de 25)
+     * Itens não processados são reenviados com backoff e jitter
+     *
+     * @return Produtos que não puderam ser gravados após todas as tentativas
+     */
+    public List<ProductEntity> saveAll(Collection<ProductEntity> products) {
+        products.forEach(keyStrategy::assignKey);
+        return batchWriteSupport.putAll(productTable, ProductEntity.class, products);
+    }
+
     /**
      * Busca produto por ID
      */
@@ -43,36 +69,93 @@ public class ProductRepository {
 
     /**
      * Busca produto por productId
-     * Usa scan com filtro (para busca por índice secundário seria necessário configurar GSI)
+     * Consulta o índice ProductIdIndex (com fallback para scan quando o índice não existe)
      */
     public Optional<ProductEntity> findByProductId(Integer productId) {
-        return productTable.scan(ScanEnhancedRequest.builder()
-                .filterExpression(software.amazon.awssdk.enhanced.dynamodb.Expression.builder()
-                    .expression("productId = :productId")
-                    .putExpressionValue(":productId", software.amazon.awssdk.services.dynamodb.model.AttributeValue.builder()
-                        .n(String.valueOf(productId))
-                        .build())
-                    .build())
-                .build())
-            .items()
-            .stream()
+        return findByProductId(productId, List.of());
+    }
+
+    /**
+     * Busca produto por productId lendo apenas os atributos informados
+     * Os demais campos ficam nulos; inclua "id" quando a chave primária for necessária.
+     * Com chaves naturais é um GetItem direto, que lê o item completo
+     *
+     * @param productId ID do produto
+     * @param attributesToProject Atributos a ler (vazio lê o item completo)
+     */
+    public Optional<ProductEntity> findByProductId(Integer productId, List<String> attributesToProject) {
+        if (keyStrategy.isNatural()) {
+            return findById(keyStrategy.productKey(productId));
+        }
+        return indexQuerySupport.query(productTable, PRODUCT_ID_INDEX, "productId",
+                software.amazon.awssdk.services.dynamodb.model.AttributeValue.builder()
+                    .n(String.valueOf(productId))
+                    .build(),
+                attributesToProject)
             .findFirst();
     }
 
+    /**
+     * Lê o watermark de ingestão (maior orderId já ingerido) e os orderIds pendentes do produto
+     *
+     * @return Produto com id, lastIngestedOrderId e pendingCheckinOrderIds; vazio se o produto não existe
+     */
+    public Optional<ProductEntity> findIngestionWatermark(Integer productId) {
+        return findByProductId(productId, List.of("id", "lastIngestedOrderId", "pendingCheckinOrderIds"));
+    }
+
+    /**
+     * Grava o watermark de ingestão do produto e os orderIds pendentes
+     * UpdateItem condicional: só grava se o produto existir e o valor atual não for maior,
+     * de modo que sincronizações concorrentes nunca fazem o watermark retroceder
+     *
+     * @param orderId Novo watermark (ou o atual, quando só os pendentes mudaram)
+     * @param pendingCheckinOrderIds orderIds até o watermark a ler de novo (lista vazia limpa os pendentes)
+     * @return true se o watermark foi gravado
+     */
+    public boolean saveIngestionWatermark(Integer productId, Integer orderId, List<Integer> pendingCheckinOrderIds) {
+        Optional<String> id = keyStrategy.isNatural()
+            ? Optional.of(keyStrategy.productKey(productId))
+            : findByProductId(productId, List.of("id")).map(ProductEntity::getId);
+        if (id.isEmpty()) {
+            return false;
+        }
+
+        ProductEntity update = new ProductEntity();
+        update.setId(id.get());
+        update.setLastIngestedOrderId(orderId);
+        update.setPendingCheckinOrderIds(pendingCheckinOrderIds);
+        try {
+            productTable.updateItem(UpdateItemEnhancedRequest.builder(ProductEntity.class)
+                .item(update)
+                .ignoreNulls(true)
+                .conditionExpression(Expression.builder()
+                    .expression("attribute_exists(id) AND "
+                        + "(attribute_not_exists(lastIngestedOrderId) OR lastIngestedOrderId <= :orderId)")
+                    .putExpressionValue(":orderId", AttributeValue.builder().n(String.valueOf(orderId)).build())
+                    .build())
+                .build());
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        }
+    }
+
     /**
      * Remove produto por productId
-     * Localiza o produto pelo productId e remove
+     * Localiza a chave (id) do produto pelo productId e remove
      */
     public void deleteByProductId(Integer productId) {
-        Optional<ProductEntity> product = findByProductId(productId);
+        Optional<ProductEntity> product = findByProductId(productId, List.of("id"));
         product.ifPresent(p -> productTable.deleteItem(Key.builder().partitionValue(p.getId()).build()));
     }
 
     /**
      * Lista todos os produtos
+     * Usa scan paralelo segmentado (amazon.dynamodb.parallel-scan.segments)
      */
     public List<ProductEntity> findAll() {
-        return productTable.scan().items().stream().collect(Collectors.toList());
+        return parallelScanSupport.scanAll(productTable);
     }
 
     /**
@@ -127,13 +210,14 @@ public class ProductRepository {
      * Verifica se existe produto com o productId
      */
     public boolean existsByProductId(Integer productId) {
-        return findByProductId(productId).isPresent();
+        return findByProductId(productId, List.of("id")).isPresent();
     }
 
     /**
      * Conta total de produtos
+     * Scan paralelo com Select.COUNT - nenhum item é desserializado
      */
     public long count() {
-        return productTable.scan().items().stream().count();
+        return parallelScanSupport.count(productTable);
     }
 }
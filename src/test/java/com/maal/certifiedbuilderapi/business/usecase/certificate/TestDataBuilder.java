@@ -106,7 +106,7 @@ public class TestDataBuilder {
         OrderEntity order = new OrderEntity();
         order.setId("order-uuid-" + orderId);
         order.setOrderId(orderId);
-        order.setOrderDateFromLocalDateTime(LocalDateTime.parse(DEFAULT_ORDER_DATE.replace(" ", "T")));
+        order.setOrderDate(LocalDateTime.parse(DEFAULT_ORDER_DATE.replace(" ", "T")));
         
         // Dados do produto desnormalizados
         order.setProductId(100);
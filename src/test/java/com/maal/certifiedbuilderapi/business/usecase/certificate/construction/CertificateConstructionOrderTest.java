@@ -5,7 +5,9 @@ import com.maal.certifiedbuilderapi.business.dto.BuildOrdersResponse;
 import com.maal.certifiedbuilderapi.business.usecase.certificate.TestDataBuilder;
 import com.maal.certifiedbuilderapi.infrastructure.aws.sqs.OrderEventPublisher;
 import com.maal.certifiedbuilderapi.infrastructure.client.TechFloripa;
+import com.maal.certifiedbuilderapi.infrastructure.client.TechOrdersStreamReader;
 import com.maal.certifiedbuilderapi.infrastructure.client.response.TechOrdersResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,9 +15,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -26,7 +31,7 @@ import static org.mockito.Mockito.*;
  * Adaptado para nova arquitetura refatorada com serviços especializados
  * 
  * Estratégia de teste:
- * - Mocka o OrderProcessingService e dependências
+ * - Mocka o OrderProcessingService (etapas do pipeline) e dependências
  * - Testa cenários de negócio através do coordenador principal
  * - Verifica interações com serviços especializados
  */
@@ -37,12 +42,21 @@ class CertificateConstructionOrderTest {
     @Mock
     private TechFloripa techFloripa;
 
+    @Mock
+    private TechOrdersStreamReader techOrdersStreamReader;
+
     @Mock
     private OrderEventPublisher orderEventPublisher;
 
     @Mock
     private OrderProcessingService orderProcessingService;
 
+    @Mock
+    private IngestionWatermarkService ingestionWatermarkService;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private CertificateConstructionOrder certificateConstructionOrder;
 
@@ -58,6 +72,9 @@ class CertificateConstructionOrderTest {
         
         // Cria um resultado de processamento padrão
         processingResult = new ProcessingResult();
+
+        // Sem watermark gravado: todas as ordens são processadas
+        lenient().when(ingestionWatermarkService.start(anyInt(), anyBoolean())).thenReturn(IngestionWatermark.none());
     }
 
     @Test
@@ -76,7 +93,7 @@ class CertificateConstructionOrderTest {
         assertTrue(response.getNewOrders().isEmpty());
 
         // Verifica que serviços não foram chamados
-        verify(orderProcessingService, never()).processOrdersParallel(any());
+        verifyNoInteractions(orderProcessingService);
         verify(orderEventPublisher, never()).publishOrderCreatedEvent(any());
     }
 
@@ -89,7 +106,7 @@ class CertificateConstructionOrderTest {
         
         // Configura resultado com uma nova ordem
         processingResult.addNewOrder(techOrder);
-        when(orderProcessingService.processOrdersParallel(orders)).thenReturn(processingResult);
+        stubPipeline(Set.of(), processingResult);
 
         // Act
         BuildOrdersResponse response = certificateConstructionOrder.execute(request);
@@ -99,8 +116,10 @@ class CertificateConstructionOrderTest {
         assertTrue(response.getExistingOrders().isEmpty());
         assertEquals(List.of(1001), response.getNewOrders());
 
-        // Verifica chamadas aos serviços
-        verify(orderProcessingService).processOrdersParallel(orders);
+        // Verifica chamadas às etapas do pipeline
+        verify(orderProcessingService).checkExistingOrders(orders);
+        verify(orderProcessingService).resolveReferences(orders);
+        verify(orderProcessingService).writeNewOrders(eq(orders), any());
         verify(orderEventPublisher).publishOrderCreatedEvent(List.of(techOrder));
     }
 
@@ -113,7 +132,7 @@ class CertificateConstructionOrderTest {
         
         // Configura resultado com uma nova ordem (o processamento interno é responsabilidade do OrderProcessingService)
         processingResult.addNewOrder(techOrder);
-        when(orderProcessingService.processOrdersParallel(orders)).thenReturn(processingResult);
+        stubPipeline(Set.of(), processingResult);
 
         // Act
         BuildOrdersResponse response = certificateConstructionOrder.execute(request);
@@ -121,8 +140,8 @@ class CertificateConstructionOrderTest {
         // Assert
         assertEquals(1, response.getCertificateQuantity());
         
-        // Verifica que o serviço de processamento foi chamado
-        verify(orderProcessingService).processOrdersParallel(orders);
+        // Verifica que as referências foram resolvidas pelo serviço de processamento
+        verify(orderProcessingService).resolveReferences(orders);
     }
 
     @Test
@@ -132,9 +151,8 @@ class CertificateConstructionOrderTest {
         List<TechOrdersResponse> orders = List.of(techOrder);
         when(techFloripa.getOrders(100)).thenReturn(orders);
         
-        // Configura resultado com ordem existente
-        processingResult.addExistingOrder(1001);
-        when(orderProcessingService.processOrdersParallel(orders)).thenReturn(processingResult);
+        // Configura ordem existente: nenhuma ordem nova chega à gravação
+        stubPipeline(Set.of(1001), processingResult);
 
         // Act
         BuildOrdersResponse response = certificateConstructionOrder.execute(request);
@@ -145,6 +163,7 @@ class CertificateConstructionOrderTest {
         assertTrue(response.getNewOrders().isEmpty());
 
         // Verifica que não publicou eventos
+        verify(orderProcessingService).writeNewOrders(eq(List.of()), any());
         verify(orderEventPublisher, never()).publishOrderCreatedEvent(any());
     }
 
@@ -156,9 +175,8 @@ class CertificateConstructionOrderTest {
         List<TechOrdersResponse> orders = List.of(orderSemCheckin);
         when(techFloripa.getOrders(101)).thenReturn(orders);
         
-        // O OrderProcessingService é responsável por filtrar ordens sem timeCheckin
-        ProcessingResult emptyResult = new ProcessingResult();
-        when(orderProcessingService.processOrdersParallel(orders)).thenReturn(emptyResult);
+        // A etapa de deduplicação descarta ordens sem timeCheckin
+        stubPipeline(Set.of(), new ProcessingResult());
 
         // Act
         BuildOrdersResponse response = certificateConstructionOrder.execute(
@@ -170,8 +188,9 @@ class CertificateConstructionOrderTest {
         assertTrue(response.getExistingOrders().isEmpty());
         assertTrue(response.getNewOrders().isEmpty());
 
-        // Verifica que o processamento foi chamado (a lógica de filtro é interna)
-        verify(orderProcessingService).processOrdersParallel(orders);
+        // Verifica que nenhuma ordem passou da etapa de deduplicação
+        verify(orderProcessingService).checkExistingOrders(List.of());
+        verify(orderEventPublisher, never()).publishOrderCreatedEvent(any());
     }
 
     @Test
@@ -185,8 +204,7 @@ class CertificateConstructionOrderTest {
         // Configura resultado misto
         ProcessingResult mixedResult = new ProcessingResult();
         mixedResult.addNewOrder(pedidoNovo);
-        mixedResult.addExistingOrder(2002);
-        when(orderProcessingService.processOrdersParallel(orders)).thenReturn(mixedResult);
+        stubPipeline(Set.of(2002), mixedResult);
 
         // Act
         BuildOrdersResponse response = certificateConstructionOrder.execute(orders);
@@ -214,7 +232,7 @@ class CertificateConstructionOrderTest {
         when(techFloripa.getOrders(100)).thenReturn(orders);
         
         processingResult.addNewOrder(techOrder);
-        when(orderProcessingService.processOrdersParallel(orders)).thenReturn(processingResult);
+        stubPipeline(Set.of(), processingResult);
 
         // Act
         BuildOrdersResponse response = certificateConstructionOrder.execute(request);
@@ -223,8 +241,8 @@ class CertificateConstructionOrderTest {
         assertEquals(1, response.getCertificateQuantity());
         assertEquals(List.of(1001), response.getNewOrders());
         
-        // Verifica que o serviço de processamento foi chamado
-        verify(orderProcessingService).processOrdersParallel(orders);
+        // Verifica que a etapa de gravação foi chamada
+        verify(orderProcessingService).writeNewOrders(eq(orders), any());
         verify(orderEventPublisher).publishOrderCreatedEvent(List.of(techOrder));
     }
 
@@ -250,12 +268,8 @@ class CertificateConstructionOrderTest {
         // Arrange - Todos os pedidos já existem
         List<TechOrdersResponse> orders = TestDataBuilder.createTechOrdersList();
         
-        // Configura resultado com apenas ordens existentes
-        ProcessingResult existingOnlyResult = new ProcessingResult();
-        existingOnlyResult.addExistingOrder(1001);
-        existingOnlyResult.addExistingOrder(1002);
-        existingOnlyResult.addExistingOrder(1003);
-        when(orderProcessingService.processOrdersParallel(orders)).thenReturn(existingOnlyResult);
+        // Configura apenas ordens existentes
+        stubPipeline(Set.of(1001, 1002, 1003), new ProcessingResult());
 
         // Act
         BuildOrdersResponse response = certificateConstructionOrder.execute(orders);
@@ -268,4 +282,112 @@ class CertificateConstructionOrderTest {
         // Verifica que não publicou eventos
         verify(orderEventPublisher, never()).publishOrderCreatedEvent(any());
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve descartar orderIds repetidos antes das etapas de I/O")
+    void deveDescartarPedidosRepetidos() {
+        // Arrange
+        TechOrdersResponse duplicado = TestDataBuilder.createTechOrder();
+        List<TechOrdersResponse> orders = List.of(techOrder, duplicado);
+
+        processingResult.addNewOrder(techOrder);
+        stubPipeline(Set.of(), processingResult);
+
+        // Act
+        BuildOrdersResponse response = certificateConstructionOrder.execute(orders);
+
+        // Assert
+        assertEquals(1, response.getCertificateQuantity());
+        verify(orderProcessingService).checkExistingOrders(List.of(techOrder));
+        assertNotNull(meterRegistry.find("certified.ingestion.stage").tag("stage", "dedupe").timer());
+    }
+
+    @Test
+    @DisplayName("Deve processar cada bloco do streaming e deduplicar entre blocos")
+    void deveProcessarBlocosDoStreaming() {
+        // Arrange
+        TechOrdersResponse pedido1 = TestDataBuilder.createTechOrder(3001, "a@email.com", 100, TestDataBuilder.DEFAULT_TIME_CHECKIN);
+        TechOrdersResponse pedido2 = TestDataBuilder.createTechOrder(3002, "b@email.com", 100, TestDataBuilder.DEFAULT_TIME_CHECKIN);
+        TechOrdersResponse repetido = TestDataBuilder.createTechOrder(3001, "a@email.com", 100, TestDataBuilder.DEFAULT_TIME_CHECKIN);
+
+        when(techOrdersStreamReader.isEnabled()).thenReturn(true);
+        doAnswer(invocation -> {
+            Consumer<List<TechOrdersResponse>> chunkConsumer = invocation.getArgument(1);
+            chunkConsumer.accept(List.of(pedido1));
+            chunkConsumer.accept(List.of(repetido, pedido2));
+            return 3;
+        }).when(techOrdersStreamReader).streamOrders(eq(100), any());
+
+        ProcessingResult primeiroBloco = new ProcessingResult();
+        primeiroBloco.addNewOrder(pedido1);
+        ProcessingResult segundoBloco = new ProcessingResult();
+        when(orderProcessingService.checkExistingOrders(anyList())).thenReturn(Set.of(), Set.of(3002));
+        when(orderProcessingService.writeNewOrders(anyList(), any())).thenReturn(primeiroBloco, segundoBloco);
+
+        // Act
+        BuildOrdersResponse response = certificateConstructionOrder.execute(request);
+
+        // Assert
+        assertEquals(1, response.getCertificateQuantity());
+        assertEquals(List.of(3001), response.getNewOrders());
+        assertEquals(List.of(3002), response.getExistingOrders());
+
+        // O pedido repetido no segundo bloco não chega à verificação de existência
+        verify(orderProcessingService).checkExistingOrders(List.of(pedido2));
+        verify(orderEventPublisher).publishOrderCreatedEvent(List.of(pedido1));
+        verifyNoInteractions(techFloripa);
+    }
+
+    @Test
+    @DisplayName("Deve ignorar pedidos até o watermark do produto e avançá-lo")
+    void deveIgnorarPedidosAteOWatermark() {
+        // Arrange - Watermark em 1001: apenas o pedido 1002 é novo
+        TechOrdersResponse pedidoNovo = TestDataBuilder.createTechOrder(1002, "novo@email.com", 100, TestDataBuilder.DEFAULT_TIME_CHECKIN);
+        when(techFloripa.getOrders(100)).thenReturn(List.of(techOrder, pedidoNovo));
+        IngestionWatermark watermark = new IngestionWatermark(1001);
+        when(ingestionWatermarkService.start(100, false)).thenReturn(watermark);
+
+        processingResult.addNewOrder(pedidoNovo);
+        stubPipeline(Set.of(), processingResult);
+
+        // Act
+        BuildOrdersResponse response = certificateConstructionOrder.execute(request);
+
+        // Assert
+        assertEquals(List.of(1002), response.getNewOrders());
+        verify(orderProcessingService).checkExistingOrders(List.of(pedidoNovo));
+        verify(ingestionWatermarkService).advance(100, watermark);
+        assertEquals(1002, watermark.next().orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Não deve avançar o watermark além de pedidos com falha na gravação")
+    void naoDeveAvancarWatermarkAlemDePedidosComFalha() {
+        // Arrange - 2001 falha na gravação, 2002 é gravado
+        TechOrdersResponse pedidoComFalha = TestDataBuilder.createTechOrder(2001, "falha@email.com", 100, TestDataBuilder.DEFAULT_TIME_CHECKIN);
+        TechOrdersResponse pedidoGravado = TestDataBuilder.createTechOrder(2002, "ok@email.com", 100, TestDataBuilder.DEFAULT_TIME_CHECKIN);
+        when(techFloripa.getOrders(100)).thenReturn(List.of(pedidoComFalha, pedidoGravado));
+        IngestionWatermark watermark = new IngestionWatermark(1500);
+        when(ingestionWatermarkService.start(100, false)).thenReturn(watermark);
+
+        processingResult.addNewOrder(pedidoGravado);
+        stubPipeline(Set.of(), processingResult);
+
+        // Act
+        certificateConstructionOrder.execute(request);
+
+        // Assert - o próximo watermark fica antes do pedido com falha
+        assertEquals(2000, watermark.next().orElseThrow());
+    }
+
+    /**
+     * Configura as etapas de I/O do pipeline
+     *
+     * @param existingOrderIds orderIds retornados pela verificação de existência
+     * @param writeResult Resultado da etapa de gravação
+     */
+    private void stubPipeline(Set<Integer> existingOrderIds, ProcessingResult writeResult) {
+        when(orderProcessingService.checkExistingOrders(anyList())).thenReturn(existingOrderIds);
+        when(orderProcessingService.writeNewOrders(anyList(), any())).thenReturn(writeResult);
+    }
+}
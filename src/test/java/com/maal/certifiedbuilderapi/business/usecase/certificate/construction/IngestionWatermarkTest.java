@@ -0,0 +1,145 @@
+package com.maal.certifiedbuilderapi.business.usecase.certificate.construction;
+
+import com.maal.certifiedbuilderapi.business.usecase.certificate.TestDataBuilder;
+import com.maal.certifiedbuilderapi.infrastructure.client.response.TechOrdersResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para IngestionWatermark
+ * Verifica que ordens com falha não são ultrapassadas pelo próximo watermark
+ * e que ordens sem check-in ficam pendentes sem segurar o watermark
+ */
+@DisplayName("IngestionWatermark - Testes Unitários")
+class IngestionWatermarkTest {
+
+    private static final String EMAIL = "participante@teste.com";
+    private static final Integer PRODUCT_ID = 100;
+
+    @Test
+    @DisplayName("Deve avançar até o maior orderId quando todas as ordens foram gravadas")
+    void shouldAdvanceToHighestOrderId() {
+        IngestionWatermark watermark = new IngestionWatermark(10);
+        List<TechOrdersResponse> orders = List.of(order(11, true), order(12, true));
+
+        watermark.observe(orders, orders, resultWithNew(orders));
+
+        assertEquals(Optional.of(12), watermark.next());
+    }
+
+    @Test
+    @DisplayName("Deve avançar além de ordem sem check-in e mantê-la pendente")
+    void shouldAdvancePastOrderWithoutCheckinKeepingItPending() {
+        IngestionWatermark watermark = new IngestionWatermark(10);
+        List<TechOrdersResponse> received = List.of(order(11, true), order(12, false), order(13, true));
+        List<TechOrdersResponse> valid = List.of(received.get(0), received.get(2));
+
+        watermark.observe(received, valid, resultWithNew(valid));
+
+        assertEquals(Optional.of(13), watermark.next());
+        assertEquals(Set.of(12), watermark.nextPending());
+    }
+
+    @Test
+    @DisplayName("Deve ler de novo as ordens pendentes abaixo do watermark")
+    void shouldNotSkipPendingOrders() {
+        IngestionWatermark watermark = new IngestionWatermark(10, List.of(7));
+        List<TechOrdersResponse> received = List.of(order(5, true), order(7, true), order(11, true));
+
+        List<TechOrdersResponse> remaining = watermark.skipIngested(received);
+
+        assertEquals(List.of(7, 11), remaining.stream().map(TechOrdersResponse::getOrderId).toList());
+    }
+
+    @Test
+    @DisplayName("Deve remover dos pendentes a ordem que recebeu check-in")
+    void shouldRemovePendingOrderOnceCheckedIn() {
+        IngestionWatermark watermark = new IngestionWatermark(10, List.of(7, 8));
+        List<TechOrdersResponse> received = List.of(order(7, true), order(8, false));
+        List<TechOrdersResponse> valid = List.of(received.get(0));
+
+        watermark.observe(received, valid, resultWithNew(valid));
+
+        assertTrue(watermark.next().isEmpty());
+        assertEquals(Set.of(8), watermark.nextPending());
+    }
+
+    @Test
+    @DisplayName("Deve manter pendente a ordem com check-in cuja gravação falhou")
+    void shouldKeepFailedPendingOrder() {
+        IngestionWatermark watermark = new IngestionWatermark(10, List.of(7));
+        List<TechOrdersResponse> received = List.of(order(7, true), order(11, true));
+
+        watermark.observe(received, received, resultWithNew(List.of(received.get(1))));
+
+        assertEquals(Optional.of(11), watermark.next());
+        assertEquals(Set.of(7), watermark.nextPending());
+    }
+
+    @Test
+    @DisplayName("Ordem sem check-in abaixo do watermark atual não impede o avanço")
+    void shouldIgnoreOrdersWithoutCheckinAlreadyBelowWatermark() {
+        IngestionWatermark watermark = new IngestionWatermark(10);
+        List<TechOrdersResponse> received = List.of(order(5, false), order(11, true));
+        List<TechOrdersResponse> valid = List.of(received.get(1));
+
+        watermark.observe(received, valid, resultWithNew(valid));
+
+        assertEquals(Optional.of(11), watermark.next());
+    }
+
+    @Test
+    @DisplayName("Não deve ultrapassar ordem cuja gravação falhou")
+    void shouldStopBeforeFailedOrder() {
+        IngestionWatermark watermark = IngestionWatermark.none();
+        List<TechOrdersResponse> orders = List.of(order(1, true), order(2, true), order(3, true));
+
+        watermark.observe(orders, orders, resultWithNew(List.of(orders.get(0), orders.get(2))));
+
+        assertEquals(Optional.of(1), watermark.next());
+    }
+
+    @Test
+    @DisplayName("Primeira ordem nova sem check-in não segura o watermark")
+    void shouldNotPinWatermarkOnFirstOrderWithoutCheckin() {
+        IngestionWatermark watermark = new IngestionWatermark(10);
+        List<TechOrdersResponse> received = List.of(order(11, false), order(12, true));
+        List<TechOrdersResponse> valid = List.of(received.get(1));
+
+        watermark.observe(received, valid, resultWithNew(valid));
+
+        assertEquals(Optional.of(12), watermark.next());
+        assertEquals(Set.of(11), watermark.nextPending());
+    }
+
+    @Test
+    @DisplayName("Ordem sem check-in acima de uma falha não entra nos pendentes")
+    void shouldNotKeepPendingAboveNextWatermark() {
+        IngestionWatermark watermark = new IngestionWatermark(10);
+        List<TechOrdersResponse> received = List.of(order(11, true), order(12, false));
+        List<TechOrdersResponse> valid = List.of(received.get(0));
+
+        watermark.observe(received, valid, new ProcessingResult());
+
+        // 11 falhou: o watermark não avança e 12 será lida de novo de qualquer forma
+        assertTrue(watermark.next().isEmpty());
+        assertTrue(watermark.nextPending().isEmpty());
+    }
+
+    private static TechOrdersResponse order(int orderId, boolean checkedIn) {
+        return TestDataBuilder.createTechOrder(orderId, EMAIL, PRODUCT_ID,
+                checkedIn ? TestDataBuilder.DEFAULT_TIME_CHECKIN : null);
+    }
+
+    private static ProcessingResult resultWithNew(List<TechOrdersResponse> orders) {
+        ProcessingResult result = new ProcessingResult();
+        orders.forEach(result::addNewOrder);
+        return result;
+    }
+}
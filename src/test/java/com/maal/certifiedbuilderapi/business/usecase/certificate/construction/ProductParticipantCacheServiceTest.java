@@ -0,0 +1,122 @@
+package com.maal.certifiedbuilderapi.business.usecase.certificate.construction;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.maal.certifiedbuilderapi.business.usecase.certificate.TestDataBuilder;
+import com.maal.certifiedbuilderapi.domain.entity.ParticipantEntity;
+import com.maal.certifiedbuilderapi.domain.entity.ProductEntity;
+import com.maal.certifiedbuilderapi.infrastructure.client.response.TechOrdersResponse;
+import com.maal.certifiedbuilderapi.infrastructure.repository.AsyncWriteSupport.CreateOutcome;
+import com.maal.certifiedbuilderapi.infrastructure.repository.ParticipantAsyncRepository;
+import com.maal.certifiedbuilderapi.infrastructure.repository.ParticipantRespository;
+import com.maal.certifiedbuilderapi.infrastructure.repository.ProductAsyncRepository;
+import com.maal.certifiedbuilderapi.infrastructure.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para ProductParticipantCacheService
+ * Verifica que produtos do cache removidos em outra instância não são reutilizados
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductParticipantCacheService - Testes Unitários")
+class ProductParticipantCacheServiceTest {
+
+    private static final Integer PRODUCT_ID = 100;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ParticipantRespository participantRespository;
+
+    @Mock
+    private ProductAsyncRepository productAsyncRepository;
+
+    @Mock
+    private ParticipantAsyncRepository participantAsyncRepository;
+
+    @Mock
+    private EntityCreationService entityCreationService;
+
+    private Cache<Integer, ProductEntity> productCache;
+    private ProductParticipantCacheService cacheService;
+    private TechOrdersResponse order;
+
+    @BeforeEach
+    void setUp() {
+        productCache = Caffeine.newBuilder().build();
+        Cache<String, ParticipantEntity> participantCache = Caffeine.newBuilder().build();
+        cacheService = new ProductParticipantCacheService(productRepository, participantRespository,
+                productAsyncRepository, participantAsyncRepository, entityCreationService, productCache, participantCache);
+
+        order = TestDataBuilder.createTechOrder();
+        participantCache.put(order.getEmail(), TestDataBuilder.createParticipant(order.getEmail()));
+        lenient().when(participantAsyncRepository.createAll(anyCollection()))
+                .thenReturn(CompletableFuture.completedFuture(new CreateOutcome<>(Set.of(), Set.of(), Set.of())));
+    }
+
+    @Test
+    @DisplayName("Deve gravar de novo produto do cache removido em outra instância")
+    void shouldRecreateCachedProductDeletedElsewhere() {
+        productCache.put(PRODUCT_ID, TestDataBuilder.createProduct(PRODUCT_ID));
+        ProductEntity recreated = TestDataBuilder.createProduct(PRODUCT_ID);
+        when(productAsyncRepository.findExistingProductIds(List.of(PRODUCT_ID)))
+                .thenReturn(CompletableFuture.completedFuture(Set.of()));
+        when(entityCreationService.createProduct(order)).thenReturn(recreated);
+        when(productAsyncRepository.createAll(anyCollection()))
+                .thenReturn(CompletableFuture.completedFuture(new CreateOutcome<>(Set.of(PRODUCT_ID), Set.of(), Set.of())));
+
+        ProductParticipantCacheService.ReferenceFailures failures =
+                cacheService.createMissingReferencesAsync(List.of(order)).join();
+
+        assertTrue(failures.productIds().isEmpty());
+        verify(productAsyncRepository).createAll(argThat(products -> products.contains(recreated)));
+        assertSame(recreated, productCache.getIfPresent(PRODUCT_ID));
+    }
+
+    @Test
+    @DisplayName("Produto do cache que ainda existe não é gravado de novo")
+    void shouldKeepCachedProductThatStillExists() {
+        ProductEntity cached = TestDataBuilder.createProduct(PRODUCT_ID);
+        productCache.put(PRODUCT_ID, cached);
+        when(productAsyncRepository.findExistingProductIds(List.of(PRODUCT_ID)))
+                .thenReturn(CompletableFuture.completedFuture(Set.of(PRODUCT_ID)));
+        when(productAsyncRepository.createAll(anyCollection()))
+                .thenReturn(CompletableFuture.completedFuture(new CreateOutcome<>(Set.of(), Set.of(), Set.of())));
+
+        cacheService.createMissingReferencesAsync(List.of(order)).join();
+
+        verify(productAsyncRepository).createAll(argThat(products -> products.isEmpty()));
+        verifyNoInteractions(entityCreationService);
+        assertSame(cached, productCache.getIfPresent(PRODUCT_ID));
+    }
+
+    @Test
+    @DisplayName("Deve buscar no banco produto do cache removido em outra instância")
+    void shouldReloadCachedProductDeletedElsewhere() {
+        productCache.put(PRODUCT_ID, TestDataBuilder.createProduct(PRODUCT_ID));
+        when(productAsyncRepository.findExistingProductIds(List.of(PRODUCT_ID)))
+                .thenReturn(CompletableFuture.completedFuture(Set.of()));
+        when(productAsyncRepository.findByProductIds(List.of(PRODUCT_ID)))
+                .thenReturn(CompletableFuture.completedFuture(Map.of()));
+
+        Map<Integer, ProductEntity> existing = cacheService.findExistingProductsAsync(List.of(order)).join();
+
+        assertTrue(existing.isEmpty());
+        assertNull(productCache.getIfPresent(PRODUCT_ID));
+    }
+}
@@ -1,5 +1,6 @@
 package com.maal.certifiedbuilderapi.config;
 
+import com.maal.certifiedbuilderapi.domain.entity.BuildJobEntity;
 import com.maal.certifiedbuilderapi.domain.entity.CertificateEntity;
 import com.maal.certifiedbuilderapi.domain.entity.OrderEntity;
 import com.maal.certifiedbuilderapi.domain.entity.ParticipantEntity;
@@ -8,8 +9,11 @@ import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.sqs.SqsAsyncClient;
@@ -90,6 +94,81 @@ public class TestConfig {
         return mock(DynamoDbTable.class);
     }
 
+    /**
+     * Mock da tabela BuildJob para testes
+     * @Primary garante prioridade sobre outras configurações
+     */
+    @Bean
+    @Primary
+    @SuppressWarnings("unchecked")
+    public DynamoDbTable<BuildJobEntity> mockBuildJobTable() {
+        return mock(DynamoDbTable.class);
+    }
+
+    /**
+     * Mock do cliente DynamoDB assíncrono para testes
+     * @Primary garante prioridade sobre outras configurações
+     */
+    @Bean
+    @Primary
+    public DynamoDbAsyncClient mockDynamoDbAsyncClient() {
+        return mock(DynamoDbAsyncClient.class);
+    }
+
+    /**
+     * Mock do Enhanced DynamoDB Client assíncrono para testes
+     * @Primary garante prioridade sobre outras configurações
+     */
+    @Bean
+    @Primary
+    public DynamoDbEnhancedAsyncClient mockDynamoDbEnhancedAsyncClient() {
+        return mock(DynamoDbEnhancedAsyncClient.class);
+    }
+
+    /**
+     * Mock da tabela Certificate assíncrona para testes
+     * @Primary garante prioridade sobre outras configurações
+     */
+    @Bean
+    @Primary
+    @SuppressWarnings("unchecked")
+    public DynamoDbAsyncTable<CertificateEntity> mockCertificateAsyncTable() {
+        return mock(DynamoDbAsyncTable.class);
+    }
+
+    /**
+     * Mock da tabela Order assíncrona para testes
+     * @Primary garante prioridade sobre outras configurações
+     */
+    @Bean
+    @Primary
+    @SuppressWarnings("unchecked")
+    public DynamoDbAsyncTable<OrderEntity> mockOrderAsyncTable() {
+        return mock(DynamoDbAsyncTable.class);
+    }
+
+    /**
+     * Mock da tabela Participant assíncrona para testes
+     * @Primary garante prioridade sobre outras configurações
+     */
+    @Bean
+    @Primary
+    @SuppressWarnings("unchecked")
+    public DynamoDbAsyncTable<ParticipantEntity> mockParticipantAsyncTable() {
+        return mock(DynamoDbAsyncTable.class);
+    }
+
+    /**
+     * Mock da tabela Product assíncrona para testes
+     * @Primary garante prioridade sobre outras configurações
+     */
+    @Bean
+    @Primary
+    @SuppressWarnings("unchecked")
+    public DynamoDbAsyncTable<ProductEntity> mockProductAsyncTable() {
+        return mock(DynamoDbAsyncTable.class);
+    }
+
     /**
      * Mock do cliente S3 para testes
      * @Primary garante prioridade sobre outras configurações
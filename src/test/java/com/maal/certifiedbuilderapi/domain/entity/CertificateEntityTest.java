@@ -0,0 +1,42 @@
+package com.maal.certifiedbuilderapi.domain.entity;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.TableMetadata;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.IndexMetadata;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do schema do Enhanced Client para CertificateEntity
+ * Os repositórios consultam OrderIdIndex e ProductIdIndex; sem as anotações nos getters
+ * table.index(...) falha antes mesmo de chegar ao DynamoDB
+ */
+@DisplayName("CertificateEntity - Schema DynamoDB")
+class CertificateEntityTest {
+
+    private final TableMetadata metadata = TableSchema.fromBean(CertificateEntity.class).tableMetadata();
+
+    @Test
+    @DisplayName("Deve declarar OrderIdIndex e ProductIdIndex")
+    void shouldDeclareSecondaryIndexes() {
+        Set<String> indexNames = metadata.indices().stream()
+                .map(IndexMetadata::name)
+                .collect(Collectors.toSet());
+
+        assertTrue(indexNames.contains("OrderIdIndex"));
+        assertTrue(indexNames.contains("ProductIdIndex"));
+    }
+
+    @Test
+    @DisplayName("Deve usar orderId e productId como chaves de partição dos índices")
+    void shouldUseIndexPartitionKeys() {
+        assertEquals("id", metadata.primaryPartitionKey());
+        assertEquals("orderId", metadata.indexPartitionKey("OrderIdIndex"));
+        assertEquals("productId", metadata.indexPartitionKey("ProductIdIndex"));
+    }
+}
@@ -0,0 +1,278 @@
+package com.maal.certifiedbuilderapi.infrastructure.aws.sqs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maal.certifiedbuilderapi.business.usecase.certificate.TestDataBuilder;
+import com.maal.certifiedbuilderapi.infrastructure.aws.sqs.OrderEventPublisher.OutgoingMessage;
+import com.maal.certifiedbuilderapi.infrastructure.client.response.TechOrdersResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.GetQueueUrlResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes unitários para OrderEventPublisher
+ * Usa o OrderPayloadCodec real em json e um limite de mensagem pequeno (MAX_MESSAGE_BYTES)
+ * para exercitar o agrupamento com poucas ordens; o SqsAsyncClient é simulado
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OrderEventPublisher - Testes Unitários")
+class OrderEventPublisherTest {
+
+    private static final int MAX_MESSAGE_BYTES = 2_000;
+    private static final String QUEUE_URL = "https://sqs.local/000000000000/builder.fifo";
+
+    @Mock
+    private SqsAsyncClient sqsAsyncClient;
+
+    private OrderPayloadCodec payloadCodec;
+    private OrderEventPublisher publisher;
+
+    // Requisições SendMessageBatch recebidas pelo cliente simulado, na ordem de chegada
+    private final List<SendMessageBatchRequest> sentRequests = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        payloadCodec = new OrderPayloadCodec(new ObjectMapper(), null, null, "json", "events/products");
+        publisher = newPublisher(1);
+
+        lenient().when(sqsAsyncClient.getQueueUrl(any(Consumer.class))).thenReturn(
+                CompletableFuture.completedFuture(GetQueueUrlResponse.builder().queueUrl(QUEUE_URL).build()));
+    }
+
+    @Test
+    @DisplayName("Cada mensagem contém ordens de um único produto, ordenadas por produto e order_id")
+    void shouldSplitMessagesAtProductBoundaries() {
+        List<TechOrdersResponse> orders = List.of(order(3, 20), order(1, 10), order(2, 20), order(4, 10));
+
+        List<OutgoingMessage> messages = publisher.packMessages(orders);
+
+        assertEquals(2, messages.size());
+        assertEquals("product-10", messages.get(0).groupId());
+        assertEquals("product-20", messages.get(1).groupId());
+        assertEquals(List.of(1, 4), orderIds(messages.get(0)));
+        assertEquals(List.of(2, 3), orderIds(messages.get(1)));
+    }
+
+    @Test
+    @DisplayName("Mensagens respeitam o limite de bytes e preservam todas as ordens")
+    void shouldPackOrdersWithinMessageLimit() {
+        List<TechOrdersResponse> orders = IntStream.rangeClosed(1, 30).mapToObj(id -> order(id, 10)).toList();
+
+        List<OutgoingMessage> messages = publisher.packMessages(orders);
+
+        assertTrue(messages.size() > 1);
+        messages.forEach(message -> assertTrue(message.bytes() <= MAX_MESSAGE_BYTES,
+                "mensagem com " + message.bytes() + " bytes"));
+        assertEquals(IntStream.rangeClosed(1, 30).boxed().toList(),
+                messages.stream().flatMap(message -> orderIds(message).stream()).toList());
+        assertEquals(30, messages.stream().mapToInt(OutgoingMessage::orderCount).sum());
+    }
+
+    @Test
+    @DisplayName("Ordem maior que o limite é enviada sozinha, sem afetar as vizinhas")
+    void shouldSendOversizedOrderAlone() {
+        TechOrdersResponse oversized = order(2, 10);
+        oversized.setCertificateDetails("x".repeat(MAX_MESSAGE_BYTES * 2));
+
+        List<OutgoingMessage> messages = publisher.packMessages(List.of(order(1, 10), oversized, order(3, 10)));
+
+        assertEquals(3, messages.size());
+        assertEquals(List.of(1), orderIds(messages.get(0)));
+        assertEquals(List.of(2), orderIds(messages.get(1)));
+        assertTrue(messages.get(1).bytes() > MAX_MESSAGE_BYTES);
+        assertEquals(List.of(3), orderIds(messages.get(2)));
+    }
+
+    @Test
+    @DisplayName("Lotes têm no máximo 10 entradas")
+    void shouldLimitBatchEntries() {
+        List<OutgoingMessage> messages = IntStream.range(0, 25).mapToObj(i -> message(i, 100)).toList();
+
+        List<List<OutgoingMessage>> batches = OrderEventPublisher.packBatches(messages);
+
+        assertEquals(List.of(10, 10, 5), batches.stream().map(List::size).toList());
+    }
+
+    @Test
+    @DisplayName("Lotes têm no máximo 256 KB somando as entradas")
+    void shouldLimitBatchBytes() {
+        List<OutgoingMessage> messages = IntStream.range(0, 5).mapToObj(i -> message(i, 100_000)).toList();
+
+        List<List<OutgoingMessage>> batches = OrderEventPublisher.packBatches(messages);
+
+        assertEquals(List.of(2, 2, 1), batches.stream().map(List::size).toList());
+        batches.forEach(batch -> assertTrue(
+                batch.stream().mapToInt(OutgoingMessage::bytes).sum() <= OrderEventPublisher.MAX_BATCH_BYTES));
+    }
+
+    @Test
+    @DisplayName("Falha parcial do lote reenvia apenas as entradas com falha, com os mesmos ids")
+    void shouldRetryOnlyFailedEntries() {
+        List<TechOrdersResponse> orders = List.of(order(1, 10), order(2, 20), order(3, 30));
+        respondWith(request -> sentRequests.size() == 1
+                ? failed(request, "1", false)
+                : SendMessageBatchResponse.builder().build());
+
+        publisher.publishOrderCreatedEvent(orders);
+
+        assertEquals(2, sentRequests.size());
+        assertEquals(3, sentRequests.get(0).entries().size());
+        SendMessageBatchRequestEntry failedEntry = sentRequests.get(0).entries().get(1);
+        SendMessageBatchRequestEntry retriedEntry = sentRequests.get(1).entries().get(0);
+        assertEquals(1, sentRequests.get(1).entries().size());
+        assertEquals(failedEntry.messageDeduplicationId(), retriedEntry.messageDeduplicationId());
+        assertEquals(failedEntry.messageGroupId(), retriedEntry.messageGroupId());
+        assertEquals(failedEntry.messageBody(), retriedEntry.messageBody());
+    }
+
+    @Test
+    @DisplayName("Falha do lote inteiro reenvia todas as entradas")
+    void shouldRetryWholeBatchOnRequestFailure() {
+        List<TechOrdersResponse> orders = List.of(order(1, 10), order(2, 20));
+        when(sqsAsyncClient.sendMessageBatch(any(Consumer.class))).thenAnswer(invocation -> {
+            SendMessageBatchRequest request = capture(invocation.getArgument(0));
+            return sentRequests.size() == 1
+                    ? CompletableFuture.failedFuture(new IllegalStateException("timeout"))
+                    : CompletableFuture.completedFuture(SendMessageBatchResponse.builder().build());
+        });
+
+        publisher.publishOrderCreatedEvent(orders);
+
+        assertEquals(2, sentRequests.size());
+        assertEquals(2, sentRequests.get(1).entries().size());
+    }
+
+    @Test
+    @DisplayName("Entrada rejeitada por erro do remetente não é reenviada e a publicação falha")
+    void shouldNotRetrySenderFaults() {
+        List<TechOrdersResponse> orders = List.of(order(1, 10), order(2, 20));
+        respondWith(request -> failed(request, "0", true));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> publisher.publishOrderCreatedEvent(orders));
+
+        assertTrue(exception.getMessage().contains("1 orders"));
+        assertEquals(1, sentRequests.size());
+    }
+
+    @Test
+    @DisplayName("Entradas que continuam falhando são abandonadas após max-attempts")
+    void shouldGiveUpAfterMaxAttempts() {
+        respondWith(request -> failed(request, "0", false));
+
+        assertThrows(RuntimeException.class, () -> publisher.publishOrderCreatedEvent(List.of(order(1, 10))));
+
+        assertEquals(2, sentRequests.size());
+    }
+
+    @Test
+    @DisplayName("Mesmas ordens geram os mesmos ids, independentemente da ordem recebida")
+    void shouldDeriveDeterministicIds() {
+        List<OutgoingMessage> first = publisher.packMessages(List.of(order(1, 10), order(2, 10), order(3, 20)));
+        List<OutgoingMessage> second = publisher.packMessages(List.of(order(3, 20), order(2, 10), order(1, 10)));
+
+        assertEquals(first.stream().map(OutgoingMessage::deduplicationId).toList(),
+                second.stream().map(OutgoingMessage::deduplicationId).toList());
+        assertEquals(first.stream().map(OutgoingMessage::groupId).toList(),
+                second.stream().map(OutgoingMessage::groupId).toList());
+    }
+
+    @Test
+    @DisplayName("Deduplication id é o SHA-256 do produto e dos orderIds da mensagem")
+    void shouldHashProductAndOrderIds() {
+        List<OutgoingMessage> messages = publisher.packMessages(List.of(order(2, 10), order(1, 10)));
+        List<OutgoingMessage> others = publisher.packMessages(List.of(order(1, 10), order(3, 10)));
+
+        assertEquals(OrderPayloadCodec.sha256("10:1,2".getBytes(StandardCharsets.UTF_8)),
+                messages.get(0).deduplicationId());
+        assertNotEquals(messages.get(0).deduplicationId(), others.get(0).deduplicationId());
+    }
+
+    @Test
+    @DisplayName("Com group-shards o grupo recebe um shard estável derivado do deduplication id")
+    void shouldShardGroupIds() {
+        OrderEventPublisher shardedPublisher = newPublisher(4);
+        List<TechOrdersResponse> orders = IntStream.rangeClosed(1, 30).mapToObj(id -> order(id, 10)).toList();
+
+        List<OutgoingMessage> messages = shardedPublisher.packMessages(orders);
+
+        assertTrue(messages.size() > 1);
+        for (OutgoingMessage message : messages) {
+            int shard = Math.floorMod(message.deduplicationId().hashCode(), 4);
+            assertEquals("product-10-" + shard, message.groupId());
+        }
+        assertEquals(messages.stream().map(OutgoingMessage::groupId).toList(),
+                shardedPublisher.packMessages(orders).stream().map(OutgoingMessage::groupId).toList());
+    }
+
+    private OrderEventPublisher newPublisher(int groupShards) {
+        return new OrderEventPublisher(sqsAsyncClient, new EventQueuesProperties("builder.fifo"), payloadCodec,
+                MAX_MESSAGE_BYTES, 2, groupShards);
+    }
+
+    private void respondWith(Function<SendMessageBatchRequest, SendMessageBatchResponse> responder) {
+        when(sqsAsyncClient.sendMessageBatch(any(Consumer.class))).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(responder.apply(capture(invocation.getArgument(0)))));
+    }
+
+    private SendMessageBatchRequest capture(Consumer<SendMessageBatchRequest.Builder> consumer) {
+        SendMessageBatchRequest.Builder builder = SendMessageBatchRequest.builder();
+        consumer.accept(builder);
+        SendMessageBatchRequest request = builder.build();
+        sentRequests.add(request);
+        assertEquals(QUEUE_URL, request.queueUrl());
+        return request;
+    }
+
+    private static SendMessageBatchResponse failed(SendMessageBatchRequest request, String entryId, boolean senderFault) {
+        return SendMessageBatchResponse.builder()
+                .failed(BatchResultErrorEntry.builder()
+                        .id(entryId)
+                        .code(senderFault ? "InvalidParameterValue" : "InternalError")
+                        .message("falha simulada")
+                        .senderFault(senderFault)
+                        .build())
+                .build();
+    }
+
+    private static TechOrdersResponse order(Integer orderId, Integer productId) {
+        return TestDataBuilder.createTechOrder(orderId, "participante" + orderId + "@email.com", productId,
+                TestDataBuilder.DEFAULT_TIME_CHECKIN);
+    }
+
+    private static OutgoingMessage message(int index, int bytes) {
+        return new OutgoingMessage("body-" + index, "application/json", bytes, 1, "product-1", "dedup-" + index);
+    }
+
+    private static List<Integer> orderIds(OutgoingMessage message) {
+        try {
+            return List.of(new ObjectMapper().readValue(message.body(), TechOrdersResponse[].class)).stream()
+                    .map(TechOrdersResponse::getOrderId)
+                    .toList();
+        } catch (Exception e) {
+            throw new AssertionError("corpo inválido: " + message.body(), e);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.maal.certifiedbuilderapi.infrastructure.aws.sqs;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maal.certifiedbuilderapi.business.usecase.certificate.TestDataBuilder;
+import com.maal.certifiedbuilderapi.infrastructure.aws.s3.S3ClientCustomer;
+import com.maal.certifiedbuilderapi.infrastructure.aws.s3.S3Properties;
+import com.maal.certifiedbuilderapi.infrastructure.aws.sqs.OrderPayloadCodec.Payload;
+import com.maal.certifiedbuilderapi.infrastructure.client.response.TechOrdersResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes unitários para OrderPayloadCodec
+ * Verifica o corpo gerado em cada formato (json, gzip e claim-check)
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OrderPayloadCodec - Testes Unitários")
+class OrderPayloadCodecTest {
+
+    private static final String BUCKET = "certified-bucket";
+    private static final String PREFIX = "events/products";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private S3ClientCustomer s3ClientCustomer;
+
+    @Mock
+    private S3Properties s3Properties;
+
+    @Test
+    @DisplayName("json: corpo é o array de ordens")
+    void shouldEncodeJsonArray() throws IOException {
+        OrderPayloadCodec codec = codec("json");
+        List<TechOrdersResponse> orders = List.of(order(1, 10), order(2, 10));
+
+        Payload payload = encode(codec, orders);
+
+        assertEquals("application/json", payload.contentType());
+        assertEquals(objectMapper.readTree(objectMapper.writeValueAsString(orders)), objectMapper.readTree(payload.body()));
+        verify(s3ClientCustomer, never()).putObject(anyString(), any(), anyString());
+    }
+
+    @Test
+    @DisplayName("gzip: Base64 descomprimido devolve o mesmo array do json")
+    void shouldRoundTripGzip() throws IOException {
+        List<TechOrdersResponse> orders = List.of(order(1, 10), order(2, 10), order(3, 10));
+        Payload json = encode(codec("json"), orders);
+
+        Payload payload = encode(codec("gzip"), orders);
+
+        assertEquals("application/json+gzip;base64", payload.contentType());
+        assertEquals(json.body(), gunzip(Base64.getDecoder().decode(payload.body())));
+        assertTrue(payload.body().length() < json.body().length());
+    }
+
+    @Test
+    @DisplayName("gzip: orçamento de ordens considera a compressão")
+    void shouldScaleBudgetForGzip() {
+        assertEquals(1_000, codec("json").orderBudget(1_000));
+        assertEquals(4_000, codec("gzip").orderBudget(1_000));
+    }
+
+    @Test
+    @DisplayName("claim-check: corpo referencia os dados do produto no S3 e as ordens não os repetem")
+    void shouldEncodeClaimCheckBody() throws IOException {
+        when(s3Properties.getBucketName()).thenReturn(BUCKET);
+        OrderPayloadCodec codec = codec("claim-check");
+        List<TechOrdersResponse> orders = List.of(order(1, 10), order(2, 10));
+
+        Payload payload = encode(codec, orders);
+
+        assertEquals("application/vnd.certified.orders+json;product-ref=s3", payload.contentType());
+        JsonNode body = objectMapper.readTree(payload.body());
+        JsonNode reference = body.path("products").path("10");
+        assertEquals(BUCKET, reference.path("bucket").asText());
+        assertTrue(reference.path("key").asText().matches(PREFIX + "/10/[0-9a-f]{64}\\.json"),
+                reference.path("key").asText());
+
+        assertEquals(2, body.path("orders").size());
+        for (JsonNode order : body.path("orders")) {
+            assertFalse(order.has("certificate_details"));
+            assertFalse(order.has("certificate_logo"));
+            assertFalse(order.has("certificate_background"));
+            assertEquals(10, order.path("product_id").asInt());
+        }
+    }
+
+    @Test
+    @DisplayName("claim-check: dados do produto são gravados uma vez, com os campos removidos das ordens")
+    void shouldUploadProductDataOnce() throws IOException {
+        when(s3Properties.getBucketName()).thenReturn(BUCKET);
+        OrderPayloadCodec codec = codec("claim-check");
+
+        Payload first = encode(codec, List.of(order(1, 10)));
+        Payload second = encode(codec, List.of(order(2, 10)));
+
+        ArgumentCaptor<byte[]> content = ArgumentCaptor.forClass(byte[].class);
+        verify(s3ClientCustomer, times(1)).putObject(anyString(), content.capture(), anyString());
+        JsonNode productData = objectMapper.readTree(new String(content.getValue(), StandardCharsets.UTF_8));
+        assertEquals("Certificado de conclusão do curso", productData.path("certificate_details").asText());
+        assertEquals("logo.png", productData.path("certificate_logo").asText());
+        assertEquals("background.jpg", productData.path("certificate_background").asText());
+
+        // A mesma versão dos dados do produto é reutilizada pelas mensagens seguintes
+        assertEquals(objectMapper.readTree(first.body()).path("products"),
+                objectMapper.readTree(second.body()).path("products"));
+    }
+
+    @Test
+    @DisplayName("claim-check: dados de produto diferentes geram chaves diferentes")
+    void shouldKeyProductDataByContent() throws IOException {
+        when(s3Properties.getBucketName()).thenReturn(BUCKET);
+        OrderPayloadCodec codec = codec("claim-check");
+        TechOrdersResponse changed = order(2, 10);
+        changed.setCertificateLogo("logo-v2.png");
+
+        Payload first = encode(codec, List.of(order(1, 10)));
+        Payload second = encode(codec, List.of(changed));
+
+        verify(s3ClientCustomer, times(2)).putObject(anyString(), any(), anyString());
+        assertNotEquals(objectMapper.readTree(first.body()).path("products").path("10").path("key"),
+                objectMapper.readTree(second.body()).path("products").path("10").path("key"));
+    }
+
+    private OrderPayloadCodec codec(String encoding) {
+        return new OrderPayloadCodec(objectMapper, s3ClientCustomer, s3Properties, encoding, PREFIX);
+    }
+
+    private static Payload encode(OrderPayloadCodec codec, List<TechOrdersResponse> orders) {
+        return codec.encode(orders, orders.stream().map(codec::orderJson).toList());
+    }
+
+    private static TechOrdersResponse order(Integer orderId, Integer productId) {
+        return TestDataBuilder.createTechOrder(orderId, "participante" + orderId + "@email.com", productId,
+                TestDataBuilder.DEFAULT_TIME_CHECKIN);
+    }
+
+    private static String gunzip(byte[] content) throws IOException {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
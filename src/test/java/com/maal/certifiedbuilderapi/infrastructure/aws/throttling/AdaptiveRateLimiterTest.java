@@ -0,0 +1,87 @@
+package com.maal.certifiedbuilderapi.infrastructure.aws.throttling;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para AdaptiveRateLimiter
+ * Usa reserve (sem bloquear) para verificar as esperas calculadas
+ */
+@DisplayName("AdaptiveRateLimiter - Testes Unitários")
+class AdaptiveRateLimiterTest {
+
+    private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1);
+    // Tolerância para o tempo decorrido entre as chamadas do teste
+    private static final long TOLERANCE = TimeUnit.MILLISECONDS.toNanos(200);
+
+    @Test
+    @DisplayName("Primeira reserva não espera e a seguinte paga o custo da anterior")
+    void shouldMakeNextRequestPayForPreviousUnits() {
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(10, 1, 100, 1, 0.5);
+
+        assertTrue(limiter.reserve(10) <= 0);
+
+        long wait = limiter.reserve(1);
+        assertTrue(wait > ONE_SECOND - TOLERANCE && wait <= ONE_SECOND, "espera de ~1s, obtido " + wait);
+    }
+
+    @Test
+    @DisplayName("Unidades cobradas após a resposta atrasam as próximas requisições")
+    void shouldDelayNextRequestsByChargedUnits() {
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(10, 1, 100, 1, 0.5);
+        limiter.reserve(1);
+
+        limiter.charge(20);
+
+        long wait = limiter.reserve(1);
+        long expected = ONE_SECOND / 10 + 2 * ONE_SECOND;
+        assertTrue(wait > expected - TOLERANCE && wait <= expected, "espera de ~2.1s, obtido " + wait);
+    }
+
+    @Test
+    @DisplayName("Cobrança não positiva não altera a espera")
+    void shouldIgnoreNonPositiveCharge() {
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(10, 1, 100, 1, 0.5);
+
+        limiter.charge(0);
+        limiter.charge(-3);
+
+        assertTrue(limiter.reserve(1) <= 0);
+    }
+
+    @Test
+    @DisplayName("Limitação reduz a taxa uma única vez por intervalo")
+    void shouldDecreaseRateOncePerInterval() {
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(40, 1, 100, 1, 0.5);
+
+        limiter.onThrottle();
+        limiter.onThrottle();
+
+        assertEquals(20, limiter.currentRate());
+    }
+
+    @Test
+    @DisplayName("Taxa nunca fica abaixo do mínimo")
+    void shouldNotDecreaseBelowMinRate() {
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(3, 2, 100, 1, 0.5);
+
+        limiter.onThrottle();
+
+        assertEquals(2, limiter.currentRate());
+    }
+
+    @Test
+    @DisplayName("Sucesso sem espera no limitador não aumenta a taxa")
+    void shouldNotIncreaseWhenNotSaturated() {
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(10, 1, 100, 5, 0.5);
+
+        limiter.reserve(1);
+        limiter.onSuccess();
+
+        assertEquals(10, limiter.currentRate());
+    }
+}
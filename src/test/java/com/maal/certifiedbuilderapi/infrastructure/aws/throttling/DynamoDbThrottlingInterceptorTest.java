@@ -0,0 +1,52 @@
+package com.maal.certifiedbuilderapi.infrastructure.aws.throttling;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para DynamoDbThrottlingInterceptor
+ * Verifica a leitura da capacidade consumida das respostas de gravação
+ */
+@DisplayName("DynamoDbThrottlingInterceptor - Testes Unitários")
+class DynamoDbThrottlingInterceptorTest {
+
+    @Test
+    @DisplayName("Deve ler a capacidade consumida de um PutItem")
+    void shouldReadPutItemConsumedCapacity() {
+        PutItemResponse response = PutItemResponse.builder()
+                .consumedCapacity(capacity("orders", 3.0))
+                .build();
+
+        assertEquals(Map.of("orders", 3.0), DynamoDbThrottlingInterceptor.consumedCapacity(response));
+    }
+
+    @Test
+    @DisplayName("Deve separar por tabela a capacidade consumida de um BatchWriteItem")
+    void shouldReadBatchWriteConsumedCapacityPerTable() {
+        BatchWriteItemResponse response = BatchWriteItemResponse.builder()
+                .consumedCapacity(capacity("orders", 25.0), capacity("participants", 4.0))
+                .build();
+
+        assertEquals(Map.of("orders", 25.0, "participants", 4.0),
+                DynamoDbThrottlingInterceptor.consumedCapacity(response));
+    }
+
+    @Test
+    @DisplayName("Resposta sem capacidade consumida não cobra nada")
+    void shouldReturnEmptyWhenCapacityIsMissing() {
+        assertTrue(DynamoDbThrottlingInterceptor.consumedCapacity(UpdateItemResponse.builder().build()).isEmpty());
+        assertTrue(DynamoDbThrottlingInterceptor.consumedCapacity(BatchWriteItemResponse.builder().build()).isEmpty());
+    }
+
+    private static ConsumedCapacity capacity(String table, double units) {
+        return ConsumedCapacity.builder().tableName(table).capacityUnits(units).build();
+    }
+}
@@ -0,0 +1,127 @@
+package com.maal.certifiedbuilderapi.infrastructure.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para SingleFlightLoader
+ * O loader fica bloqueado até o teste liberá-lo, para que a segunda chamada
+ * chegue com o carregamento ainda em voo
+ */
+@DisplayName("SingleFlightLoader - Testes Unitários")
+class SingleFlightLoaderTest {
+
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private final SingleFlightLoader<Integer, String> loader = new SingleFlightLoader<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Test
+    @DisplayName("Carregamentos concorrentes da mesma chave executam o loader uma única vez")
+    void shouldShareInFlightLoad() throws Exception {
+        CompletableFuture<String> first = new CompletableFuture<>();
+        startLoad(1, this::blockingLoad, first);
+        assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        CompletableFuture<String> second = new CompletableFuture<>();
+        awaitWaiting(startLoad(1, this::blockingLoad, second));
+        release.countDown();
+
+        assertEquals("value-1", first.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals("value-1", second.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+        assertEquals(0, loader.inFlightCount());
+    }
+
+    @Test
+    @DisplayName("Falha é propagada a quem aguardava e não fica memorizada")
+    void shouldNotMemoizeFailure() throws Exception {
+        CompletableFuture<String> first = new CompletableFuture<>();
+        startLoad(1, key -> {
+            blockingLoad(key);
+            throw new IllegalStateException("falha no carregamento");
+        }, first);
+        assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        CompletableFuture<String> second = new CompletableFuture<>();
+        awaitWaiting(startLoad(1, this::blockingLoad, second));
+        release.countDown();
+
+        ExecutionException firstFailure = assertThrows(ExecutionException.class,
+                () -> first.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, firstFailure.getCause());
+        ExecutionException secondFailure = assertThrows(ExecutionException.class,
+                () -> second.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertSame(firstFailure.getCause(), secondFailure.getCause());
+        assertEquals(1, loads.get());
+        assertEquals(0, loader.inFlightCount());
+
+        // A próxima chamada executa o loader novamente
+        assertEquals("value-1", loader.load(1, key -> "value-" + key));
+    }
+
+    @Test
+    @DisplayName("Chaves diferentes não aguardam o carregamento umas das outras")
+    void shouldNotBlockOtherKeys() throws Exception {
+        CompletableFuture<String> first = new CompletableFuture<>();
+        startLoad(1, this::blockingLoad, first);
+        assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        assertEquals("value-2", loader.load(2, key -> "value-" + key));
+        assertEquals(1, loader.inFlightCount());
+
+        release.countDown();
+        assertEquals("value-1", first.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    private String blockingLoad(Integer key) {
+        loads.incrementAndGet();
+        started.countDown();
+        try {
+            if (!release.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("loader não foi liberado");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        return "value-" + key;
+    }
+
+    /**
+     * Executa load em uma nova thread, completando result com o valor ou a exceção
+     */
+    private Thread startLoad(Integer key, Function<Integer, String> load, CompletableFuture<String> result) {
+        Thread thread = new Thread(() -> {
+            try {
+                result.complete(loader.load(key, load));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Aguarda a thread ficar parada no future do carregamento em voo
+     */
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (thread.getState() != Thread.State.WAITING) {
+            assertTrue(System.nanoTime() < deadline, "thread não ficou aguardando o carregamento");
+            Thread.sleep(5);
+        }
+    }
+}
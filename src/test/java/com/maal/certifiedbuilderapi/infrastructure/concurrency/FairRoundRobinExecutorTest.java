@@ -0,0 +1,163 @@
+package com.maal.certifiedbuilderapi.infrastructure.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para FairRoundRobinExecutor
+ * Uma tarefa "gate" segura as permissões enquanto as demais são enfileiradas,
+ * para que a ordem de execução dependa apenas do escalonamento
+ */
+@DisplayName("FairRoundRobinExecutor - Testes Unitários")
+class FairRoundRobinExecutorTest {
+
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private FairRoundRobinExecutor executor;
+    private final CountDownLatch gate = new CountDownLatch(1);
+    private final List<String> executed = Collections.synchronizedList(new ArrayList<>());
+
+    @AfterEach
+    void tearDown() {
+        gate.countDown();
+        if (executor != null) {
+            executor.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Chaves com tarefas aguardando são atendidas em rodízio, e não na ordem de submissão")
+    void shouldAlternateKeysInRoundRobin() throws Exception {
+        executor = new FairRoundRobinExecutor("test", 1, new SimpleMeterRegistry());
+        CompletableFuture<Void> blocker = executor.submit("gate", this::awaitGate);
+
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        futures.add(executor.submit("A", () -> record("A1")));
+        futures.add(executor.submit("A", () -> record("A2")));
+        futures.add(executor.submit("A", () -> record("A3")));
+        futures.add(executor.submit("B", () -> record("B1")));
+        futures.add(executor.submit("C", () -> record("C1")));
+
+        gate.countDown();
+        blocker.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertEquals(List.of("A1", "B1", "C1", "A2", "A3"), executed);
+    }
+
+    @Test
+    @DisplayName("Tarefas da mesma chave executam na ordem de submissão")
+    void shouldKeepSubmissionOrderWithinKey() throws Exception {
+        executor = new FairRoundRobinExecutor("test", 1, new SimpleMeterRegistry());
+        CompletableFuture<Void> blocker = executor.submit("gate", this::awaitGate);
+
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            String name = "A" + i;
+            futures.add(executor.submit("A", () -> record(name)));
+        }
+
+        gate.countDown();
+        blocker.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertEquals(List.of("A1", "A2", "A3", "A4", "A5"), executed);
+    }
+
+    @Test
+    @DisplayName("Exceção da tarefa completa o future excepcionalmente e libera a permissão")
+    void shouldReleasePermitWhenTaskFails() throws Exception {
+        executor = new FairRoundRobinExecutor("test", 1, new SimpleMeterRegistry());
+
+        CompletableFuture<String> failed = executor.submit("A", () -> {
+            throw new IllegalStateException("falha");
+        });
+        CompletableFuture<String> next = executor.submit("B", () -> record("B1"));
+
+        Exception exception = assertThrows(Exception.class, () -> failed.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+        assertEquals("B1", next.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Com maxPerKey=1 as tarefas de uma chave executam em sequência mesmo com permissões livres")
+    void shouldSerializeTasksOfKeyWithMaxPerKeyOne() throws Exception {
+        executor = new FairRoundRobinExecutor("test", 4, 1, new SimpleMeterRegistry());
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            String name = "A" + i;
+            futures.add(executor.submit("A", () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(20);
+                running.decrementAndGet();
+                return record(name);
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertEquals(1, maxRunning.get());
+        assertEquals(List.of("A1", "A2", "A3", "A4", "A5"), executed);
+    }
+
+    @Test
+    @DisplayName("Chave no limite de maxPerKey não bloqueia as demais chaves")
+    void shouldRunOtherKeysWhileKeyIsAtLimit() throws Exception {
+        executor = new FairRoundRobinExecutor("test", 2, 1, new SimpleMeterRegistry());
+        CompletableFuture<Void> blocker = executor.submit("A", this::awaitGate);
+        CompletableFuture<String> queued = executor.submit("A", () -> record("A2"));
+
+        CompletableFuture<String> other = executor.submit("B", () -> record("B1"));
+
+        assertEquals("B1", other.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertFalse(queued.isDone());
+
+        gate.countDown();
+        blocker.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertEquals("A2", queued.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Chave que atingiu maxPerKey volta ao rodízio quando uma de suas tarefas termina")
+    void shouldRequeueKeyWhenTaskAtLimitFinishes() throws Exception {
+        executor = new FairRoundRobinExecutor("test", 1, 1, new SimpleMeterRegistry());
+        CompletableFuture<Void> blocker = executor.submit("A", this::awaitGate);
+
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        futures.add(executor.submit("A", () -> record("A2")));
+        futures.add(executor.submit("A", () -> record("A3")));
+        futures.add(executor.submit("B", () -> record("B1")));
+
+        gate.countDown();
+        blocker.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        // A saiu do rodízio com A1 em execução e voltou ao fim da fila de vez, depois de B
+        assertEquals(List.of("B1", "A2", "A3"), executed);
+        assertEquals(1, executor.getMaxPerKey());
+    }
+
+    private Void awaitGate() throws InterruptedException {
+        assertTrue(gate.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        return null;
+    }
+
+    private String record(String name) {
+        executed.add(name);
+        return name;
+    }
+}
@@ -0,0 +1,86 @@
+package com.maal.certifiedbuilderapi.infrastructure.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para RetryBudget
+ * O saldo começa em maxBalance; minPerSecond=0 isola o depósito por tentativa da recarga por tempo
+ */
+@DisplayName("RetryBudget - Testes Unitários")
+class RetryBudgetTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Retentativas são negadas quando o saldo se esgota")
+    void shouldDenyRetriesWhenExhausted() {
+        RetryBudget budget = new RetryBudget("test", 0.2, 0, 2, meterRegistry);
+
+        assertTrue(budget.tryAcquireRetry());
+        assertTrue(budget.tryAcquireRetry());
+        assertFalse(budget.tryAcquireRetry());
+        assertEquals(0, budget.balance(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Cada primeira tentativa deposita ratio créditos")
+    void shouldDepositRatioPerAttempt() {
+        RetryBudget budget = new RetryBudget("test", 0.5, 0, 2, meterRegistry);
+        budget.tryAcquireRetry();
+        budget.tryAcquireRetry();
+
+        budget.recordAttempt();
+        assertFalse(budget.tryAcquireRetry());
+
+        budget.recordAttempt();
+        assertTrue(budget.tryAcquireRetry());
+        assertFalse(budget.tryAcquireRetry());
+    }
+
+    @Test
+    @DisplayName("Saldo não ultrapassa maxBalance")
+    void shouldCapBalanceAtMax() {
+        RetryBudget budget = new RetryBudget("test", 1, 0, 3, meterRegistry);
+
+        for (int i = 0; i < 10; i++) {
+            budget.recordAttempt();
+        }
+
+        assertEquals(3, budget.balance(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Saldo é recarregado com minPerSecond créditos por segundo")
+    void shouldRefillOverTime() throws InterruptedException {
+        RetryBudget budget = new RetryBudget("test", 0, 100, 1, meterRegistry);
+        assertTrue(budget.tryAcquireRetry());
+
+        // 100 créditos/s: um crédito em ~10ms
+        Thread.sleep(50);
+
+        assertTrue(budget.tryAcquireRetry());
+    }
+
+    @Test
+    @DisplayName("Métricas contam retentativas autorizadas e negadas")
+    void shouldCountAcquiredAndExhaustedRetries() {
+        RetryBudget budget = new RetryBudget("test", 0, 0, 1, meterRegistry);
+
+        budget.tryAcquireRetry();
+        budget.tryAcquireRetry();
+        budget.tryAcquireRetry();
+
+        assertEquals(1, meterRegistry.get("certified.retry.attempts").tag("budget", "test").counter().count());
+        assertEquals(2, meterRegistry.get("certified.retry.exhausted").tag("budget", "test").counter().count());
+    }
+}
@@ -0,0 +1,79 @@
+package com.maal.certifiedbuilderapi.infrastructure.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classificação de falhas do BatchWriteSupport
+ */
+@DisplayName("BatchWriteSupport - Testes Unitários")
+class BatchWriteSupportTest {
+
+    @Test
+    @DisplayName("Limitação de capacidade é retentada")
+    void shouldRetryThrottling() {
+        ProvisionedThroughputExceededException exception = ProvisionedThroughputExceededException.builder()
+                .statusCode(400)
+                .awsErrorDetails(errorDetails("ProvisionedThroughputExceededException"))
+                .build();
+
+        assertTrue(BatchWriteSupport.isRetryable(exception));
+    }
+
+    @Test
+    @DisplayName("Erro 5xx do serviço é retentado")
+    void shouldRetryServerError() {
+        DynamoDbException exception = DynamoDbException.builder()
+                .statusCode(500)
+                .awsErrorDetails(errorDetails("InternalServerError"))
+                .build();
+
+        assertTrue(BatchWriteSupport.isRetryable(exception));
+    }
+
+    @Test
+    @DisplayName("Falha de rede é retentada")
+    void shouldRetryNetworkFailure() {
+        SdkClientException exception = SdkClientException.builder()
+                .message("Connection reset")
+                .cause(new IOException("Connection reset"))
+                .build();
+
+        assertTrue(BatchWriteSupport.isRetryable(exception));
+    }
+
+    @Test
+    @DisplayName("Erro de validação falha sem retentativa")
+    void shouldNotRetryValidationError() {
+        DynamoDbException exception = DynamoDbException.builder()
+                .statusCode(400)
+                .awsErrorDetails(errorDetails("ValidationException"))
+                .build();
+
+        assertFalse(BatchWriteSupport.isRetryable(exception));
+    }
+
+    @Test
+    @DisplayName("Tabela inexistente falha sem retentativa")
+    void shouldNotRetryMissingTable() {
+        ResourceNotFoundException exception = ResourceNotFoundException.builder()
+                .statusCode(400)
+                .awsErrorDetails(errorDetails("ResourceNotFoundException"))
+                .build();
+
+        assertFalse(BatchWriteSupport.isRetryable(exception));
+    }
+
+    private static AwsErrorDetails errorDetails(String errorCode) {
+        return AwsErrorDetails.builder().errorCode(errorCode).build();
+    }
+}